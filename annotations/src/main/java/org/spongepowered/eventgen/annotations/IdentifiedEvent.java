@@ -0,0 +1,48 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventgen.annotations;
+
+/**
+ * Implemented by generated event implementations that were assigned a dense
+ * id by their factory.
+ *
+ * <p>Ids index the registry of the factory, see its {@code eventType(int)}
+ * and {@code eventCount()} methods, so an event bus can dispatch through
+ * plain arrays instead of looking up the event class on every fire.</p>
+ *
+ * <p>Unlike the annotations, this interface is needed at runtime by the
+ * generated implementations.</p>
+ */
+public interface IdentifiedEvent {
+
+    /**
+     * Get the id assigned to the type of this event by the factory that
+     * generated it.
+     *
+     * @return the event id
+     */
+    int generatedEventId();
+
+}
@@ -55,4 +55,15 @@
      * @return The name to use
      */
     String value() default "";
+
+    /**
+     * Gets whether the transformed value should be computed once and cached
+     * in the event, rather than on every call of the annotated method.
+     *
+     * <p>The cached value is discarded whenever the property is set through
+     * its mutator.</p>
+     *
+     * @return Whether to cache the transformed value
+     */
+    boolean memoize() default false;
 }
@@ -54,4 +54,13 @@
      */
     String version() default "<unknown>";
 
+    /**
+     * The plugins that contributed to this implementation, as
+     * {@code id} or {@code id:version}.
+     *
+     * <p>Recording these means a plugin upgrade changes the generated
+     * output, while an unchanged plugin leaves it untouched.</p>
+     */
+    String[] plugins() default {};
+
 }
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVisitor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies a typical mix of event method names, most of which are
+ * accessors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NameClassifierBenchmark {
+
+    private static final String[] NAMES = {
+        "getCount", "isCancelled", "hasCustomName", "keepsInventory", "setCount", "setCancelled",
+        "entity", "cause", "getOriginalItem", "item", "toString", "getaway", "settle", "isolate"
+    };
+
+    private final NameClassifier classifier = new NameClassifier(Set.copyOf(NamingConvention.STANDARD));
+    private final TypeMirror booleanType = new Kind(TypeKind.BOOLEAN);
+    private final TypeMirror declaredType = new Kind(TypeKind.DECLARED);
+
+    @Benchmark
+    public void accessors(final Blackhole blackhole) {
+        for (final String name : NameClassifierBenchmark.NAMES) {
+            blackhole.consume(this.classifier.accessorName(name, name.startsWith("is") ? this.booleanType : this.declaredType));
+        }
+    }
+
+    @Benchmark
+    public void mutators(final Blackhole blackhole) {
+        for (final String name : NameClassifierBenchmark.NAMES) {
+            blackhole.consume(this.classifier.mutatorName(name, this.declaredType));
+        }
+    }
+
+    /**
+     * A type only known by its kind, which is all the standard conventions
+     * look at.
+     */
+    private record Kind(TypeKind kind) implements TypeMirror {
+
+        @Override
+        public TypeKind getKind() {
+            return this.kind;
+        }
+
+        @Override
+        public <R, P> R accept(final TypeVisitor<R, P> visitor, final P parameter) {
+            return visitor.visitUnknown(this, parameter);
+        }
+
+        @Override
+        public List<? extends AnnotationMirror> getAnnotationMirrors() {
+            return List.of();
+        }
+
+        @Override
+        public <A extends Annotation> A getAnnotation(final Class<A> annotationType) {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <A extends Annotation> A[] getAnnotationsByType(final Class<A> annotationType) {
+            return (A[]) Array.newInstance(annotationType, 0);
+        }
+
+    }
+
+}
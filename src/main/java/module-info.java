@@ -10,6 +10,9 @@
     requires transitive dagger;
     requires transitive javax.inject;
     requires jakarta.inject;
+    requires org.objectweb.asm;
+    requires java.management;
+    requires static jdk.management;
     requires transitive java.compiler;
     requires transitive jdk.compiler;
     requires transitive org.spongepowered.eventimplgen.annotations;
@@ -18,5 +21,8 @@
     requires static transitive org.jetbrains.annotations;
     requires transitive com.palantir.javapoet;
 
+    uses org.spongepowered.eventimplgen.eventgencore.NamingConvention;
+    uses org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+
     provides javax.annotation.processing.Processor with org.spongepowered.eventimplgen.processor.EventImplGenProcessor;
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.AbsoluteSortPosition;
+import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
+import org.spongepowered.eventgen.annotations.FactoryMethod;
+import org.spongepowered.eventgen.annotations.FlyweightView;
+import org.spongepowered.eventgen.annotations.ImplementedBy;
+import org.spongepowered.eventgen.annotations.NoFactoryMethod;
+import org.spongepowered.eventgen.annotations.OffHeapRecord;
+import org.spongepowered.eventgen.annotations.PropertySettings;
+import org.spongepowered.eventgen.annotations.TransformResult;
+import org.spongepowered.eventgen.annotations.TransformWith;
+import org.spongepowered.eventgen.annotations.UseField;
+import org.spongepowered.eventgen.annotations.internal.GeneratedEvent;
+import org.spongepowered.eventgen.annotations.internal.GeneratedFactory;
+import org.spongepowered.eventimplgen.processor.EventGenOptions;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Answers annotation presence queries for the annotations the generator
+ * looks at.
+ *
+ * <p>Tracked annotation types are resolved once per round, and the mirrors
+ * of tracked annotations on each queried element are cached until the next
+ * round, so lookups compare annotation types by identity rather than by
+ * qualified name.</p>
+ */
+@Singleton
+public final class AnnotationIndex {
+
+    private static final AnnotationMirror[] NONE = new AnnotationMirror[0];
+    private static final List<Class<? extends Annotation>> TRACKED = List.of(
+        AbsoluteSortPosition.class,
+        BatchFactoryMethod.class,
+        FactoryMethod.class,
+        FlyweightView.class,
+        GeneratedEvent.class,
+        GeneratedFactory.class,
+        ImplementedBy.class,
+        NoFactoryMethod.class,
+        OffHeapRecord.class,
+        PropertySettings.class,
+        TransformResult.class,
+        TransformWith.class,
+        UseField.class
+    );
+
+    private final Elements elements;
+    private final Set<String> trackedNames = new LinkedHashSet<>();
+    private final Map<String, TypeElement> resolved = new HashMap<>();
+    private final Set<TypeElement> tracked = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Element, AnnotationMirror[]> mirrors = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    @Inject
+    AnnotationIndex(final Elements elements, final EventGenOptions options) {
+        this(elements);
+        this.trackedNames.addAll(options.inclusiveAnnotations());
+        this.trackedNames.addAll(options.exclusiveAnnotations());
+    }
+
+    /**
+     * Create an index tracking only the annotations of the generator itself.
+     *
+     * @param elements the element utilities
+     */
+    public AnnotationIndex(final Elements elements) {
+        this.elements = elements;
+        for (final Class<? extends Annotation> annotation : AnnotationIndex.TRACKED) {
+            this.trackedNames.add(annotation.getCanonicalName());
+        }
+    }
+
+    /**
+     * Track additional annotations, such as the property annotations of
+     * plugins.
+     *
+     * <p>Annotations tracked during a round are resolved immediately.</p>
+     *
+     * @param annotations the annotations to track
+     */
+    public void track(final Collection<Class<? extends Annotation>> annotations) {
+        boolean added = false;
+        for (final Class<? extends Annotation> annotation : annotations) {
+            final String name = annotation.getCanonicalName();
+            if (this.trackedNames.add(name)) {
+                added = true;
+                final @Nullable TypeElement element = this.elements.getTypeElement(name);
+                if (element != null) {
+                    this.resolved.put(name, element);
+                    this.tracked.add(element);
+                }
+            }
+        }
+        if (added) {
+            // cached mirrors were filtered without the new annotations
+            this.mirrors.clear();
+        }
+    }
+
+    /**
+     * Resolve the tracked annotation types and forget all cached mirrors.
+     *
+     * <p>This is called at the start of every round.</p>
+     */
+    public void newRound() {
+        this.clear();
+        for (final String name : this.trackedNames) {
+            final @Nullable TypeElement element = this.elements.getTypeElement(name);
+            if (element != null) {
+                this.resolved.put(name, element);
+                this.tracked.add(element);
+            }
+        }
+    }
+
+    /**
+     * Forget all resolved types and cached mirrors, at the end of a
+     * compilation.
+     */
+    public void clear() {
+        this.resolved.clear();
+        this.tracked.clear();
+        this.mirrors.clear();
+    }
+
+    /**
+     * Get the resolved types of the given tracked annotations.
+     *
+     * <p>Annotations that could not be resolved are left out.</p>
+     *
+     * @param names the canonical names of the annotations
+     * @return the annotation types
+     */
+    public Set<TypeElement> resolve(final Set<String> names) {
+        final Set<TypeElement> types = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final String name : names) {
+            final @Nullable TypeElement element = this.resolved.get(name);
+            if (element != null) {
+                types.add(element);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Get the mirror of an annotation on an element.
+     *
+     * @param element the annotated element
+     * @param annotation the tracked annotation
+     * @return the annotation mirror, if present
+     */
+    public @Nullable AnnotationMirror get(final Element element, final Class<? extends Annotation> annotation) {
+        final @Nullable TypeElement type = this.type(annotation);
+        if (type == null) {
+            return null;
+        }
+        for (final AnnotationMirror mirror : this.mirrors(element)) {
+            if (mirror.getAnnotationType().asElement() == type) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get whether an annotation is present on an element.
+     *
+     * @param element the annotated element
+     * @param annotation the tracked annotation
+     * @return whether the annotation is present
+     */
+    public boolean isPresent(final Element element, final Class<? extends Annotation> annotation) {
+        return this.get(element, annotation) != null;
+    }
+
+    /**
+     * Get an annotation on an element as an instance of its type.
+     *
+     * <p>The annotation is only synthesized if it is present.</p>
+     *
+     * @param element the annotated element
+     * @param annotation the tracked annotation
+     * @param <A> the annotation type
+     * @return the annotation, if present
+     */
+    public <A extends Annotation> @Nullable A find(final Element element, final Class<A> annotation) {
+        return this.isPresent(element, annotation) ? element.getAnnotation(annotation) : null;
+    }
+
+    /**
+     * Get whether any of the given annotations is present on an element.
+     *
+     * @param element the annotated element
+     * @param annotations annotation types from {@link #resolve(Set)}
+     * @return whether any annotation is present
+     */
+    public boolean containsAny(final Element element, final Set<TypeElement> annotations) {
+        for (final AnnotationMirror mirror : this.mirrors(element)) {
+            if (annotations.contains(mirror.getAnnotationType().asElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of mirror lookups answered from the cache.
+     *
+     * @return the cache hits
+     */
+    public long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Get the number of mirror lookups that had to read the element.
+     *
+     * @return the cache misses
+     */
+    public long misses() {
+        return this.misses;
+    }
+
+    private @Nullable TypeElement type(final Class<? extends Annotation> annotation) {
+        final String name = annotation.getCanonicalName();
+        if (!this.trackedNames.contains(name)) {
+            throw new IllegalArgumentException("Annotation " + name + " is not tracked");
+        }
+        return this.resolved.get(name);
+    }
+
+    private AnnotationMirror[] mirrors(final Element element) {
+        AnnotationMirror[] found = this.mirrors.get(element);
+        if (found == null) {
+            this.misses++;
+            List<AnnotationMirror> relevant = null;
+            for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                if (this.tracked.contains(mirror.getAnnotationType().asElement())) {
+                    if (relevant == null) {
+                        relevant = new ArrayList<>(1);
+                    }
+                    relevant.add(mirror);
+                }
+            }
+            found = relevant == null ? AnnotationIndex.NONE : relevant.toArray(AnnotationIndex.NONE);
+            this.mirrors.put(element, found);
+        } else {
+            this.hits++;
+        }
+        return found;
+    }
+
+}
@@ -62,7 +62,7 @@ public static <T> T getValue(final AnnotationMirror anno, final String key) {
         return AnnotationUtils.getAnnotation(type, clazz.getName());
     }
 
-    public static @Nullable DeclaredType getImplementedBy(final TypeElement iface) {
+    public static @Nullable DeclaredType getImplementedBy(final AnnotationIndex annotations, final TypeElement iface) {
         final Queue<TypeElement> queue = new ArrayDeque<>();
         AnnotationMirror implementedBy = null;
         int max = Integer.MIN_VALUE;
@@ -71,7 +71,7 @@ public static <T> T getValue(final AnnotationMirror anno, final String key) {
         TypeElement scannedType;
 
         while ((scannedType = queue.poll()) != null) {
-            final AnnotationMirror anno = AnnotationUtils.getAnnotation(scannedType, ImplementedBy.class);
+            final AnnotationMirror anno = annotations.get(scannedType, ImplementedBy.class);
             Integer priority = AnnotationUtils.getValue(anno, "priority");
             if (priority == null) {
                 priority = 1;
@@ -29,7 +29,8 @@
 import dagger.assisted.AssistedInject;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.eventgen.annotations.ImplementedBy;
-import org.spongepowered.eventimplgen.AnnotationUtils;
+import org.spongepowered.eventgen.annotations.PropertySettings;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.signature.Descriptors;
 
 import java.util.ArrayDeque;
@@ -40,12 +41,12 @@
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
@@ -66,13 +67,10 @@
  */
 public class AccessorFirstStrategy implements PropertySearchStrategy {
 
-    private static final Pattern ACCESSOR = Pattern.compile("^get([A-Z].*)");
-    private static final Pattern ACCESSOR_BOOL = Pattern.compile("^is([A-Z].*)");
-    private static final Pattern ACCESSOR_HAS = Pattern.compile("^has([A-Z].*)");
-    private static final Pattern ACCESSOR_KEEPS = Pattern.compile("^(keeps[A-Z].*)");
-    private static final Pattern MUTATOR = Pattern.compile("^set([A-Z].*)");
-
     private final Descriptors descriptors;
+    private final NameClassifier names;
+    private final BaseClassCache baseClasses;
+    private final AnnotationIndex annotationIndex;
     private final Types types;
     private final boolean allowFluentStyle;
 
@@ -84,9 +82,14 @@ public interface Factory {
     }
 
     @AssistedInject
-    public AccessorFirstStrategy(final Types types, final Elements elements, final Descriptors descriptors, @Assisted final boolean allowFluentStyle) {
+    public AccessorFirstStrategy(final Types types, final Elements elements, final Descriptors descriptors, final NameClassifier names,
+                                 final BaseClassCache baseClasses, final AnnotationIndex annotationIndex,
+                                 @Assisted final boolean allowFluentStyle) {
         this.types = types;
         this.descriptors = descriptors;
+        this.names = names;
+        this.baseClasses = baseClasses;
+        this.annotationIndex = annotationIndex;
         this.allowFluentStyle = allowFluentStyle;
         this.optional = elements.getTypeElement("java.util.Optional");
     }
@@ -98,39 +101,21 @@ public AccessorFirstStrategy(final Types types, final Elements elements, final D
      * @param method The method
      * @return The property name, if the method is an accessor
      */
-    private String getAccessorName(final ExecutableElement method) {
-        Matcher m;
-
+    private @Nullable String getAccessorName(final ExecutableElement method) {
         if (this.isPublic(method) && method.getParameters().isEmpty()) {
-            final CharSequence methodName = method.getSimpleName();
             final TypeMirror returnType = method.getReturnType();
 
             if (returnType.getKind() == TypeKind.VOID) {
                 return null;
             }
 
-            m = AccessorFirstStrategy.ACCESSOR.matcher(methodName);
-            if (m.matches()) {
-                return AccessorFirstStrategy.getPropertyName(m.group(1));
-            }
-
-            m = AccessorFirstStrategy.ACCESSOR_BOOL.matcher(methodName);
-            if (m.matches() && returnType.getKind() == TypeKind.BOOLEAN) {
-                return AccessorFirstStrategy.getPropertyName(m.group(1));
-            }
-
-            m = AccessorFirstStrategy.ACCESSOR_KEEPS.matcher(methodName);
-            if (m.matches() && returnType.getKind() == TypeKind.BOOLEAN) {
-                return AccessorFirstStrategy.getPropertyName(m.group(1));
-            }
-
-            m = AccessorFirstStrategy.ACCESSOR_HAS.matcher(methodName);
-            if (m.matches() && returnType.getKind() == TypeKind.BOOLEAN) {
-                return AccessorFirstStrategy.getPropertyName(methodName); // This is intentional, we want to keep the 'has'
+            final @Nullable String name = this.names.accessorName(method.getSimpleName(), returnType);
+            if (name != null) {
+                return name;
             }
 
             if (this.allowFluentStyle) {
-                return methodName.toString();
+                return method.getSimpleName().toString();
             }
         }
 
@@ -145,12 +130,10 @@ private String getAccessorName(final ExecutableElement method) {
      * @return The property name, if the method is an mutator
      */
     private @Nullable String getMutatorName(final ExecutableElement method) {
-        final Matcher m;
-
         if (this.isPublic(method) && method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID) {
-            m = AccessorFirstStrategy.MUTATOR.matcher(method.getSimpleName());
-            if (m.matches()) {
-                return AccessorFirstStrategy.getPropertyName(m.group(1));
+            final @Nullable String name = this.names.mutatorName(method.getSimpleName(), method.getParameters().get(0).asType());
+            if (name != null) {
+                return name;
             } else if (this.allowFluentStyle) {
                 return method.getSimpleName().toString();
             }
@@ -178,6 +161,10 @@ public static String getPropertyName(final CharSequence name) {
      * Find the corresponding mutator for an accessor method from a collection
      * of candidates.
      *
+     * <p>A mutator whose parameter has exactly the property type is
+     * preferred over one taking a subtype of it. No mutator is returned if
+     * the implementing base class already declares the chosen one.</p>
+     *
      * @param accessor      The accessor
      * @param candidates    The collection of candidates
      * @param implementedBy The abstract super type implementation to consider
@@ -185,7 +172,7 @@ public static String getPropertyName(final CharSequence name) {
      */
     protected @Nullable ExecutableElement findMutator(final ExecutableElement accessor,
                                                       final @Nullable Collection<ExecutableElement> candidates,
-                                                      final DeclaredType implementedBy) {
+                                                      final @Nullable DeclaredType implementedBy) {
         if (candidates == null) {
             return null;
         }
@@ -193,50 +180,68 @@ public static String getPropertyName(final CharSequence name) {
         final TypeMirror expectedType = accessor.getReturnType();
 
         // Optional tests
-        final boolean isOptionalReturn = expectedType.getKind() == TypeKind.DECLARED && this.types.isAssignable(this.types.erasure(expectedType), this.optional.asType());
+        final @Nullable TypeMirror optionalElement = this.optionalElement(expectedType);
+        @Nullable ExecutableElement found = null;
         for (final ExecutableElement method : candidates) {
-            if (implementedBy != null) {
-                for (Element enclosedElement : implementedBy.asElement().getEnclosedElements()) {
-                    if (enclosedElement instanceof ExecutableElement ee) {
-                        // This means the implemented by has the actual method
-                        if (this.isMatchingMutator(ee, isOptionalReturn, expectedType) != null) {
-                            return null;
-                        }
-                    }
-                }
-            }
-            final var candidate = this.isMatchingMutator(method, isOptionalReturn, expectedType);
-            if (candidate != null) {
-                return candidate;
+            final MutatorMatch match = this.matchMutator(method, expectedType, optionalElement);
+            if (match == MutatorMatch.EXACT) {
+                found = method;
+                break;
+            } else if (match == MutatorMatch.SUBTYPE && found == null) {
+                found = method;
             }
+        }
 
+        if (found != null && implementedBy != null) {
+            // This means the implemented by has the actual method
+            final BaseClassModel base = this.baseClasses.model((TypeElement) implementedBy.asElement());
+            if (base.declaredMethod(found.getSimpleName().toString(), found.getParameters().get(0).asType()) != null) {
+                return null;
+            }
         }
 
-        return null;
+        return found;
     }
 
-    private @Nullable ExecutableElement isMatchingMutator(ExecutableElement method, boolean optionalReturn, TypeMirror expectedType) {
-        if (method.getParameters().isEmpty()) {
+    private @Nullable TypeMirror optionalElement(final TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED || !this.types.isAssignable(this.types.erasure(type), this.optional.asType())) {
             return null;
         }
-        // TODO: Handle supertypes
+        final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.isEmpty() ? null : arguments.get(0);
+    }
+
+    private MutatorMatch matchMutator(final ExecutableElement method, final TypeMirror expectedType, final @Nullable TypeMirror optionalElement) {
+        if (method.getParameters().isEmpty()) {
+            return MutatorMatch.NONE;
+        }
         final TypeMirror firstParam = method.getParameters().get(0).asType();
-        if (this.types.isSameType(firstParam, expectedType)) {
-            return method;
+        if (this.types.isSameType(firstParam, expectedType)
+            || optionalElement != null && this.types.isSameType(firstParam, optionalElement)) {
+            return MutatorMatch.EXACT;
         }
 
-        if (optionalReturn && this.types.isSameType(firstParam, ((DeclaredType) expectedType).getTypeArguments().get(0))) {
-            return method;
+        // A narrower parameter can still be stored in the property
+        if (!firstParam.getKind().isPrimitive()
+            && (this.types.isSubtype(firstParam, expectedType) || optionalElement != null && this.types.isSubtype(firstParam, optionalElement))) {
+            return MutatorMatch.SUBTYPE;
         }
-        return null;
+        return MutatorMatch.NONE;
+    }
+
+    private enum MutatorMatch {
+        EXACT,
+        SUBTYPE,
+        NONE
     }
 
     @Override
     public List<Property> findProperties(final TypeElement type) {
         Objects.requireNonNull(type, "type");
 
-        final Map<String, Set<ExecutableElement>> accessors = new HashMap<>();
-        final Map<String, Set<ExecutableElement>> mutators = new HashMap<>();
+        // insertion ordered, so the output doesn't depend on element hash codes
+        final Map<String, Set<ExecutableElement>> accessors = new LinkedHashMap<>();
+        final Map<String, Set<ExecutableElement>> mutators = new LinkedHashMap<>();
         final Map<String, ExecutableElement> accessorHierarchyBottoms = new HashMap<>();
         final Map<String, ExecutableElement> mostSpecific = new HashMap<>();
         final Set<String> signatures = new HashSet<>();
@@ -261,7 +266,7 @@ public List<Property> findProperties(final TypeElement type) {
                 if ((name = this.getAccessorName(method)) != null && !signatures.contains(signature.toString())
                         && ((leastSpecificMethod = accessorHierarchyBottoms.get(name)) == null
                                     || !this.types.isSameType(leastSpecificMethod.getReturnType(), method.getReturnType()))) {
-                    accessors.computeIfAbsent(name, $ -> new HashSet<>()).add(method);
+                    accessors.computeIfAbsent(name, $ -> new LinkedHashSet<>()).add(method);
                     signatures.add(signature.toString());
 
                     if (!mostSpecific.containsKey(name) || this.types.isSubtype(method.getReturnType(), mostSpecific.get(name).getReturnType())) {
@@ -273,7 +278,7 @@ public List<Property> findProperties(final TypeElement type) {
                         accessorHierarchyBottoms.put(name, method);
                     }
                 } else if ((name = this.getMutatorName(method)) != null) {
-                    mutators.computeIfAbsent(name, $ -> new HashSet<>()).add(method);
+                    mutators.computeIfAbsent(name, $ -> new LinkedHashSet<>()).add(method);
                 }
             }
             if (ourType.getSuperclass().getKind() != TypeKind.NONE) {
@@ -285,20 +290,29 @@ public List<Property> findProperties(final TypeElement type) {
         }
 
         final List<Property> result = new ArrayList<>();
+        final @Nullable DeclaredType implementedBy = this.baseClasses.implementedBy(type);
 
         for (final Map.Entry<String, Set<ExecutableElement>> entry : accessors.entrySet()) {
             for (final ExecutableElement accessor : entry.getValue()) {
                 final ExecutableType relativizedAccessor = (ExecutableType) this.types.asMemberOf(((DeclaredType) type.asType()), accessor);
-                final @Nullable DeclaredType implementedBy = AnnotationUtils.getImplementedBy(type);
 
                 final @Nullable ExecutableElement mutator = this.findMutator(accessor, mutators.get(entry.getKey()), implementedBy);
+                final ExecutableElement mostSpecificMethod = mostSpecific.get(entry.getKey());
+                // Check the most specific method first.
+                // This ensures that users can add @PropertySettings on an
+                // overridden method.
+                @Nullable PropertySettings settings = this.annotationIndex.find(mostSpecificMethod, PropertySettings.class);
+                if (settings == null) {
+                    settings = this.annotationIndex.find(accessor, PropertySettings.class);
+                }
                 result.add(new Property(
                     entry.getKey(),
                     relativizedAccessor.getReturnType(),
                     accessorHierarchyBottoms.get(entry.getKey()),
-                    mostSpecific.get(entry.getKey()),
+                    mostSpecificMethod,
                     accessor,
-                    mutator
+                    mutator,
+                    settings
                 ));
             }
         }
@@ -0,0 +1,148 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.ImplementedBy;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.AnnotationUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Resolved {@link ImplementedBy} base classes and {@link BaseClassModel}s,
+ * shared by everything looking at the same types during a compilation.
+ */
+@Singleton
+public final class BaseClassCache {
+
+    private final Elements elements;
+    private final Types types;
+    private final AnnotationIndex annotationIndex;
+    private final Map<TypeElement, Optional<DeclaredType>> implementedBy = new HashMap<>();
+    private final Map<TypeElement, BaseClassModel> models = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    @Inject
+    BaseClassCache(final Elements elements, final Types types, final AnnotationIndex annotationIndex) {
+        this.elements = elements;
+        this.types = types;
+        this.annotationIndex = annotationIndex;
+    }
+
+    /**
+     * Get the highest priority {@link ImplementedBy} type of an event.
+     *
+     * @param event the event interface
+     * @return the base class, or {@code null} if none is declared
+     * @see AnnotationUtils#getImplementedBy(AnnotationIndex, TypeElement)
+     */
+    public @Nullable DeclaredType implementedBy(final TypeElement event) {
+        Optional<DeclaredType> found = this.implementedBy.get(event);
+        if (found == null) {
+            this.misses++;
+            found = Optional.ofNullable(AnnotationUtils.getImplementedBy(this.annotationIndex, event));
+            this.implementedBy.put(event, found);
+        } else {
+            this.hits++;
+        }
+        return found.orElse(null);
+    }
+
+    /**
+     * Get the member model of a type.
+     *
+     * @param type the type
+     * @return the model
+     */
+    public BaseClassModel model(final TypeElement type) {
+        BaseClassModel model = this.models.get(type);
+        if (model == null) {
+            this.misses++;
+            model = new BaseClassModel(this.elements, this.types, this.annotationIndex, type);
+            this.models.put(type, model);
+        } else {
+            this.hits++;
+        }
+        return model;
+    }
+
+    /**
+     * Get the member model of a declared type.
+     *
+     * @param type the type
+     * @return the model, or {@code null} if the type is not declared
+     */
+    public @Nullable BaseClassModel model(final TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final Element element = ((DeclaredType) type).asElement();
+        if (!(element instanceof TypeElement typeElement)) {
+            return null;
+        }
+        return this.model(typeElement);
+    }
+
+    /**
+     * Forget all resolved types and models, at the end of a compilation.
+     */
+    public void clear() {
+        this.implementedBy.clear();
+        this.models.clear();
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     *
+     * @return the cache hits
+     */
+    public long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Get the number of lookups that had to resolve a type or build a model.
+     *
+     * @return the cache misses
+     */
+    public long misses() {
+        return this.misses;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.UseField;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * The members of a type, indexed by name.
+ *
+ * <p>Members include those inherited from super types, as returned by
+ * {@link Elements#getAllMembers(TypeElement)}, while {@link UseField}
+ * metadata and {@link #declaredMethod(String, TypeMirror) declared methods}
+ * are only read from the type itself.</p>
+ */
+public final class BaseClassModel {
+
+    private final Map<String, VariableElement> fields = new HashMap<>();
+    private final Map<String, List<ExecutableElement>> methods = new HashMap<>();
+    private final Map<String, UseField> useFields = new HashMap<>();
+    private final Set<String> nestedTypes = new HashSet<>();
+    // name -> erasure of the first parameter -> method
+    private final Map<String, Map<String, ExecutableElement>> declaredMethods = new HashMap<>();
+    private final Types types;
+
+    BaseClassModel(final Elements elements, final Types types, final AnnotationIndex annotationIndex, final TypeElement type) {
+        this.types = types;
+        for (final Element member : elements.getAllMembers(type)) {
+            final String name = member.getSimpleName().toString();
+            switch (member.getKind()) {
+                case FIELD, ENUM_CONSTANT -> this.fields.putIfAbsent(name, (VariableElement) member);
+                case METHOD -> this.methods.computeIfAbsent(name, $ -> new ArrayList<>(1)).add((ExecutableElement) member);
+                default -> {
+                    if ((member.getKind().isClass() || member.getKind().isInterface()) && ((TypeElement) member).getNestingKind().isNested()) {
+                        this.nestedTypes.add(name);
+                    }
+                }
+            }
+        }
+        for (final VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final UseField useField = annotationIndex.find(field, UseField.class);
+            if (useField != null) {
+                this.useFields.putIfAbsent(field.getSimpleName().toString(), useField);
+            }
+        }
+        for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getParameters().isEmpty()) {
+                this.declaredMethods.computeIfAbsent(method.getSimpleName().toString(), $ -> new HashMap<>())
+                    .putIfAbsent(this.erasure(method.getParameters().get(0).asType()), method);
+            }
+        }
+    }
+
+    private String erasure(final TypeMirror type) {
+        return this.types.erasure(type).toString();
+    }
+
+    /**
+     * Get the first field with the given name.
+     *
+     * @param name the field name
+     * @return the field, if any
+     */
+    public @Nullable VariableElement field(final String name) {
+        return this.fields.get(name);
+    }
+
+    /**
+     * Get all methods with the given name.
+     *
+     * @param name the method name
+     * @return the methods, possibly empty
+     */
+    public List<ExecutableElement> methods(final String name) {
+        return this.methods.getOrDefault(name, List.of());
+    }
+
+    /**
+     * Get a method declared by this type, by name and the erasure of its
+     * first parameter.
+     *
+     * @param name the method name
+     * @param firstParameter the type of the first parameter
+     * @return the method, if any
+     */
+    public @Nullable ExecutableElement declaredMethod(final String name, final TypeMirror firstParameter) {
+        final @Nullable Map<String, ExecutableElement> overloads = this.declaredMethods.get(name);
+        return overloads == null ? null : overloads.get(this.erasure(firstParameter));
+    }
+
+    /**
+     * Get the {@link UseField} annotation on a field declared by this type.
+     *
+     * @param name the field name
+     * @return the annotation, if present
+     */
+    public @Nullable UseField useField(final String name) {
+        return this.useFields.get(name);
+    }
+
+    /**
+     * Get the simple names of all nested member types.
+     *
+     * @return the nested type names
+     */
+    public Set<String> nestedTypes() {
+        return Collections.unmodifiableSet(this.nestedTypes);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Classifies method names as accessors or mutators according to the
+ * registered {@link NamingConvention naming conventions}.
+ *
+ * <p>Prefixes are kept in a trie per {@link NamingConvention.Kind}, so a
+ * name is classified in a single pass over its leading characters.</p>
+ */
+@Singleton
+public final class NameClassifier {
+
+    private final Node accessors = new Node();
+    private final Node mutators = new Node();
+
+    @Inject
+    public NameClassifier(final Set<NamingConvention> conventions) {
+        final List<NamingConvention> ordered = new ArrayList<>(conventions);
+        ordered.sort(NamingConvention.ORDER);
+        for (final NamingConvention convention : ordered) {
+            final Node root = convention.kind() == NamingConvention.Kind.ACCESSOR ? this.accessors : this.mutators;
+            root.insert(convention);
+        }
+    }
+
+    /**
+     * Get the property name of an accessor.
+     *
+     * @param methodName the method name
+     * @param type the return type of the method
+     * @return the property name, or {@code null} if no convention matches
+     */
+    public @Nullable String accessorName(final CharSequence methodName, final TypeMirror type) {
+        return NameClassifier.classify(this.accessors, methodName, type);
+    }
+
+    /**
+     * Get the property name of a mutator.
+     *
+     * @param methodName the method name
+     * @param type the parameter type of the method
+     * @return the property name, or {@code null} if no convention matches
+     */
+    public @Nullable String mutatorName(final CharSequence methodName, final TypeMirror type) {
+        return NameClassifier.classify(this.mutators, methodName, type);
+    }
+
+    private static @Nullable String classify(final Node root, final CharSequence methodName, final TypeMirror type) {
+        final @Nullable NamingConvention convention = NameClassifier.match(root, methodName, type);
+        if (convention == null) {
+            return null;
+        }
+        if (convention.keepsPrefix()) {
+            return AccessorFirstStrategy.getPropertyName(methodName);
+        }
+        return AccessorFirstStrategy.getPropertyName(methodName.subSequence(convention.prefix().length(), methodName.length()));
+    }
+
+    private static @Nullable NamingConvention match(final Node root, final CharSequence methodName, final TypeMirror type) {
+        final int length = methodName.length();
+        @Nullable NamingConvention longest = null;
+        Node node = root;
+        for (int i = 0; i < length; i++) {
+            node = node.child(methodName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.conventions != null && i + 1 < length && NameClassifier.isUpperCase(methodName.charAt(i + 1))) {
+                for (final NamingConvention convention : node.conventions) {
+                    if (convention.accepts(type)) {
+                        longest = convention;
+                        break;
+                    }
+                }
+            }
+        }
+        return longest;
+    }
+
+    private static boolean isUpperCase(final char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static final class Node {
+
+        private static final int FANOUT = 128;
+
+        private @Nullable Node[] children;
+        private @Nullable List<NamingConvention> conventions;
+
+        @Nullable Node child(final char c) {
+            return c < Node.FANOUT && this.children != null ? this.children[c] : null;
+        }
+
+        void insert(final NamingConvention convention) {
+            final String prefix = convention.prefix();
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                final char c = prefix.charAt(i);
+                if (c >= Node.FANOUT) {
+                    throw new IllegalArgumentException("Naming convention prefix '" + prefix + "' must be ASCII");
+                }
+                if (node.children == null) {
+                    node.children = new Node[Node.FANOUT];
+                }
+                if (node.children[c] == null) {
+                    node.children[c] = new Node();
+                }
+                node = node.children[c];
+            }
+            if (node.conventions == null) {
+                node.conventions = new ArrayList<>(1);
+            }
+            node.conventions.add(convention);
+        }
+    }
+
+}
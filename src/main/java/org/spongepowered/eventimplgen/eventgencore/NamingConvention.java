@@ -0,0 +1,148 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import java.util.Comparator;
+import java.util.List;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A method name prefix identifying accessors or mutators of a property,
+ * such as {@code get} in {@code getName()}.
+ *
+ * <p>A method matches a convention if its name starts with the
+ * {@link #prefix()}, directly followed by an upper case letter, and the
+ * property type is {@link #accepts(TypeMirror) accepted}. When several
+ * conventions match, the one with the longest prefix wins.</p>
+ *
+ * <p>Besides the {@link #STANDARD standard conventions}, implementations
+ * listed in {@code META-INF/services} on the processor path are discovered
+ * with a {@link java.util.ServiceLoader}.</p>
+ */
+public interface NamingConvention {
+
+    /**
+     * Accessors of any non-void type, such as {@code getName()}.
+     */
+    NamingConvention GET = new Simple(Kind.ACCESSOR, "get", false, false);
+
+    /**
+     * Boolean accessors, such as {@code isCancelled()}.
+     */
+    NamingConvention IS = new Simple(Kind.ACCESSOR, "is", false, true);
+
+    /**
+     * Boolean accessors keeping their prefix, such as
+     * {@code hasCustomName()} for the property {@code hasCustomName}.
+     */
+    NamingConvention HAS = new Simple(Kind.ACCESSOR, "has", true, true);
+
+    /**
+     * Boolean accessors keeping their prefix, such as
+     * {@code keepsInventory()} for the property {@code keepsInventory}.
+     */
+    NamingConvention KEEPS = new Simple(Kind.ACCESSOR, "keeps", true, true);
+
+    /**
+     * Mutators, such as {@code setName(String)}.
+     */
+    NamingConvention SET = new Simple(Kind.MUTATOR, "set", false, false);
+
+    /**
+     * The conventions always recognized.
+     */
+    List<NamingConvention> STANDARD = List.of(NamingConvention.GET, NamingConvention.IS, NamingConvention.HAS, NamingConvention.KEEPS, NamingConvention.SET);
+
+    /**
+     * Orders conventions sharing a prefix by class name, then by whether
+     * they keep the prefix.
+     */
+    Comparator<NamingConvention> ORDER = Comparator.comparing((NamingConvention convention) -> convention.getClass().getName())
+        .thenComparing(NamingConvention::keepsPrefix);
+
+    /**
+     * Get whether this convention identifies accessors or mutators.
+     *
+     * @return the kind of method
+     */
+    Kind kind();
+
+    /**
+     * Get the method name prefix.
+     *
+     * @return the prefix, which must not be empty
+     */
+    String prefix();
+
+    /**
+     * Get whether the prefix is part of the property name, as in
+     * {@code hasCustomName}.
+     *
+     * @return whether to keep the prefix
+     */
+    default boolean keepsPrefix() {
+        return false;
+    }
+
+    /**
+     * Get whether a property of the given type may use this convention.
+     *
+     * @param type the accessor return type, or the mutator parameter type
+     * @return whether the type is accepted
+     */
+    default boolean accepts(final TypeMirror type) {
+        return true;
+    }
+
+    enum Kind {
+        ACCESSOR,
+        MUTATOR
+    }
+
+    /**
+     * A convention optionally restricted to {@code boolean} properties.
+     *
+     * @param kind the kind of method
+     * @param prefix the method name prefix
+     * @param keepsPrefix whether the prefix is part of the property name
+     * @param booleanOnly whether only {@code boolean} properties are accepted
+     */
+    record Simple(Kind kind, String prefix, boolean keepsPrefix, boolean booleanOnly) implements NamingConvention {
+
+        public Simple {
+            if (prefix.isEmpty()) {
+                throw new IllegalArgumentException("A naming convention prefix must not be empty");
+            }
+        }
+
+        @Override
+        public boolean accepts(final TypeMirror type) {
+            return !this.booleanOnly || type.getKind() == TypeKind.BOOLEAN;
+        }
+    }
+
+}
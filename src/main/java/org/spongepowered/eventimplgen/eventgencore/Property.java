@@ -25,6 +25,7 @@
 package org.spongepowered.eventimplgen.eventgencore;
 
 import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.PropertySettings;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -45,6 +46,7 @@ public final class Property implements Comparable<Property> {
     private final ExecutableElement mostSpecificMethod;
     private final ExecutableElement accessor;
     private final Optional<ExecutableElement> mutator;
+    private final @Nullable PropertySettings settings;
 
     /**
      * Create a new property.
@@ -62,6 +64,28 @@ public Property(
         final ExecutableElement mostSpecificMethod,
         final ExecutableElement accessor,
         final @Nullable ExecutableElement mutator
+    ) {
+        this(name, type, leastSpecificMethod, mostSpecificMethod, accessor, mutator, Property.findSettings(mostSpecificMethod, accessor));
+    }
+
+    /**
+     * Create a new property with already resolved settings.
+     *
+     * @param name The name of the property
+     * @param type The type of property
+     * @param leastSpecificMethod  The least specific method
+     * @param accessor The accessor
+     * @param mutator The mutator
+     * @param settings The settings of the most specific method or accessor
+     */
+    public Property(
+        final String name,
+        final TypeMirror type,
+        final ExecutableElement leastSpecificMethod,
+        final ExecutableElement mostSpecificMethod,
+        final ExecutableElement accessor,
+        final @Nullable ExecutableElement mutator,
+        final @Nullable PropertySettings settings
    ) {
         this.name = Objects.requireNonNull(name, "name");
         this.type = Objects.requireNonNull(type, "type");
@@ -69,6 +93,12 @@ public Property(
         this.mostSpecificMethod = Objects.requireNonNull(mostSpecificMethod, "mostSpecificMethod");
         this.accessor = Objects.requireNonNull(accessor, "accessor");
         this.mutator = Optional.ofNullable(mutator);
+        this.settings = settings;
+    }
+
+    private static @Nullable PropertySettings findSettings(final ExecutableElement mostSpecificMethod, final ExecutableElement accessor) {
+        final @Nullable PropertySettings settings = mostSpecificMethod.getAnnotation(PropertySettings.class);
+        return settings != null ? settings : accessor.getAnnotation(PropertySettings.class);
     }
 
     /**
@@ -144,6 +174,18 @@ public ExecutableElement getAccessorWrapper() {
         return this.accessor;
     }
 
+    /**
+     * Get the {@link PropertySettings} of this property.
+     *
+     * <p>Settings on the most specific method take precedence over those
+     * on the accessor.</p>
+     *
+     * @return The settings, if any
+     */
+    public @Nullable PropertySettings getSettings() {
+        return this.settings;
+    }
+
     /**
      * Get the method representing the mutator, which or may not exist.
      *
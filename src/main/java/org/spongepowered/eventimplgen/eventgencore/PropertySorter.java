@@ -25,13 +25,14 @@
 package org.spongepowered.eventimplgen.eventgencore;
 
 import org.spongepowered.eventgen.annotations.AbsoluteSortPosition;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.processor.EventGenOptions;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,61 +42,77 @@
 public class PropertySorter {
 
     private final String prefix;
-    private final Map<String, String> groupingPrefixes;
+    // grouping prefixes, longest first so the most specific prefix wins
+    private final List<Grouping> groupings;
     private final Types types;
+    private final AnnotationIndex annotationIndex;
 
     @Inject
-    PropertySorter(final Types types, final EventGenOptions options) {
-        this(types, options.sortPriorityPrefix(), options.groupingPrefixes());
+    PropertySorter(final Types types, final AnnotationIndex annotationIndex, final EventGenOptions options) {
+        this(types, annotationIndex, options.sortPriorityPrefix(), options.groupingPrefixes());
     }
 
-    public PropertySorter(final Types types, final String prefix, final Map<String, String> groupingPrefixes) {
+    public PropertySorter(final Types types, final AnnotationIndex annotationIndex, final String prefix, final Map<String, String> groupingPrefixes) {
         this.types = types;
+        this.annotationIndex = annotationIndex;
         this.prefix = prefix;
-        this.groupingPrefixes = groupingPrefixes;
+        final List<Grouping> groupings = new ArrayList<>(groupingPrefixes.size());
+        for (final Map.Entry<String, String> entry : groupingPrefixes.entrySet()) {
+            groupings.add(new Grouping(entry.getKey(), entry.getValue()));
+        }
+        groupings.sort(Comparator.comparingInt((Grouping grouping) -> grouping.from().length()).reversed()
+            .thenComparing(Grouping::from));
+        this.groupings = List.copyOf(groupings);
     }
 
-    @SuppressWarnings("rawtypes")
     public List<Property> sortProperties(final Collection<Property> properties) {
 
         final List<Property> finalProperties = new ArrayList<>();
-        final Map<String, Property> propertyMap = new HashMap<>();
+        final Map<String, Property> propertyMap = new LinkedHashMap<>();
         final List<PrefixPair> pairs = new ArrayList<>();
         final List<Property> primitiveProperties = new ArrayList<>();
 
-        properties.stream().filter(prop -> prop.isMostSpecificType(this.types)).forEach(property -> {
+        for (final Property property : properties) {
+            if (!property.isMostSpecificType(this.types)) {
+                continue;
+            }
             propertyMap.put(property.getName(), property);
-            final AbsoluteSortPosition sortPosition = property.getAccessor().getAnnotation(AbsoluteSortPosition.class);
+            final AbsoluteSortPosition sortPosition = this.annotationIndex.find(property.getAccessor(), AbsoluteSortPosition.class);
             if (sortPosition != null) {
                 finalProperties.add(Math.min(sortPosition.value(), finalProperties.size()), property);
                 propertyMap.remove(property.getName());
             }
-        });
-
-        for (final Map.Entry<String, Property> entry : new HashSet<>(propertyMap.entrySet())) {
-            final String name = entry.getValue().getName();
-            final String unprefixedName = this.getUnprefixedName(name);
-            if (name.startsWith(this.prefix)) {
-                if (propertyMap.containsKey(unprefixedName)) {
-                    pairs.add(new PrefixPair(entry.getValue(), propertyMap.get(unprefixedName)));
+        }
+
+        // entries may be removed while iterating, as the partner of another property
+        for (final Property property : new ArrayList<>(propertyMap.values())) {
+            final String name = property.getName();
+            if (name.startsWith(this.prefix) && propertyMap.containsKey(name)) {
+                final String unprefixedName = this.getUnprefixedName(name);
+                final Property unprefixed = propertyMap.get(unprefixedName);
+                if (unprefixed != null && unprefixed != property) {
+                    pairs.add(new PrefixPair(property, unprefixed));
                     propertyMap.remove(name);
                     propertyMap.remove(unprefixedName);
                 }
             }
         }
 
-        for (final Map.Entry<String, Property> entry : new HashSet<>(propertyMap.entrySet())) {
-            final String name = entry.getKey();
-            final Property property = entry.getValue();
+        for (final Property property : new ArrayList<>(propertyMap.values())) {
+            final String name = property.getName();
+            if (!propertyMap.containsKey(name)) {
+                continue;
+            }
             if (property.getWrapperType().getKind().isPrimitive()) {
                 primitiveProperties.add(property);
                 propertyMap.remove(name);
             } else {
-                for (final Map.Entry<String, String> prefixEntry : this.groupingPrefixes.entrySet()) {
-                    if (name.startsWith(prefixEntry.getKey())) {
-                        final String modifiedName = name.replaceFirst(prefixEntry.getKey(), prefixEntry.getValue());
-                        if (propertyMap.containsKey(modifiedName)) {
-                            pairs.add(new PrefixPair(entry.getValue(), propertyMap.get(modifiedName)));
+                for (final Grouping grouping : this.groupings) {
+                    if (name.startsWith(grouping.from())) {
+                        final String modifiedName = grouping.to() + name.substring(grouping.from().length());
+                        final Property partner = propertyMap.get(modifiedName);
+                        if (partner != null && partner != property) {
+                            pairs.add(new PrefixPair(property, partner));
                             propertyMap.remove(name);
                             propertyMap.remove(modifiedName);
                             break;
@@ -123,6 +140,9 @@ public List<Property> sortProperties(final Collection<Property> properties) {
         return finalProperties;
     }
 
+    private record Grouping(String from, String to) {
+    }
+
     private static class PrefixPair implements Comparable<PrefixPair> {
 
         private final Property prefixed;
@@ -141,7 +161,7 @@ public int compareTo(final PrefixPair other) {
 
     private String getUnprefixedName(final String name) {
         if (name.startsWith(this.prefix)) {
-            return AccessorFirstStrategy.getPropertyName(name.replaceFirst(this.prefix, ""));
+            return AccessorFirstStrategy.getPropertyName(name.substring(this.prefix.length()));
         }
         return name;
     }
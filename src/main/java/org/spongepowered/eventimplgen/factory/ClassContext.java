@@ -33,9 +33,16 @@
 import dagger.assisted.Assisted;
 import dagger.assisted.AssistedFactory;
 import dagger.assisted.AssistedInject;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.eventgen.annotations.UseField;
+import org.spongepowered.eventimplgen.eventgencore.BaseClassCache;
+import org.spongepowered.eventimplgen.eventgencore.BaseClassModel;
 import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.lang.model.element.ExecutableElement;
@@ -51,16 +58,34 @@
 public final class ClassContext {
 
     private static final ClassName OPTIONAL = ClassName.get(Optional.class);
+    // out-of-line construction of the exception thrown by mutators, keeping it out of their inlined code
+    static final String INVALID_ARGUMENT = "invalidMutatorArgument";
+    static final String INVALID_ARGUMENT_DESCRIPTOR = "(Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)Ljava/lang/RuntimeException;";
 
     private final Types types;
+    private final PluginCaches pluginCaches;
+    private final BaseClassCache baseClasses;
     private final TypeSpec.Builder builder;
     private final CodeBlock.Builder toStringBuilder = CodeBlock.builder();
     private boolean toStringReceivedParam;
+    // fields generated for properties that aren't constructor parameters
+    private final List<Property> defaultedFields = new ArrayList<>();
+    // fields added besides those of properties, such as by plugins
+    private final List<FieldSpec> extraFields = new ArrayList<>();
     private final TypeMirror erasedOptional;
+    private boolean invalidArgumentAdded;
 
     @AssistedInject
-    public ClassContext(final Types types, final Elements elements, @Assisted final TypeSpec.Builder builder) {
+    public ClassContext(
+        final Types types,
+        final Elements elements,
+        final PluginCaches pluginCaches,
+        final BaseClassCache baseClasses,
+        @Assisted final TypeSpec.Builder builder
+    ) {
         this.types = types;
+        this.pluginCaches = pluginCaches;
+        this.baseClasses = baseClasses;
         this.builder = builder;
         this.erasedOptional = types.erasure(elements.getTypeElement(Optional.class.getName()).asType());
     }
@@ -70,19 +95,31 @@ interface Factory {
         ClassContext create(final TypeSpec.Builder builder);
     }
 
+    /**
+     * Get a scratch cache private to the provided plugin.
+     *
+     * <p>The cache lives for the whole compilation, so plugins can keep
+     * state computed for one event to reuse for later events.</p>
+     *
+     * @param plugin the plugin owning the cache
+     * @return the plugin's cache
+     */
+    public Map<Object, Object> cache(final EventFactoryPlugin plugin) {
+        return this.pluginCaches.cache(plugin);
+    }
+
     public ClassContext addField(final FieldSpec field) {
         this.builder.addField(field);
+        this.extraFields.add(field);
         return this;
     }
 
     public ClassContext addField(final FieldSpec.Builder field) {
-        this.builder.addField(field.build());
-        return this;
+        return this.addField(field.build());
     }
 
     public ClassContext addField(final TypeMirror typeMirror, final String name, final Modifier... modifiers) {
-        this.builder.addField(TypeName.get(typeMirror), name, modifiers);
-        return this;
+        return this.addField(FieldSpec.builder(TypeName.get(typeMirror), name, modifiers).build());
     }
 
     public ClassContext addField(final Property property) {
@@ -91,7 +128,25 @@ public ClassContext addField(final Property property) {
             return this;
         }
 
-        return this.addField(property.getType(), property.getName(), Modifier.PRIVATE);
+        if (!ClassGenerator.isRequired(property)) {
+            this.defaultedFields.add(property);
+        }
+        this.builder.addField(TypeName.get(property.getType()), property.getName(), Modifier.PRIVATE);
+        return this;
+    }
+
+    List<Property> defaultedFields() {
+        return this.defaultedFields;
+    }
+
+    /**
+     * Get the fields added other than through {@link #addField(Property)},
+     * which must be reset along with properties when an instance is reused.
+     *
+     * @return the extra fields
+     */
+    List<FieldSpec> extraFields() {
+        return this.extraFields;
     }
 
     public ClassContext addMethod(final MethodSpec methodSpec) {
@@ -120,6 +175,27 @@ public ClassContext addMutator(
         final TypeElement type,
         final String fieldName,
         final Property property
+    ) {
+        return this.addMutator(type, fieldName, property, CodeBlock.builder().build());
+    }
+
+    /**
+     * Generates a standard mutator method, running extra code after the
+     * field has been set.
+     *
+     * @param type The {@link Class} of the event that's having an
+     *        implementation generated
+     * @param fieldName The name of the field to mutate
+     * @param property The {@link Property} containing the mutator method to
+     *        generate for
+     * @param afterSet Code to run once the field has been set, such as
+     *        invalidating cached values
+     */
+    public ClassContext addMutator(
+        final TypeElement type,
+        final String fieldName,
+        final Property property,
+        final CodeBlock afterSet
     ) {
         final ExecutableElement mutator = property.getMutator().get();
         final MethodSpec.Builder method = MethodSpec.methodBuilder(mutator.getSimpleName().toString())
@@ -140,24 +216,37 @@ public ClassContext addMutator(
 
             method.addCode(CodeBlock.builder()
                 .beginControlFlow("if ($1L != null && !($1L instanceof $2T))", varName, this.types.erasure(mostSpecificReturn))
-                .addStatement(
-                    "throw new RuntimeException(\"You've attempted to call the method '$L' with an object of type\" + $L.getClass().getName()\n" +
-                    "+ \", instead of $L. Though you may have been listening for a supertype of this event, it's technically\"\n"
-                    + "+ \"a $L. You need to ensure that the event is the type you think it is.\")",
-                    mutator.getSimpleName(),
-                    varName,
-                    mostSpecificReturn,
-                    type.getQualifiedName()
-                )
+                .addStatement("throw $L($S, $L, $S)", ClassContext.INVALID_ARGUMENT, mutator.getSimpleName(), varName, mostSpecificReturn.toString())
                 .endControlFlow()
                 .build());
+            this.addInvalidArgument(type);
         }
 
         method.addStatement("this.$L = $L", fieldName, varName);
+        method.addCode(afterSet);
 
         return this.addMethod(method);
     }
 
+    private void addInvalidArgument(final TypeElement type) {
+        if (this.invalidArgumentAdded) {
+            return;
+        }
+        this.invalidArgumentAdded = true;
+        this.addMethod(MethodSpec.methodBuilder(ClassContext.INVALID_ARGUMENT)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .returns(RuntimeException.class)
+            .addParameter(String.class, "method", Modifier.FINAL)
+            .addParameter(Object.class, "value", Modifier.FINAL)
+            .addParameter(String.class, "expected", Modifier.FINAL)
+            .addStatement(
+                "return new RuntimeException(\"You've attempted to call the method '\" + method + \"' with an object of type\" + value.getClass().getName()\n"
+                + "+ \", instead of \" + expected + \". Though you may have been listening for a supertype of this event, it's technically\"\n"
+                + "+ \"a $L. You need to ensure that the event is the type you think it is.\")",
+                type.getQualifiedName()
+            ));
+    }
+
     // toString handling
     void initializeToString(final TypeElement type) {
         this.toStringBuilder.add("return $S\n", type.getSimpleName() + "{")
@@ -175,7 +264,8 @@ void contributeToString(
 
         if (property.isLeastSpecificType(this.types) && (ClassGenerator.isRequired(property) || ClassGenerator.generateMethods(property))) {
             boolean overrideToString = false;
-            final UseField useField = ClassGenerator.getUseField(parentType, property.getName());
+            final @Nullable BaseClassModel model = this.baseClasses.model(parentType);
+            final @Nullable UseField useField = model == null ? null : model.useField(property.getName());
             if (useField != null) {
                 overrideToString = useField.overrideToString();
             }
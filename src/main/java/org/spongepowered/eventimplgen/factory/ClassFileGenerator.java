@@ -0,0 +1,567 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import com.palantir.javapoet.ClassName;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
+import org.spongepowered.eventgen.annotations.IdentifiedEvent;
+import org.spongepowered.eventgen.annotations.PropertySettings;
+import org.spongepowered.eventgen.annotations.internal.GeneratedEvent;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+import org.spongepowered.eventimplgen.signature.Descriptors;
+import org.spongepowered.eventimplgen.signature.TypeToSignatureWriter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates event implementation classes directly as bytecode, skipping the
+ * compilation of generated sources.
+ *
+ * <p>The output mirrors what {@link ClassGenerator} would produce once compiled,
+ * but only for events that it generates entirely by itself: the implementation
+ * must extend {@link Object}, and no {@link EventFactoryPlugin} may want to
+ * contribute to any property. Other events must be generated as sources.</p>
+ */
+public class ClassFileGenerator {
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String STRING_BUILDER = "java/lang/StringBuilder";
+    private static final String GENERATED_EVENT = Type.getDescriptor(GeneratedEvent.class);
+    private static final String IDENTIFIED_EVENT = Type.getInternalName(IdentifiedEvent.class);
+
+    private final ClassGenerator generator;
+    private final Types types;
+    private final Messager messager;
+    private final AnnotationIndex annotationIndex;
+    private final Descriptors descriptors;
+    private final TypeToSignatureWriter signatures;
+    private final TypeMirror erasedOptional;
+    private final int classVersion;
+
+    @Inject
+    ClassFileGenerator(
+        final ClassGenerator generator,
+        final Types types,
+        final Elements elements,
+        final Messager messager,
+        final AnnotationIndex annotationIndex,
+        final Descriptors descriptors,
+        final TypeToSignatureWriter signatures,
+        final SourceVersion sourceVersion
+    ) {
+        this.generator = generator;
+        this.types = types;
+        this.messager = messager;
+        this.annotationIndex = annotationIndex;
+        this.descriptors = descriptors;
+        this.signatures = signatures;
+        this.erasedOptional = types.erasure(elements.getTypeElement(Optional.class.getName()).asType());
+        // class file major versions count up from 52 at Java 8
+        final int release = Math.max(8, Math.min(sourceVersion.ordinal(), SourceVersion.RELEASE_21.ordinal()));
+        this.classVersion = Opcodes.V1_8 + release - 8;
+    }
+
+    /**
+     * Get whether an implementation for the event can be written as bytecode.
+     *
+     * @param type the event interface
+     * @param parentType the base class of the implementation
+     * @param data properties of the event
+     * @param plugins the plugins that would take part in source generation
+     * @return whether {@link #createClass} can be used for this event
+     */
+    public boolean canGenerate(
+        final TypeElement type,
+        final DeclaredType parentType,
+        final EventData data,
+        final List<? extends EventFactoryPlugin> plugins
+    ) {
+        if (!((TypeElement) parentType.asElement()).getQualifiedName().contentEquals("java.lang.Object")
+            || this.annotationIndex.isPresent(type, BatchFactoryMethod.class)) {
+            return false;
+        }
+
+        for (final EventFactoryPlugin plugin : plugins) {
+            if (plugin.mayContributeToClass(type)) {
+                return false;
+            }
+            for (final Property property : data.properties()) {
+                if (plugin.mayContribute(type, property, this.annotationIndex)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the event class.
+     *
+     * @param type The event interface
+     * @param name The name of the generated class
+     * @param eventId The dense id of the event, or {@code -1} to not identify the event
+     * @param data Properties of the event
+     * @return the class file contents, or {@code null} if an error was reported while generating the class
+     */
+    public byte @Nullable [] createClass(
+        final TypeElement type,
+        final ClassName name,
+        final int eventId,
+        final EventData data
+    ) {
+        final String internalName = this.descriptors.getInternalName(name.reflectionName());
+        final String implemented = this.descriptors.getInternalName(type.asType());
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(final String type1, final String type2) {
+                // Generated methods never merge distinct reference types, and
+                // classes being compiled can't be loaded from the processor anyway
+                return ClassFileGenerator.OBJECT;
+            }
+        };
+
+        final StringBuilder classSignature = this.signatures.writeTypeParameters(type.getTypeParameters(), new StringBuilder())
+            .append('L').append(ClassFileGenerator.OBJECT).append(';');
+        type.asType().accept(this.signatures, classSignature);
+        final String[] interfaces;
+        if (eventId >= 0) {
+            classSignature.append('L').append(ClassFileGenerator.IDENTIFIED_EVENT).append(';');
+            interfaces = new String[] {implemented, ClassFileGenerator.IDENTIFIED_EVENT};
+        } else {
+            interfaces = new String[] {implemented};
+        }
+        cw.visit(
+            this.classVersion,
+            Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            internalName,
+            type.getTypeParameters().isEmpty() ? null : classSignature.toString(),
+            ClassFileGenerator.OBJECT,
+            interfaces
+        );
+
+        final AnnotationVisitor generatedEvent = cw.visitAnnotation(ClassFileGenerator.GENERATED_EVENT, false);
+        generatedEvent.visit("source", Type.getObjectType(implemented));
+        final @Nullable String version = ClassGenerator.generatorVersion();
+        if (version != null) {
+            generatedEvent.visit("version", version);
+        }
+        generatedEvent.visitEnd();
+
+        if (eventId >= 0) {
+            cw.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, ClassGenerator.EVENT_ID, "I", null, eventId).visitEnd();
+            ClassFileGenerator.generateEventId(cw, internalName);
+        }
+
+        // Fields first, so every method can refer to them
+        final Map<String, String> fields = new HashMap<>();
+        for (final Property property : data.properties()) {
+            if ((ClassGenerator.isRequired(property) || ClassGenerator.generateMethods(property)) && property.isLeastSpecificType(this.types)) {
+                final String descriptor = this.descriptors.getDescriptor(property.getType());
+                fields.put(property.getName(), descriptor);
+                cw.visitField(Opcodes.ACC_PRIVATE, property.getName(), descriptor, this.signature(property.getType(), descriptor), null)
+                    .visitEnd();
+            }
+        }
+
+        if (!this.generateConstructor(cw, internalName, fields, data.plan().parameters())) {
+            return null;
+        }
+
+        // Accessors and mutators
+        final Set<String> methods = new HashSet<>();
+        final Map<String, String> accessors = new HashMap<>();
+        boolean rejectsArguments = false;
+        for (final Property property : data.properties()) {
+            if (!ClassGenerator.generateMethods(property)) {
+                continue;
+            }
+            final @Nullable String field = fields.get(property.getName());
+            if (field == null) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "No field could be generated for the property " + property.getName(), property.getAccessor());
+                return null;
+            }
+            if (property.isMostSpecificType(this.types)) {
+                final String descriptor = "()" + this.descriptors.getDescriptor(property.getType());
+                accessors.put(property.getName(), descriptor);
+                methods.add(property.getAccessor().getSimpleName() + descriptor);
+                this.generateAccessor(cw, internalName, property, field, descriptor);
+            }
+
+            final Optional<ExecutableElement> mutator = property.getMutator();
+            if (mutator.isPresent() && methods.add(mutator.get().getSimpleName() + this.descriptors.getDescriptor(mutator.get()))) {
+                rejectsArguments |= this.generateMutator(cw, type, internalName, property, mutator.get(), field);
+            }
+        }
+        if (rejectsArguments) {
+            ClassFileGenerator.generateInvalidArgument(cw, type);
+        }
+
+        // javac would generate bridges for covariant overrides, so we must too
+        for (final Property property : data.properties()) {
+            final @Nullable String target = accessors.get(property.getName());
+            if (target == null) {
+                continue;
+            }
+            final String declared = this.descriptors.getDescriptor(property.getAccessor());
+            if (!declared.equals(target) && methods.add(property.getAccessor().getSimpleName() + declared)) {
+                this.generateBridge(cw, internalName, property.getAccessor().getSimpleName().toString(), declared, target);
+            }
+        }
+
+        this.generateToString(cw, type, internalName, data.properties(), accessors);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private @Nullable String signature(final TypeMirror type, final String descriptor) {
+        final String signature = type.accept(this.signatures, new StringBuilder()).toString();
+        return signature.equals(descriptor) ? null : signature;
+    }
+
+    private boolean generateConstructor(
+        final ClassWriter cw,
+        final String owner,
+        final Map<String, String> fields,
+        final List<Property> requiredProperties
+    ) {
+        final StringBuilder descriptor = new StringBuilder("(");
+        final StringBuilder signature = new StringBuilder("(");
+        for (final Property property : requiredProperties) {
+            descriptor.append(this.descriptors.getDescriptor(property.getType()));
+            property.getType().accept(this.signatures, signature);
+        }
+        descriptor.append(")V");
+        signature.append(")V");
+
+        final String desc = descriptor.toString();
+        final MethodVisitor mv = cw.visitMethod(0, "<init>", desc, desc.contentEquals(signature) ? null : signature.toString(), null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, ClassFileGenerator.OBJECT, "<init>", "()V", false);
+
+        int slot = 1;
+        for (final Property property : requiredProperties) {
+            final Type paramType = Type.getType(this.descriptors.getDescriptor(property.getType()));
+            final @Nullable String field = fields.get(property.getName());
+            if (field == null) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "No field could be generated for the property " + property.getName(), property.getAccessor());
+                return false;
+            }
+
+            if (this.generator.requiresNullCheck(property)) {
+                mv.visitVarInsn(Opcodes.ALOAD, slot);
+                mv.visitLdcInsn(ClassGenerator.missingPropertyMessage(property));
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Objects", "requireNonNull", "(Ljava/lang/Object;Ljava/lang/String;)Ljava/lang/Object;", false);
+                mv.visitInsn(Opcodes.POP);
+            }
+
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(paramType.getOpcode(Opcodes.ILOAD), slot);
+            ClassFileGenerator.convert(mv, paramType, Type.getType(field));
+            mv.visitFieldInsn(Opcodes.PUTFIELD, owner, property.getName(), field);
+            slot += paramType.getSize();
+        }
+
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return true;
+    }
+
+    private void generateAccessor(final ClassWriter cw, final String owner, final Property property, final String field, final String descriptor) {
+        final @Nullable String returnSignature = this.signature(property.getType(), Type.getReturnType(descriptor).getDescriptor());
+        final MethodVisitor mv = cw.visitMethod(
+            Opcodes.ACC_PUBLIC,
+            property.getAccessor().getSimpleName().toString(),
+            descriptor,
+            returnSignature == null ? null : "()" + returnSignature,
+            null
+        );
+        final Type returnType = Type.getReturnType(descriptor);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, owner, property.getName(), field);
+        ClassFileGenerator.convert(mv, Type.getType(field), returnType);
+        mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void generateEventId(final ClassWriter cw, final String owner) {
+        final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, ClassGenerator.GENERATED_EVENT_ID, "()I", null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(Opcodes.GETSTATIC, owner, ClassGenerator.EVENT_ID, "I");
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void generateBridge(final ClassWriter cw, final String owner, final String name, final String descriptor, final String target) {
+        final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_BRIDGE | Opcodes.ACC_SYNTHETIC, name, descriptor, null, null);
+        final Type returnType = Type.getReturnType(descriptor);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, name, target, false);
+        ClassFileGenerator.convert(mv, Type.getReturnType(target), returnType);
+        mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Mirrors {@link ClassContext#addMutator(TypeElement, String, Property)}.
+     *
+     * @return whether the mutator rejects arguments through the invalid argument helper
+     */
+    private boolean generateMutator(
+        final ClassWriter cw,
+        final TypeElement type,
+        final String owner,
+        final Property property,
+        final ExecutableElement mutator,
+        final String field
+    ) {
+        final String descriptor = this.descriptors.getDescriptor(mutator);
+        // Type variables must be those of the event, and the erasure must still match the overridden method
+        final ExecutableType relativized = (ExecutableType) this.types.asMemberOf((DeclaredType) type.asType(), mutator);
+        final String signature = relativized.accept(this.signatures, new StringBuilder()).toString();
+        final boolean useSignature = !signature.equals(descriptor) && this.descriptors.getDescriptor(relativized, true).equals(descriptor);
+        final MethodVisitor mv = cw.visitMethod(
+            Opcodes.ACC_PUBLIC,
+            mutator.getSimpleName().toString(),
+            descriptor,
+            useSignature ? signature : null,
+            null
+        );
+        mv.visitCode();
+
+        Type valueType = Type.getArgumentTypes(descriptor)[0];
+        int value = 1;
+        if (this.types.isAssignable(property.getAccessor().getReturnType(), this.erasedOptional)) {
+            mv.visitVarInsn(valueType.getOpcode(Opcodes.ILOAD), value);
+            ClassFileGenerator.convert(mv, valueType, Type.getObjectType(ClassFileGenerator.OBJECT));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Optional", "ofNullable", "(Ljava/lang/Object;)Ljava/util/Optional;", false);
+            final int wrapped = value + valueType.getSize();
+            mv.visitVarInsn(Opcodes.ASTORE, wrapped);
+            value = wrapped;
+            valueType = Type.getType(Optional.class);
+        }
+
+        boolean rejects = false;
+        if (!property.getType().getKind().isPrimitive() && !this.types.isSameType(property.getMostSpecificType(), property.getAccessor().getReturnType())
+            && valueType.getSort() >= Type.ARRAY) {
+            final TypeMirror mostSpecificReturn = property.getMostSpecificType();
+            final Label accepted = new Label();
+            mv.visitVarInsn(Opcodes.ALOAD, value);
+            mv.visitJumpInsn(Opcodes.IFNULL, accepted);
+            mv.visitVarInsn(Opcodes.ALOAD, value);
+            mv.visitTypeInsn(Opcodes.INSTANCEOF, Type.getType(this.descriptors.getDescriptor(this.types.erasure(mostSpecificReturn))).getInternalName());
+            mv.visitJumpInsn(Opcodes.IFNE, accepted);
+
+            mv.visitLdcInsn(mutator.getSimpleName().toString());
+            mv.visitVarInsn(Opcodes.ALOAD, value);
+            mv.visitLdcInsn(mostSpecificReturn.toString());
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, ClassContext.INVALID_ARGUMENT, ClassContext.INVALID_ARGUMENT_DESCRIPTOR, false);
+            mv.visitInsn(Opcodes.ATHROW);
+            mv.visitLabel(accepted);
+            rejects = true;
+        }
+
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(valueType.getOpcode(Opcodes.ILOAD), value);
+        ClassFileGenerator.convert(mv, valueType, Type.getType(field));
+        mv.visitFieldInsn(Opcodes.PUTFIELD, owner, property.getName(), field);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return rejects;
+    }
+
+    /**
+     * Mirrors the invalid argument helper of {@link ClassContext}.
+     */
+    private static void generateInvalidArgument(final ClassWriter cw, final TypeElement type) {
+        final MethodVisitor mv = cw.visitMethod(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
+            ClassContext.INVALID_ARGUMENT,
+            ClassContext.INVALID_ARGUMENT_DESCRIPTOR,
+            null,
+            null
+        );
+        mv.visitCode();
+        mv.visitTypeInsn(Opcodes.NEW, "java/lang/RuntimeException");
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitTypeInsn(Opcodes.NEW, ClassFileGenerator.STRING_BUILDER);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitLdcInsn("You've attempted to call the method '");
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, ClassFileGenerator.STRING_BUILDER, "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitLdcInsn("' with an object of type");
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ClassFileGenerator.OBJECT, "getClass", "()Ljava/lang/Class;", false);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Class", "getName", "()Ljava/lang/String;", false);
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitLdcInsn(", instead of ");
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitLdcInsn(". Though you may have been listening for a supertype of this event, it's technically"
+                        + "a " + type.getQualifiedName() + ". You need to ensure that the event is the type you think it is.");
+        ClassFileGenerator.append(mv, Type.getType(String.class));
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ClassFileGenerator.STRING_BUILDER, "toString", "()Ljava/lang/String;", false);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/RuntimeException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Mirrors the {@code toString} built up through {@link ClassContext}.
+     */
+    private void generateToString(
+        final ClassWriter cw,
+        final TypeElement type,
+        final String owner,
+        final List<Property> properties,
+        final Map<String, String> accessors
+    ) {
+        final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(Opcodes.NEW, ClassFileGenerator.STRING_BUILDER);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitLdcInsn(type.getSimpleName() + "{");
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, ClassFileGenerator.STRING_BUILDER, "<init>", "(Ljava/lang/String;)V", false);
+
+        boolean receivedParam = false;
+        for (final Property property : properties) {
+            final PropertySettings settings = ClassGenerator.getPropertySettings(property);
+            if (settings != null && !settings.useInToString()) {
+                continue;
+            }
+            if (!property.isLeastSpecificType(this.types) || !(ClassGenerator.isRequired(property) || ClassGenerator.generateMethods(property))) {
+                continue;
+            }
+
+            mv.visitLdcInsn((receivedParam ? ", " : "") + property.getName() + "=");
+            ClassFileGenerator.append(mv, Type.getType(String.class));
+
+            // Resolve the accessor the same way javac would, preferring our own most specific override
+            final String accessor = accessors.getOrDefault(property.getName(), this.descriptors.getDescriptor(property.getAccessor()));
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, property.getAccessor().getSimpleName().toString(), accessor, false);
+            ClassFileGenerator.append(mv, Type.getReturnType(accessor));
+            receivedParam = true;
+        }
+
+        mv.visitIntInsn(Opcodes.BIPUSH, '}');
+        ClassFileGenerator.append(mv, Type.CHAR_TYPE);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ClassFileGenerator.STRING_BUILDER, "toString", "()Ljava/lang/String;", false);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Append the value on top of the stack to a {@link StringBuilder}, with the
+     * same conversions as string concatenation.
+     */
+    private static void append(final MethodVisitor mv, final Type type) {
+        final String descriptor = switch (type.getSort()) {
+            case Type.BOOLEAN, Type.CHAR, Type.INT, Type.LONG, Type.FLOAT, Type.DOUBLE -> type.getDescriptor();
+            case Type.BYTE, Type.SHORT -> "I";
+            default -> type.equals(Type.getType(String.class)) ? "Ljava/lang/String;" : "Ljava/lang/Object;";
+        };
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ClassFileGenerator.STRING_BUILDER, "append", "(" + descriptor + ")Ljava/lang/StringBuilder;", false);
+    }
+
+    /**
+     * Convert the value on top of the stack as an assignment in source would,
+     * boxing, unboxing or casting as needed.
+     */
+    private static void convert(final MethodVisitor mv, final Type from, final Type to) {
+        if (from.equals(to)) {
+            return;
+        }
+
+        final boolean fromPrimitive = from.getSort() < Type.ARRAY;
+        final boolean toPrimitive = to.getSort() < Type.ARRAY;
+        if (fromPrimitive && !toPrimitive) {
+            final Type boxed = ClassFileGenerator.boxed(from);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, boxed.getInternalName(), "valueOf", "(" + from.getDescriptor() + ")" + boxed.getDescriptor(), false);
+            ClassFileGenerator.convert(mv, boxed, to);
+        } else if (!fromPrimitive && toPrimitive) {
+            final Type boxed = ClassFileGenerator.boxed(to);
+            ClassFileGenerator.convert(mv, from, boxed);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxed.getInternalName(), to.getClassName() + "Value", "()" + to.getDescriptor(), false);
+        } else if (!fromPrimitive && !to.getInternalName().equals(ClassFileGenerator.OBJECT)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, to.getInternalName());
+        }
+    }
+
+    private static Type boxed(final Type primitive) {
+        return switch (primitive.getSort()) {
+            case Type.BOOLEAN -> Type.getType(Boolean.class);
+            case Type.CHAR -> Type.getType(Character.class);
+            case Type.BYTE -> Type.getType(Byte.class);
+            case Type.SHORT -> Type.getType(Short.class);
+            case Type.INT -> Type.getType(Integer.class);
+            case Type.FLOAT -> Type.getType(Float.class);
+            case Type.LONG -> Type.getType(Long.class);
+            case Type.DOUBLE -> Type.getType(Double.class);
+            default -> throw new IllegalArgumentException("Not a primitive type: " + primitive);
+        };
+    }
+
+}
@@ -27,6 +27,7 @@
 import com.palantir.javapoet.AnnotationSpec;
 import com.palantir.javapoet.ClassName;
 import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.FieldSpec;
 import com.palantir.javapoet.JavaFile;
 import com.palantir.javapoet.MethodSpec;
 import com.palantir.javapoet.ParameterizedTypeName;
@@ -34,27 +35,28 @@
 import com.palantir.javapoet.TypeSpec;
 import com.palantir.javapoet.TypeVariableName;
 import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
+import org.spongepowered.eventgen.annotations.IdentifiedEvent;
 import org.spongepowered.eventgen.annotations.PropertySettings;
 import org.spongepowered.eventgen.annotations.UseField;
 import org.spongepowered.eventgen.annotations.internal.GeneratedEvent;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.BaseClassCache;
 import org.spongepowered.eventimplgen.eventgencore.Property;
-import org.spongepowered.eventimplgen.eventgencore.PropertySorter;
 import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
 import org.spongepowered.eventimplgen.processor.EventImplGenProcessor;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import javax.annotation.processing.Generated;
 import javax.annotation.processing.Messager;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.lang.model.type.DeclaredType;
-import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
-import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -62,15 +64,21 @@
 /**
  * Generates the bytecode for classes needed by {@link ClassNameProvider}.
  */
+@Singleton
 public class ClassGenerator {
 
     private static final ClassName OBJECTS = ClassName.get(Objects.class);
+    static final String EVENT_ID = "EVENT_ID";
+    static final String GENERATED_EVENT_ID = "generatedEventId";
+    static final String FILL = "fill";
 
     private final Types types;
     private final Elements elements;
     private final Messager messager;
     private final ClassContext.Factory classContextFactory;
     private final ClassNameProvider classNameProvider;
+    private final BaseClassCache baseClasses;
+    private final AnnotationIndex annotationIndex;
 
     private NullPolicy nullPolicy = NullPolicy.DISABLE_PRECONDITIONS;
 
@@ -80,25 +88,21 @@ public class ClassGenerator {
         final Types types,
         final Elements elements,
         final Messager messager,
-        final ClassContext.Factory classContextFactory
+        final ClassContext.Factory classContextFactory,
+        final BaseClassCache baseClasses,
+        final AnnotationIndex annotationIndex
     ) {
         this.classNameProvider = classNameProvider;
         this.types = types;
         this.elements = elements;
         this.messager = messager;
         this.classContextFactory = classContextFactory;
+        this.baseClasses = baseClasses;
+        this.annotationIndex = annotationIndex;
     }
 
-    static PropertySettings getPropertySettings(final Property property) {
-        // Check the most specific method first.
-        // This ensures that users can add @PropertySettings on an
-        // overridden method.
-        final PropertySettings anno = property.getMostSpecificMethod().getAnnotation(PropertySettings.class);
-
-        if (anno != null) {
-            return anno;
-        }
-        return property.getAccessor().getAnnotation(PropertySettings.class);
+    static @Nullable PropertySettings getPropertySettings(final Property property) {
+        return property.getSettings();
     }
 
     static boolean isRequired(final Property property) {
@@ -119,27 +123,9 @@ static boolean generateMethods(final Property property) {
         }
     }
 
-    static UseField getUseField(final TypeMirror clazz, final String fieldName) {
-        if (clazz.getKind() != TypeKind.DECLARED) {
-            return null;
-        }
-        final Element type = ((DeclaredType) clazz).asElement();
-        if (type == null) {
-            return null;
-        }
-
-        for (final VariableElement element : ElementFilter.fieldsIn(type.getEnclosedElements())) {
-            if (element.getSimpleName().contentEquals(fieldName)) {
-                return element.getAnnotation(UseField.class);
-            }
-        }
-
-        return null;
-    }
-
     public boolean hasDeclaredMethod(final DeclaredType clazz, final String name, final TypeMirror... params) {
-        for (final ExecutableElement method : ElementFilter.methodsIn(this.elements.getAllMembers((TypeElement) clazz.asElement()))) {
-            if (method.getSimpleName().contentEquals(name) && this.parametersEqual(method.getParameters(), params)) {
+        for (final ExecutableElement method : this.baseClasses.model((TypeElement) clazz.asElement()).methods(name)) {
+            if (this.parametersEqual(method.getParameters(), params)) {
                 return true;
             }
         }
@@ -160,13 +146,8 @@ private boolean parametersEqual(final List<? extends VariableElement> a, final T
         return true;
     }
 
-    public VariableElement getField(final DeclaredType clazz, final String fieldName) {
-        for (final VariableElement field : ElementFilter.fieldsIn(this.elements.getAllMembers((TypeElement) clazz.asElement()))) {
-            if (field.getSimpleName().contentEquals(fieldName)) {
-                return field;
-            }
-        }
-        return null;
+    public @Nullable VariableElement getField(final DeclaredType clazz, final String fieldName) {
+        return this.baseClasses.model((TypeElement) clazz.asElement()).field(fieldName);
     }
 
     /**
@@ -189,13 +170,7 @@ public void setNullPolicy(final NullPolicy nullPolicy) {
 
     private void alwaysQualifiedImports(TypeSpec.Builder classBuilder, final TypeElement element) {
         // always qualify the return types of properties in properties
-        final Set<String> alwaysQualified = new HashSet<>();
-        this.elements.getAllMembers(element)
-            .stream()
-            .filter(el -> el.getKind().isClass() || el.getKind().isInterface())
-            .filter(el -> ((TypeElement) el).getNestingKind().isNested())
-            .map(el -> el.getSimpleName().toString())
-            .forEach(alwaysQualified::add);
+        final Set<String> alwaysQualified = this.baseClasses.model(element).nestedTypes();
 
         classBuilder.alwaysQualify(alwaysQualified.toArray(new String[0]));
     }
@@ -234,7 +209,7 @@ private static boolean hasAnnotationOnSelfOrReturnType(final ExecutableElement m
 
     public boolean contributeField(final ClassContext classWriter, final DeclaredType parentType, final Property property) {
         final VariableElement field = this.getField(parentType, property.getName());
-        if (field == null || field.getAnnotation(UseField.class) == null) {
+        if (field == null || !this.annotationIndex.isPresent(field, UseField.class)) {
             classWriter.addField(property);
         } else if (field.getModifiers().contains(Modifier.PRIVATE)) {
             this.messager.printMessage(Diagnostic.Kind.ERROR, "You've annotated the field " + property.getName() + " with @UseField, "
@@ -259,47 +234,85 @@ public boolean contributeField(final ClassContext classWriter, final DeclaredTyp
         return true;
     }
 
-    public List<Property> getRequiredProperties(final List<Property> properties) {
-        return properties.stream().filter(p -> p.isMostSpecificType(this.types) && ClassGenerator.isRequired(p)).collect(Collectors.toList());
+    boolean requiresNullCheck(final Property property) {
+        if (this.nullPolicy == NullPolicy.DISABLE_PRECONDITIONS) {
+            return false;
+        }
+        return !property.getType().getKind().isPrimitive()
+               && (((this.nullPolicy == NullPolicy.NON_NULL_BY_DEFAULT && !this.hasNullable(property.getAccessor()))
+                    || (this.nullPolicy == NullPolicy.NULL_BY_DEFAULT && this.hasNonNull(property.getAccessor())))
+                   && ClassGenerator.isRequired(property));
+    }
+
+    static String missingPropertyMessage(final Property property) {
+        return "The property '" + property.getName() + "' was not provided!";
     }
 
-    private MethodSpec generateConstructor(final DeclaredType parentType, final List<Property> properties) {
-        final List<Property> requiredProperties = this.getRequiredProperties(properties);
+    private MethodSpec generateConstructor(final DeclaredType parentType, final List<Property> requiredProperties) {
         final MethodSpec.Builder builder = MethodSpec.constructorBuilder();
 
         final CodeBlock.Builder initializer = CodeBlock.builder();
+        this.initializeRequiredProperties(builder, initializer, requiredProperties);
+
+        // super.init();
+        if (this.hasDeclaredMethod(parentType, "init")) {
+            initializer.addStatement("super.init()");
+        }
+
+        builder.addCode(initializer.build());
+        return builder.build();
+    }
+
+    private void initializeRequiredProperties(final MethodSpec.Builder builder, final CodeBlock.Builder initializer, final List<Property> requiredProperties) {
         for (final Property property : requiredProperties) {
             builder.addParameter(TypeName.get(property.getType()), property.getName(), Modifier.FINAL);
             // Only if we have a null policy:
             // if (value == null) throw new NullPointerException(...)
-            if (this.nullPolicy != NullPolicy.DISABLE_PRECONDITIONS) {
-                final boolean useNullTest = !property.getType().getKind().isPrimitive()
-                                            && (((this.nullPolicy == NullPolicy.NON_NULL_BY_DEFAULT && !this.hasNullable(property.getAccessor()))
-                                                 || (this.nullPolicy == NullPolicy.NULL_BY_DEFAULT && this.hasNonNull(property.getAccessor())))
-                                                && ClassGenerator.isRequired(property));
-
-                if (useNullTest) {
-                    initializer.addStatement(
-                        "this.$1L = $2T.requireNonNull($1L, $3S)",
-                        property.getName(),
-                        ClassGenerator.OBJECTS,
-                        "The property '" + property.getName() + "' was not provided!"
-                    );
-                    continue;
-                }
+            if (this.requiresNullCheck(property)) {
+                initializer.addStatement(
+                    "this.$1L = $2T.requireNonNull($1L, $3S)",
+                    property.getName(),
+                    ClassGenerator.OBJECTS,
+                    ClassGenerator.missingPropertyMessage(property)
+                );
+                continue;
             }
 
             // no null test
             initializer.addStatement("this.$1L = $1L", property.getName());
         }
+    }
 
-        // super.init();
-        if (this.hasDeclaredMethod(parentType, "init")) {
-            initializer.addStatement("super.init()");
+    /**
+     * Generate a method re-initializing an instance for reuse by batch
+     * factory methods, taking the same parameters as the constructor.
+     */
+    private MethodSpec generateFill(final List<Property> requiredProperties, final ClassContext ctx) {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(ClassGenerator.FILL);
+        final CodeBlock.Builder initializer = CodeBlock.builder();
+        this.initializeRequiredProperties(builder, initializer, requiredProperties);
+        for (final Property property : ctx.defaultedFields()) {
+            initializer.addStatement("this.$L = $L", property.getName(), ClassGenerator.defaultValue(TypeName.get(property.getType())));
+        }
+        // fields of plugins are set up as the constructor would, such as memoized values
+        for (final FieldSpec field : ctx.extraFields()) {
+            if (field.hasModifier(Modifier.STATIC) || field.hasModifier(Modifier.FINAL)) {
+                continue;
+            }
+            initializer.addStatement(
+                "this.$N = $L",
+                field,
+                field.initializer().isEmpty() ? CodeBlock.of(ClassGenerator.defaultValue(field.type())) : field.initializer()
+            );
         }
+        return builder.addCode(initializer.build()).build();
+    }
 
-        builder.addCode(initializer.build());
-        return builder.build();
+    private static String defaultValue(final TypeName type) {
+        if (type.equals(TypeName.BOOLEAN)) {
+            return "false";
+        }
+        return type.isPrimitive() ? "0" : "null";
     }
 
     private MethodSpec generateAccessor(final Property property) {
@@ -396,15 +409,16 @@ private void deriveParentTypeName(TypeSpec.Builder builder, DeclaredType parentT
      * @param type       The type
      * @param name       The canonical of the generated class
      * @param parentType The parent type
+     * @param eventId    The dense id of the event, see {@link FactoryInterfaceGenerator#eventId(TypeElement)}, or {@code -1} to not identify the event
      * @return The class' contents, or {@code null} if an error was reported while generating the class
      */
     public @Nullable JavaFile createClass(
         final TypeElement type,
         final ClassName name,
         final DeclaredType parentType,
+        final int eventId,
         final EventData data,
-        final PropertySorter sorter,
-        final Set<? extends EventFactoryPlugin> plugins
+        final List<? extends EventFactoryPlugin> plugins
     ) {
         Objects.requireNonNull(type, "type");
         Objects.requireNonNull(name, "name");
@@ -418,17 +432,7 @@ private void deriveParentTypeName(TypeSpec.Builder builder, DeclaredType parentT
             .addTypeVariables(classTypeParameters)
             .addSuperinterface(implementedInterface)
             .addOriginatingElement(type)
-            .addAnnotation(this.generatedAnnotation())
-            .addAnnotation(
-                AnnotationSpec.builder(GeneratedEvent.class)
-                    .addMember("source", "$T.class",
-                        implementedInterface instanceof ParameterizedTypeName
-                            ? ((ParameterizedTypeName) implementedInterface).rawType()
-                            : implementedInterface
-                    )
-                    .addMember("version", "$S", ClassGenerator.class.getPackage().getImplementationVersion())
-                    .build()
-            );
+            .addAnnotation(this.generatedAnnotation());
         this.deriveParentTypeName(classBuilder, parentType, type);
         this.alwaysQualifiedImports(classBuilder, type);
         classBuilder.avoidClashesWithNestedClasses(type);
@@ -438,8 +442,33 @@ private void deriveParentTypeName(TypeSpec.Builder builder, DeclaredType parentT
             classBuilder.addTypeVariable(TypeVariableName.get(param));
         }
 
+        if (eventId >= 0) {
+            // the class isn't public, so dispatch reads the id through the interface
+            classBuilder.addSuperinterface(IdentifiedEvent.class)
+                .addField(FieldSpec.builder(int.class, ClassGenerator.EVENT_ID, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", eventId)
+                    .build())
+                .addMethod(MethodSpec.methodBuilder(ClassGenerator.GENERATED_EVENT_ID)
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(int.class)
+                    .addStatement("return $L", ClassGenerator.EVENT_ID)
+                    .build());
+        }
+
+        final boolean batched = this.annotationIndex.isPresent(type, BatchFactoryMethod.class);
+        if (batched && !type.getTypeParameters().isEmpty()) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Batch factory methods are not supported for generic events", type);
+            return null;
+        }
+        if (batched && this.baseClasses.implementedBy(type) != null) {
+            // fill can't reset the state of a base class as its constructor would
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Batch factory methods are not supported for events with an @ImplementedBy base class", type);
+            return null;
+        }
+
         // Create the constructor
-        classBuilder.addMethod(this.generateConstructor(parentType, sorter.sortProperties(data.properties())));
+        classBuilder.addMethod(this.generateConstructor(parentType, data.plan().parameters()));
 
         final ClassContext ctx = this.classContextFactory.create(classBuilder);
 
@@ -452,13 +481,24 @@ private void deriveParentTypeName(TypeSpec.Builder builder, DeclaredType parentT
         // "ClassName{param1=value1, param2=value2, ...}"
 
         // Create the accessors and mutators, and fill out the toString method
-        if (!this.generateWithPlugins(ctx, type, parentType, data.properties(), plugins)) {
+        final Set<EventFactoryPlugin> contributors = new LinkedHashSet<>();
+        if (!this.generateWithPlugins(ctx, type, parentType, data.properties(), plugins, contributors)) {
             return null;
         }
+        classBuilder.addAnnotation(this.generatedEventAnnotation(
+            implementedInterface instanceof ParameterizedTypeName
+                ? ((ParameterizedTypeName) implementedInterface).rawType()
+                : implementedInterface,
+            contributors
+        ));
 
         // Now build the toString
         ctx.finalizeToString(type);
 
+        if (batched) {
+            classBuilder.addMethod(this.generateFill(data.plan().parameters(), ctx));
+        }
+
         return JavaFile.builder(name.packageName(), classBuilder.build())
             .indent("    ")
             .build();
@@ -469,17 +509,25 @@ private boolean generateWithPlugins(
         final TypeElement eventClass,
         final DeclaredType parentType,
         final List<Property> properties,
-        final Set<? extends EventFactoryPlugin> plugins
+        final List<? extends EventFactoryPlugin> plugins,
+        final Set<EventFactoryPlugin> contributors
     ) {
         boolean success = true;
 
+        for (final EventFactoryPlugin plugin : plugins) {
+            success &= this.recordResult(plugin, plugin.beforeClass(eventClass, classBuilder), contributors);
+        }
+
         for (final Property property : properties) {
             boolean processed = false;
 
             for (final EventFactoryPlugin plugin : plugins) {
+                if (!plugin.mayContribute(eventClass, property, this.annotationIndex)) {
+                    continue;
+                }
                 final EventFactoryPlugin.Result result = plugin.contributeProperty(eventClass, classBuilder, property);
                 processed = result != EventFactoryPlugin.Result.IGNORE;
-                success &= result != EventFactoryPlugin.Result.FAILURE;
+                success &= this.recordResult(plugin, result, contributors);
                 if (processed) {
                     break;
                 }
@@ -492,9 +540,61 @@ private boolean generateWithPlugins(
                 this.generateAccessorsAndMutator(classBuilder, eventClass, property);
             }
         }
+
+        for (final EventFactoryPlugin plugin : plugins) {
+            success &= this.recordResult(plugin, plugin.afterClass(eventClass, classBuilder), contributors);
+        }
         return success;
     }
 
+    private boolean recordResult(
+        final EventFactoryPlugin plugin,
+        final EventFactoryPlugin.Result result,
+        final Set<EventFactoryPlugin> contributors
+    ) {
+        if (result == EventFactoryPlugin.Result.SUCCESSS) {
+            contributors.add(plugin);
+        }
+        return result != EventFactoryPlugin.Result.FAILURE;
+    }
+
+    /**
+     * Get the version of the generator, to record in generated classes.
+     *
+     * @return the version, or {@code null} when not running from a packaged jar
+     */
+    static @Nullable String generatorVersion() {
+        return ClassGenerator.class.getPackage().getImplementationVersion();
+    }
+
+    AnnotationSpec generatedEventAnnotation(final TypeName source) {
+        return this.generatedEventAnnotation(source, Set.of());
+    }
+
+    AnnotationSpec generatedEventAnnotation(final TypeName source, final Collection<? extends EventFactoryPlugin> plugins) {
+        final AnnotationSpec.Builder generatedEvent = AnnotationSpec.builder(GeneratedEvent.class)
+            .addMember("source", "$T.class", source);
+        final @Nullable String version = ClassGenerator.generatorVersion();
+        if (version != null) {
+            generatedEvent.addMember("version", "$S", version);
+        }
+        for (final EventFactoryPlugin plugin : plugins) {
+            generatedEvent.addMember("plugins", "$S", ClassGenerator.pluginDescriptor(plugin));
+        }
+        return generatedEvent.build();
+    }
+
+    /**
+     * Describe a plugin for the {@link GeneratedEvent} marker.
+     *
+     * @param plugin the plugin
+     * @return the plugin id, followed by its version if known
+     */
+    static String pluginDescriptor(final EventFactoryPlugin plugin) {
+        final @Nullable String version = plugin.version();
+        return version == null ? plugin.id() : plugin.id() + ':' + version;
+    }
+
     AnnotationSpec generatedAnnotation() {
         return AnnotationSpec.builder(Generated.class)
             .addMember("value", "$S", EventImplGenProcessor.class.getName())
@@ -70,6 +70,18 @@ public ClassName getClassName(final TypeElement clazz, final String classifier)
             .toString());
     }
 
+    /**
+     * Get the canonical name used for a generated event class, from the
+     * name of the event alone.
+     *
+     * @param clazz The class name
+     * @param classifier The classifier
+     * @return Canonical name
+     */
+    public ClassName getClassName(final ClassName clazz, final String classifier) {
+        return ClassName.get(this.targetPackage, String.join("_", clazz.simpleNames()) + '_' + classifier);
+    }
+
     public TypeName getImplementingInterfaceName(final TypeElement clazz) {
         var original = TypeName.get(clazz.asType());
         // In the off chance
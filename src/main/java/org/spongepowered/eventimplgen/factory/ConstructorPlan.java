@@ -0,0 +1,65 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.eventgencore.PropertySorter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The order of an event's properties, computed once and shared by the
+ * implementation constructor and every factory method.
+ *
+ * @param sorted the most specific properties, in constructor order
+ * @param parameters the properties passed to the constructor, in order
+ */
+public record ConstructorPlan(List<Property> sorted, List<Property> parameters) {
+
+    public ConstructorPlan {
+        sorted = List.copyOf(sorted);
+        parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * Sort the properties of an event.
+     *
+     * @param properties all properties of the event
+     * @param sorter the property sorter
+     * @return the plan
+     */
+    public static ConstructorPlan of(final List<Property> properties, final PropertySorter sorter) {
+        final List<Property> sorted = sorter.sortProperties(properties);
+        final List<Property> parameters = new ArrayList<>(sorted.size());
+        for (final Property property : sorted) {
+            if (ClassGenerator.isRequired(property)) {
+                parameters.add(property);
+            }
+        }
+        return new ConstructorPlan(sorted, parameters);
+    }
+
+}
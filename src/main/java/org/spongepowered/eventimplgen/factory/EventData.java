@@ -25,6 +25,7 @@
 package org.spongepowered.eventimplgen.factory;
 
 import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.eventgencore.PropertySorter;
 
 import java.util.List;
 import java.util.Set;
@@ -33,7 +34,15 @@
 
 /**
  * Data associated with a generated event
+ *
+ * @param properties all properties of the event
+ * @param extraOrigins additional elements the event's classes originate from
+ * @param plan the sorted properties, shared by everything generated for the event
  */
-public record EventData(List<Property> properties, Set<? extends Element> extraOrigins) {
+public record EventData(List<Property> properties, Set<? extends Element> extraOrigins, ConstructorPlan plan) {
+
+    public static EventData create(final List<Property> properties, final Set<? extends Element> extraOrigins, final PropertySorter sorter) {
+        return new EventData(properties, extraOrigins, ConstructorPlan.of(properties, sorter));
+    }
 
 }
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.ParameterSpec;
+import com.palantir.javapoet.TypeName;
+import com.palantir.javapoet.TypeVariableName;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * A compact description of the factory methods of an event.
+ *
+ * <p>Descriptors are created as each round is generated, and hold only names
+ * and the already generated factory methods, so that the factory can be
+ * assembled in the final round without retaining properties, methods, type
+ * mirrors or elements. The originating elements are kept by name, and are
+ * resolved again in the final round to report them to the filer.</p>
+ *
+ * @param binaryName the binary name of the event interface
+ * @param eventClass the raw event interface
+ * @param eventType the event interface, parameterized by its type variables
+ * @param typeVariables the type variables of the event
+ * @param implClass the generated implementation
+ * @param methodName the name of the factory method
+ * @param eventId the dense id of the event, or {@code -1} if not assigned
+ * @param batch whether batch factory methods are generated
+ * @param properties the most specific properties, in constructor order
+ * @param supertypes the supertypes accessible from the factory, nearest first
+ * @param origins the qualified names of the types and packages the factory methods originate from
+ * @param factoryMethods the generated factory methods of the event
+ */
+public record FactoryDescriptor(
+    String binaryName,
+    ClassName eventClass,
+    TypeName eventType,
+    List<TypeVariableName> typeVariables,
+    ClassName implClass,
+    String methodName,
+    int eventId,
+    boolean batch,
+    List<PropertyDescriptor> properties,
+    List<ClassName> supertypes,
+    List<String> origins,
+    List<MethodSpec> factoryMethods
+) {
+
+    /**
+     * Get a copy of this descriptor with the given factory methods.
+     *
+     * @param factoryMethods the generated factory methods
+     * @return the new descriptor
+     */
+    FactoryDescriptor withFactoryMethods(final List<MethodSpec> factoryMethods) {
+        return new FactoryDescriptor(
+            this.binaryName, this.eventClass, this.eventType, this.typeVariables, this.implClass, this.methodName,
+            this.eventId, this.batch, this.properties, this.supertypes, this.origins, List.copyOf(factoryMethods)
+        );
+    }
+
+    /**
+     * Resolve the elements the factory methods originate from, skipping
+     * those that no longer exist.
+     *
+     * @param elements the element utilities of the current round
+     * @return the originating elements
+     */
+    public List<Element> resolveOrigins(final Elements elements) {
+        final List<Element> resolved = new ArrayList<>(this.origins.size());
+        for (final String origin : this.origins) {
+            // a package can't share its name with a type
+            @Nullable Element element = elements.getTypeElement(origin);
+            if (element == null) {
+                element = elements.getPackageElement(origin);
+            }
+            if (element != null) {
+                resolved.add(element);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Get the properties passed to the factory method.
+     *
+     * @return the required properties, in constructor order
+     */
+    public List<PropertyDescriptor> parameters() {
+        final List<PropertyDescriptor> parameters = new ArrayList<>(this.properties.size());
+        for (final PropertyDescriptor property : this.properties) {
+            if (property.required()) {
+                parameters.add(property);
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * A property of an event.
+     *
+     * @param name the property name
+     * @param type the property type
+     * @param erasure the erasure of the type, in source form
+     * @param required whether the property is a constructor parameter
+     */
+    public record PropertyDescriptor(String name, TypeName type, String erasure, boolean required) {
+    }
+
+    /**
+     * A factory of another module, merged into the factory.
+     *
+     * @param name the factory class
+     * @param firstEventId the first id assigned to the events of the factory
+     * @param eventIdLimit the id after the last id of the factory, and of the factories it merges
+     */
+    public record MergedFactory(ClassName name, int firstEventId, int eventIdLimit) {
+    }
+
+    /**
+     * A static method forwarded to from the factory.
+     *
+     * @param owner the class declaring the method
+     * @param name the method name
+     * @param returnType the return type
+     * @param typeVariables the type variables of the method
+     * @param parameters the parameters
+     */
+    public record ForwardedMethod(
+        ClassName owner,
+        String name,
+        TypeName returnType,
+        List<TypeVariableName> typeVariables,
+        List<ParameterSpec> parameters
+    ) {
+
+        /**
+         * Resolve the class declaring the method, reported to the filer.
+         *
+         * @param elements the element utilities of the current round
+         * @return the owner, or {@code null} if it no longer exists
+         */
+        public @Nullable TypeElement resolveOrigin(final Elements elements) {
+            return elements.getTypeElement(this.owner.canonicalName());
+        }
+
+        /**
+         * Orders forwarded methods by owner, name and parameter types.
+         */
+        public static final Comparator<ForwardedMethod> ORDER = Comparator.comparing((ForwardedMethod method) -> method.owner().reflectionName())
+            .thenComparing(ForwardedMethod::name)
+            .thenComparing(method -> method.parameters().toString());
+    }
+
+}
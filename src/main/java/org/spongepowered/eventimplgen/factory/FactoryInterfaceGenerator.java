@@ -25,122 +25,862 @@
 package org.spongepowered.eventimplgen.factory;
 
 import com.palantir.javapoet.AnnotationSpec;
+import com.palantir.javapoet.ArrayTypeName;
 import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.FieldSpec;
 import com.palantir.javapoet.JavaFile;
 import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.ParameterSpec;
+import com.palantir.javapoet.ParameterizedTypeName;
 import com.palantir.javapoet.TypeName;
 import com.palantir.javapoet.TypeSpec;
 import com.palantir.javapoet.TypeVariableName;
+import com.palantir.javapoet.WildcardTypeName;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
+import org.spongepowered.eventgen.annotations.IdentifiedEvent;
 import org.spongepowered.eventgen.annotations.internal.GeneratedFactory;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.eventgencore.Property;
-import org.spongepowered.eventimplgen.eventgencore.PropertySorter;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.QualifiedNameable;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Singleton
 public class FactoryInterfaceGenerator {
 
+    private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+    private static final TypeName CLASS_LIST = ParameterizedTypeName.get(ClassName.get(List.class), FactoryInterfaceGenerator.CLASS);
+    // the weight of an event in a registry initializer chunk, plus one per supertype
+    private static final int REGISTRY_ENTRY_SIZE = 8;
+    // well below 64 KiB of bytecode per chunk, at about 8 bytes per weight
+    private static final int REGISTRY_CHUNK_SIZE = 2048;
+
+    static final String INDEX_HEADER = "# event-impl-gen index v1";
+    private static final String FRAGMENT_CLASSIFIER = "Factory";
+    static final String ID_INDEX_HEADER = "# event-impl-gen ids v1";
+    // constants of the factory, the range of ids of its own and merged events
+    public static final String FIRST_EVENT_ID = "FIRST_EVENT_ID";
+    public static final String EVENT_ID_LIMIT = "EVENT_ID_LIMIT";
+    // registry methods are specific to each factory, so are never merged
+    private static final Set<String> REGISTRY_METHODS = Set.of("eventCount", "eventType", "eventSupertypes", "eventId");
+
     private final ClassGenerator generator;
+    private final ClassNameProvider classNameProvider;
+    private final Types types;
+    private final Elements elements;
+    private final AnnotationIndex annotationIndex;
+    // binary name -> id, including the ids of removed events kept from the previous build
+    private final Map<String, Integer> eventIds = new HashMap<>();
+    private int firstEventId;
+    private int nextEventId;
 
     @Inject
-    FactoryInterfaceGenerator(final ClassGenerator generator) {
+    FactoryInterfaceGenerator(
+        final ClassGenerator generator,
+        final ClassNameProvider classNameProvider,
+        final Types types,
+        final Elements elements,
+        final AnnotationIndex annotationIndex
+    ) {
         this.generator = generator;
+        this.classNameProvider = classNameProvider;
+        this.types = types;
+        this.elements = elements;
+        this.annotationIndex = annotationIndex;
+    }
+
+    /**
+     * Start assigning ids from the given id, keeping the ids the previous
+     * build assigned from the same id.
+     *
+     * <p>Ids of events that no longer exist stay reserved, so ids are only
+     * ever appended and are stable across builds, as long as the index of
+     * the previous build is kept.</p>
+     *
+     * @param first the first id to assign
+     * @param previousIndex the lines of the id index of the previous build, possibly empty
+     * @see #createIdIndex()
+     */
+    public void startEventIds(final int first, final List<String> previousIndex) {
+        this.eventIds.clear();
+        this.firstEventId = first;
+        this.nextEventId = first;
+        if (previousIndex.size() < 2
+            || !previousIndex.get(0).equals(FactoryInterfaceGenerator.ID_INDEX_HEADER)
+            || !previousIndex.get(1).equals("first " + first)) {
+            return; // no previous build, or its ids started elsewhere
+        }
+        for (final String line : previousIndex.subList(2, previousIndex.size())) {
+            final int split = line.indexOf(' ');
+            if (split <= 0) {
+                continue;
+            }
+            try {
+                final int id = Integer.parseInt(line.substring(0, split));
+                if (id >= first) {
+                    this.eventIds.put(line.substring(split + 1), id);
+                    this.nextEventId = Math.max(this.nextEventId, id + 1);
+                }
+            } catch (final NumberFormatException ex) {
+                // ignore a malformed line
+            }
+        }
+    }
+
+    /**
+     * Get the dense id of an event, assigning the next free id if the event
+     * has not been seen before.
+     *
+     * @param event the event interface
+     * @return the id of the event
+     * @see #startEventIds(int, List)
+     */
+    public int eventId(final TypeElement event) {
+        return this.eventIds.computeIfAbsent(this.elements.getBinaryName(event).toString(), name -> this.nextEventId++);
+    }
+
+    /**
+     * Get the first id assigned to events.
+     *
+     * @return the first id
+     */
+    public int firstEventId() {
+        return this.firstEventId;
+    }
+
+    /**
+     * Get the id after the last id assigned to events.
+     *
+     * @return the first unassigned id
+     */
+    public int nextEventId() {
+        return this.nextEventId;
+    }
+
+    /**
+     * Create the index of assigned ids, for the next build to keep them.
+     *
+     * <pre>
+     * first &lt;first id&gt;
+     * &lt;id&gt; &lt;event binary name&gt;
+     * </pre>
+     *
+     * @return the index contents
+     */
+    public String createIdIndex() {
+        final StringBuilder index = new StringBuilder(FactoryInterfaceGenerator.ID_INDEX_HEADER).append('\n')
+            .append("first ").append(this.firstEventId).append('\n');
+        this.eventIds.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(entry -> index.append(entry.getValue()).append(' ').append(entry.getKey()).append('\n'));
+        return index.toString();
+    }
+
+    /**
+     * Describe the factory methods of an event, so that the event's
+     * properties and models don't need to be retained until the factory is
+     * written.
+     *
+     * <p>The factory methods are generated right away, as each round is
+     * processed, leaving only the assembly of the factory to the final
+     * round.</p>
+     *
+     * @param event the event interface
+     * @param data the properties of the event
+     * @param eventId the dense id of the event, or {@code -1} if not assigned
+     * @return the descriptor
+     */
+    public FactoryDescriptor describe(final TypeElement event, final EventData data, final int eventId) {
+        final ClassName implClass = this.generator.qualifiedName(event);
+        final List<FactoryDescriptor.PropertyDescriptor> properties = new ArrayList<>();
+        for (final Property property : data.plan().sorted()) {
+            properties.add(new FactoryDescriptor.PropertyDescriptor(
+                property.getName(),
+                TypeName.get(property.getType()),
+                this.types.erasure(property.getType()).toString(),
+                ClassGenerator.isRequired(property)
+            ));
+        }
+
+        final List<TypeVariableName> typeVariables = new ArrayList<>();
+        for (final TypeParameterElement param : event.getTypeParameters()) {
+            typeVariables.add(TypeVariableName.get((TypeVariable) param.asType()));
+        }
+
+        final List<ClassName> supertypes = new ArrayList<>();
+        for (final TypeElement supertype : this.accessibleSupertypes(event, implClass.packageName())) {
+            supertypes.add(ClassName.get(supertype));
+        }
+
+        // kept by name, so no elements are retained until the final round
+        final List<String> origins = new ArrayList<>(data.extraOrigins().size() + 1);
+        origins.add(event.getQualifiedName().toString());
+        for (final Element origin : data.extraOrigins()) {
+            if (origin instanceof QualifiedNameable nameable) {
+                origins.add(nameable.getQualifiedName().toString());
+            }
+        }
+
+        final FactoryDescriptor descriptor = new FactoryDescriptor(
+            this.elements.getBinaryName(event).toString(),
+            ClassName.get(event),
+            TypeName.get(event.asType()),
+            List.copyOf(typeVariables),
+            implClass,
+            FactoryInterfaceGenerator.generateMethodName(event),
+            eventId,
+            this.annotationIndex.isPresent(event, BatchFactoryMethod.class),
+            List.copyOf(properties),
+            List.copyOf(supertypes),
+            List.copyOf(origins),
+            List.of()
+        );
+        return descriptor.withFactoryMethods(this.generateFactoryMethods(descriptor));
+    }
+
+    /**
+     * Describe a static method to forward to from the factory.
+     *
+     * @param method the method
+     * @return the descriptor
+     */
+    public FactoryDescriptor.ForwardedMethod describeForwarded(final ExecutableElement method) {
+        final List<TypeVariableName> typeVariables = new ArrayList<>();
+        for (final TypeParameterElement param : method.getTypeParameters()) {
+            typeVariables.add(TypeVariableName.get((TypeVariable) param.asType()));
+        }
+        final List<ParameterSpec> parameters = new ArrayList<>();
+        for (final VariableElement parameter : method.getParameters()) {
+            parameters.add(ParameterSpec.builder(TypeName.get(parameter.asType()), parameter.getSimpleName().toString(), Modifier.FINAL).build());
+        }
+        return new FactoryDescriptor.ForwardedMethod(
+            ClassName.get((TypeElement) method.getEnclosingElement()),
+            method.getSimpleName().toString(),
+            TypeName.get(method.getReturnType()),
+            List.copyOf(typeVariables),
+            List.copyOf(parameters)
+        );
     }
 
     public JavaFile createClass(
             final String name,
-            final Map<TypeElement, EventData> foundProperties,
-            final PropertySorter sorter,
-            final List<ExecutableElement> forwardedMethods) {
+            final Collection<FactoryDescriptor> events,
+            final List<FactoryDescriptor.ForwardedMethod> forwardedMethods,
+            final List<FactoryDescriptor.MergedFactory> mergedFactories) {
         final ClassName clazz = ClassName.bestGuess(name);
-        final TypeSpec.Builder factoryClass = TypeSpec.classBuilder(clazz.topLevelClassName())
-            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-            .addMethod(MethodSpec.constructorBuilder()
-                .addModifiers(Modifier.PRIVATE)
-                .build())
-            .addAnnotation(
-                AnnotationSpec.builder(GeneratedFactory.class)
-                    .addMember("version", "$S", FactoryInterfaceGenerator.class.getPackage().getImplementationVersion())
-                    .build()
-            )
-            .addAnnotation(this.generator.generatedAnnotation());
+        final TypeSpec.Builder factoryClass = this.factoryClass(clazz.topLevelClassName());
 
-        for (final Map.Entry<TypeElement, EventData> event : foundProperties.entrySet()) {
-            factoryClass.addOriginatingElement(event.getKey());
-            event.getValue().extraOrigins().forEach(factoryClass::addOriginatingElement);
-            factoryClass.addMethod(this.generateRealImpl(
-                 event.getKey(),
-                 this.generator.qualifiedName(event.getKey()),
-                 this.generator.getRequiredProperties(sorter.sortProperties(event.getValue().properties()))
-            ));
+        for (final FactoryDescriptor event : events) {
+            event.resolveOrigins(this.elements).forEach(factoryClass::addOriginatingElement);
+            factoryClass.addMethods(event.factoryMethods());
         }
 
-        for (final ExecutableElement forwardedMethod : forwardedMethods) {
-            factoryClass.addOriginatingElement(forwardedMethod);
+        for (final FactoryDescriptor.ForwardedMethod forwardedMethod : forwardedMethods) {
+            final @Nullable TypeElement origin = forwardedMethod.resolveOrigin(this.elements);
+            if (origin != null) {
+                factoryClass.addOriginatingElement(origin);
+            }
             factoryClass.addMethod(this.generateForwardingMethod(forwardedMethod));
         }
 
+        this.generateRegistry(factoryClass, events, mergedFactories);
+
         return JavaFile.builder(clazz.packageName(), factoryClass.build())
             .indent("    ")
             .build();
     }
 
-    private MethodSpec generateForwardingMethod(final ExecutableElement targetMethod) {
-        final MethodSpec.Builder spec = MethodSpec.methodBuilder(targetMethod.getSimpleName().toString())
+    /**
+     * Describe a factory generated for another module, from the range of
+     * event ids it declares.
+     *
+     * @param factory the compiled factory
+     * @return the descriptor, or {@code null} if the factory declares no ids
+     */
+    public FactoryDescriptor.@Nullable MergedFactory describeMerged(final TypeElement factory) {
+        @Nullable Integer first = null;
+        @Nullable Integer limit = null;
+        for (final VariableElement field : ElementFilter.fieldsIn(factory.getEnclosedElements())) {
+            if (field.getConstantValue() instanceof Integer value) {
+                if (field.getSimpleName().contentEquals(FactoryInterfaceGenerator.FIRST_EVENT_ID)) {
+                    first = value;
+                } else if (field.getSimpleName().contentEquals(FactoryInterfaceGenerator.EVENT_ID_LIMIT)) {
+                    limit = value;
+                }
+            }
+        }
+        if (first == null || limit == null) {
+            return null;
+        }
+        return new FactoryDescriptor.MergedFactory(ClassName.get(factory), first, limit);
+    }
+
+    /**
+     * Get the factory methods of a factory generated for another module,
+     * to forward to from this module's factory.
+     *
+     * @param factory the compiled factory
+     * @return the methods to forward
+     */
+    public List<FactoryDescriptor.ForwardedMethod> mergeableMethods(final TypeElement factory) {
+        final List<FactoryDescriptor.ForwardedMethod> methods = new ArrayList<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(factory.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PUBLIC)
+                && method.getModifiers().contains(Modifier.STATIC)
+                && !FactoryInterfaceGenerator.REGISTRY_METHODS.contains(method.getSimpleName().toString())) {
+                methods.add(this.describeForwarded(method));
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Get the signature of a factory method, which must be unique within
+     * a factory.
+     *
+     * <p>As in Java, methods with the same name and the same erasures of
+     * their parameter types have the same signature.</p>
+     *
+     * @param name the method name
+     * @param parameters the method parameters
+     * @return the signature
+     */
+    public static String signature(final String name, final List<ParameterSpec> parameters) {
+        final StringBuilder signature = new StringBuilder(name).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                signature.append(", ");
+            }
+            signature.append(FactoryInterfaceGenerator.erasure(parameters.get(i).type()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private static TypeName erasure(final TypeName type) {
+        if (type instanceof ParameterizedTypeName parameterized) {
+            return parameterized.rawType().withoutAnnotations();
+        } else if (type instanceof TypeVariableName variable) {
+            return variable.bounds().isEmpty() ? TypeName.OBJECT : FactoryInterfaceGenerator.erasure(variable.bounds().get(0));
+        } else if (type instanceof ArrayTypeName array) {
+            return ArrayTypeName.of(FactoryInterfaceGenerator.erasure(array.componentType()));
+        }
+        return type.withoutAnnotations();
+    }
+
+    /**
+     * Create a compact index of the property model of every event in a
+     * factory.
+     *
+     * <p>The index can be merged with the indexes of other modules at
+     * runtime, without access to the event sources. It is line based:</p>
+     *
+     * <pre>
+     * factory &lt;factory class&gt;
+     * event &lt;event binary name&gt; &lt;impl binary name&gt; &lt;factory method&gt; &lt;id&gt;
+     * property &lt;name&gt; &lt;erased type&gt; required|optional
+     * </pre>
+     *
+     * <p>Each {@code event} line is followed by the properties of that
+     * event, in constructor order.</p>
+     *
+     * @param name the factory class name
+     * @param events all events of the factory
+     * @return the index contents
+     */
+    public String createIndex(final String name, final Collection<FactoryDescriptor> events) {
+        final StringBuilder index = new StringBuilder(FactoryInterfaceGenerator.INDEX_HEADER).append('\n')
+            .append("factory ").append(name).append('\n');
+        for (final FactoryDescriptor event : events) {
+            index.append("event ")
+                .append(event.binaryName()).append(' ')
+                .append(event.implClass().reflectionName()).append(' ')
+                .append(event.methodName()).append(' ')
+                .append(event.eventId()).append('\n');
+            for (final FactoryDescriptor.PropertyDescriptor property : event.properties()) {
+                index.append("property ")
+                    .append(property.name()).append(' ')
+                    .append(property.erasure()).append(' ')
+                    .append(property.required() ? "required" : "optional").append('\n');
+            }
+        }
+        return index.toString();
+    }
+
+    /**
+     * Create a factory fragment holding only the factory methods of a single
+     * event, for {@link org.spongepowered.eventimplgen.processor.FactoryMode#ISOLATING}
+     * processing.
+     *
+     * <p>The fragment originates only from the event itself, so that
+     * changing one event regenerates exactly one fragment.</p>
+     *
+     * @param event the event
+     * @param forwardedMethods forwarded methods, of which only those declared by the event are included
+     * @return the fragment
+     */
+    public JavaFile createFragment(final FactoryDescriptor event, final List<FactoryDescriptor.ForwardedMethod> forwardedMethods) {
+        final ClassName name = this.fragmentName(event);
+        final TypeSpec.Builder fragment = this.factoryClass(name);
+        final List<Element> origins = event.resolveOrigins(this.elements);
+        if (!origins.isEmpty()) {
+            fragment.addOriginatingElement(origins.get(0));
+        }
+        fragment.addMethods(event.factoryMethods());
+
+        for (final FactoryDescriptor.ForwardedMethod forwardedMethod : forwardedMethods) {
+            if (forwardedMethod.owner().equals(event.eventClass())) {
+                fragment.addMethod(this.generateForwardingMethod(forwardedMethod));
+            }
+        }
+
+        return JavaFile.builder(name.packageName(), fragment.build())
+            .indent("    ")
+            .build();
+    }
+
+    /**
+     * Get the name of the factory fragment for an event.
+     *
+     * @param event the event
+     * @return the fragment name
+     */
+    public ClassName fragmentName(final FactoryDescriptor event) {
+        return this.classNameProvider.getClassName(event.eventClass(), FactoryInterfaceGenerator.FRAGMENT_CLASSIFIER);
+    }
+
+    /**
+     * Create the factory facade for {@link org.spongepowered.eventimplgen.processor.FactoryMode#ISOLATING}
+     * processing, resolving the fragment of an event by its name.
+     *
+     * <p>The facade doesn't depend on any event, so it is the same whichever
+     * event it originates from, and is stable as events are added or
+     * removed. Events don't have ids in this mode, so there is no
+     * registry.</p>
+     *
+     * @param name the name of the factory
+     * @param origin an event the facade is generated with
+     * @return the facade
+     */
+    public JavaFile createFacade(final String name, final Element origin) {
+        final ClassName clazz = ClassName.bestGuess(name);
+        final TypeName fragments = ParameterizedTypeName.get(ClassName.get(ClassValue.class), FactoryInterfaceGenerator.CLASS);
+        // mirrors ClassNameProvider#getClassName, from the runtime class
+        final TypeSpec lookup = TypeSpec.anonymousClassBuilder("")
+            .superclass(fragments)
+            .addMethod(MethodSpec.methodBuilder("computeValue")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(FactoryInterfaceGenerator.CLASS)
+                .addParameter(FactoryInterfaceGenerator.CLASS, "event", Modifier.FINAL)
+                .addStatement("final $T name = new $T(event.getSimpleName())", StringBuilder.class, StringBuilder.class)
+                .beginControlFlow("for ($T outer = event.getEnclosingClass(); outer != null; outer = outer.getEnclosingClass())", FactoryInterfaceGenerator.CLASS)
+                .addStatement("name.insert(0, '_').insert(0, outer.getSimpleName())")
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("return $T.forName($S + name + $S, true, $T.class.getClassLoader())",
+                    Class.class, clazz.packageName() + '.', '_' + FactoryInterfaceGenerator.FRAGMENT_CLASSIFIER, clazz)
+                .nextControlFlow("catch (final $T ex)", ClassNotFoundException.class)
+                .addStatement("return null")
+                .endControlFlow()
+                .build())
+            .build();
+
+        final TypeSpec facade = this.factoryClass(clazz)
+            .addOriginatingElement(origin)
+            .addJavadoc("The factory of events generated in isolation, each with its own fragment of factory methods.\n")
+            .addField(FieldSpec.builder(fragments, "FRAGMENTS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", lookup)
+                .build())
+            .addMethod(MethodSpec.methodBuilder("fragment")
+                .addJavadoc("Get the fragment holding the factory methods of an event.\n\n"
+                    + "@param event the event interface\n@return the fragment class\n"
+                    + "@throws $T if no fragment was generated for the event\n", IllegalArgumentException.class)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(FactoryInterfaceGenerator.CLASS)
+                .addParameter(FactoryInterfaceGenerator.CLASS, "event", Modifier.FINAL)
+                .addStatement("final $T fragment = FRAGMENTS.get(event)", FactoryInterfaceGenerator.CLASS)
+                .beginControlFlow("if (fragment == null)")
+                .addStatement("throw new $T($S + event.getName())", IllegalArgumentException.class, "No factory fragment was generated for ")
+                .endControlFlow()
+                .addStatement("return fragment")
+                .build())
+            .build();
+        return JavaFile.builder(clazz.packageName(), facade)
+            .indent("    ")
+            .build();
+    }
+
+    private TypeSpec.Builder factoryClass(final ClassName name) {
+        final AnnotationSpec.Builder generatedFactory = AnnotationSpec.builder(GeneratedFactory.class);
+        final @Nullable String version = ClassGenerator.generatorVersion();
+        if (version != null) {
+            generatedFactory.addMember("version", "$S", version);
+        }
+        return TypeSpec.classBuilder(name)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .build())
+            .addAnnotation(generatedFactory.build())
+            .addAnnotation(this.generator.generatedAnnotation());
+    }
+
+    private List<MethodSpec> generateFactoryMethods(final FactoryDescriptor event) {
+        final List<FactoryDescriptor.PropertyDescriptor> params = event.parameters();
+        final List<MethodSpec> methods = new ArrayList<>(3);
+        methods.add(this.generateRealImpl(event, params));
+        if (event.batch()) {
+            methods.add(this.generateBatchImpl(event, params));
+            methods.add(this.generateFillImpl(event, params));
+        }
+        return methods;
+    }
+
+    /**
+     * Generate the id registry, mapping the dense ids of events to their
+     * interfaces and supertypes.
+     *
+     * <p>Ids outside the range of this factory are looked up in the merged
+     * factories, whose ranges don't overlap it.</p>
+     */
+    private void generateRegistry(
+        final TypeSpec.Builder factoryClass,
+        final Collection<FactoryDescriptor> events,
+        final List<FactoryDescriptor.MergedFactory> mergedFactories
+    ) {
+        final int first = this.firstEventId;
+        // ids of removed events stay reserved, and are left empty
+        final FactoryDescriptor[] byId = new FactoryDescriptor[this.nextEventId - first];
+        for (final FactoryDescriptor event : events) {
+            final int index = event.eventId() - first;
+            if (index < 0 || index >= byId.length) {
+                throw new IllegalStateException("Event " + event.binaryName() + " was assigned id " + event.eventId() + " but is not known to the factory");
+            }
+            byId[index] = event;
+        }
+        int limit = this.nextEventId;
+        for (final FactoryDescriptor.MergedFactory merged : mergedFactories) {
+            limit = Math.max(limit, merged.eventIdLimit());
+        }
+
+        // Initialized in chunks, as a single static initializer would exceed
+        // the size limit of a method with a few thousand events
+        final CodeBlock.Builder init = CodeBlock.builder();
+        CodeBlock.Builder chunk = CodeBlock.builder();
+        int chunkSize = 0;
+        int chunks = 0;
+        for (int index = 0; index < byId.length; index++) {
+            final FactoryDescriptor event = byId[index];
+            if (event != null) {
+                chunk.addStatement("EVENT_TYPES[$L] = $T.class", index, event.eventClass());
+                final CodeBlock.Builder supertypes = CodeBlock.builder();
+                for (final ClassName supertype : event.supertypes()) {
+                    supertypes.add(supertypes.isEmpty() ? "$T.class" : ", $T.class", supertype);
+                }
+                chunk.addStatement("EVENT_SUPERTYPES[$L] = $T.of($L)", index, List.class, supertypes.build());
+                chunk.addStatement("EVENT_IDS.put($T.class, $L)", event.eventClass(), event.eventId());
+                chunk.addStatement("EVENT_IDS.put($T.class, $L)", event.implClass(), event.eventId());
+                chunkSize += FactoryInterfaceGenerator.REGISTRY_ENTRY_SIZE + event.supertypes().size();
+            }
+            if (!chunk.isEmpty() && (chunkSize >= FactoryInterfaceGenerator.REGISTRY_CHUNK_SIZE || index == byId.length - 1)) {
+                final String name = "registerEvents" + chunks++;
+                factoryClass.addMethod(MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .addCode(chunk.build())
+                    .build());
+                init.addStatement("$L()", name);
+                chunk = CodeBlock.builder();
+                chunkSize = 0;
+            }
+        }
+
+        factoryClass.addField(FieldSpec.builder(int.class, FactoryInterfaceGenerator.FIRST_EVENT_ID, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+            .addJavadoc("The first id assigned to the events of this factory.\n")
+            .initializer("$L", first)
+            .build());
+        factoryClass.addField(FieldSpec.builder(int.class, FactoryInterfaceGenerator.EVENT_ID_LIMIT, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+            .addJavadoc("All ids of the events of this factory and of the factories it merges are below this.\n")
+            .initializer("$L", limit)
+            .build());
+        factoryClass.addField(FieldSpec.builder(ArrayTypeName.of(FactoryInterfaceGenerator.CLASS), "EVENT_TYPES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer("new $T<?>[$L]", Class.class, byId.length)
+            .build());
+        factoryClass.addField(FieldSpec.builder(ArrayTypeName.of(FactoryInterfaceGenerator.CLASS_LIST), "EVENT_SUPERTYPES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "{$S, $S}", "rawtypes", "unchecked").build())
+            .initializer("new $T[$L]", List.class, byId.length)
+            .build());
+        factoryClass.addField(FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(Map.class), FactoryInterfaceGenerator.CLASS, ClassName.get(Integer.class)),
+                "EVENT_IDS",
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL
+            )
+            .initializer("new $T<>($L)", HashMap.class, byId.length * 4 / 3 * 2 + 1)
+            .build());
+        factoryClass.addStaticBlock(init.build());
+
+        // merged factories look up the factories they merge themselves
+        final CodeBlock.Builder mergedType = CodeBlock.builder();
+        final CodeBlock.Builder mergedSupertypes = CodeBlock.builder();
+        final CodeBlock.Builder mergedId = CodeBlock.builder();
+        for (final FactoryDescriptor.MergedFactory merged : mergedFactories) {
+            mergedType.addStatement("type = $T.eventType(id)", merged.name())
+                .beginControlFlow("if (type != null)")
+                .addStatement("return type")
+                .endControlFlow();
+            mergedSupertypes.beginControlFlow("if ($T.eventType(id) != null)", merged.name())
+                .addStatement("return $T.eventSupertypes(id)", merged.name())
+                .endControlFlow();
+            mergedId.addStatement("id = $T.eventId(type)", merged.name())
+                .beginControlFlow("if (id != -1)")
+                .addStatement("return id")
+                .endControlFlow();
+        }
+
+        factoryClass.addMethod(MethodSpec.methodBuilder("eventCount")
+            .addJavadoc("Get the number of event ids assigned by this factory, starting at {@link #$L}.\n\n"
+                + "<p>Ids of removed events are not reused, so some of these ids may not belong to an event.</p>\n\n"
+                + "@return the number of ids\n", FactoryInterfaceGenerator.FIRST_EVENT_ID)
             .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-            .returns(TypeName.get(targetMethod.getReturnType()));
+            .returns(int.class)
+            .addStatement("return EVENT_TYPES.length")
+            .build());
+        factoryClass.addMethod(MethodSpec.methodBuilder("eventType")
+            .addJavadoc("Get the event interface with the given id, of this factory or a factory it merges.\n\n"
+                + "@param id the event id\n@return the event interface, or {@code null} if no event has the id\n")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(FactoryInterfaceGenerator.CLASS)
+            .addParameter(int.class, "id", Modifier.FINAL)
+            .beginControlFlow("if (id >= $L && id < $L + EVENT_TYPES.length)", FactoryInterfaceGenerator.FIRST_EVENT_ID, FactoryInterfaceGenerator.FIRST_EVENT_ID)
+            .addStatement("return EVENT_TYPES[id - $L]", FactoryInterfaceGenerator.FIRST_EVENT_ID)
+            .endControlFlow()
+            .addCode(mergedFactories.isEmpty() ? CodeBlock.of("") : CodeBlock.builder()
+                .addStatement("$T type", FactoryInterfaceGenerator.CLASS)
+                .add(mergedType.build())
+                .build())
+            .addStatement("return null")
+            .build());
+        factoryClass.addMethod(MethodSpec.methodBuilder("eventSupertypes")
+            .addJavadoc("Get every supertype of the event with the given id, nearest first.\n\n"
+                + "@param id the event id\n@return the supertypes, or an empty list if no event has the id\n")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(FactoryInterfaceGenerator.CLASS_LIST)
+            .addParameter(int.class, "id", Modifier.FINAL)
+            .beginControlFlow("if (id >= $L && id < $L + EVENT_SUPERTYPES.length && EVENT_SUPERTYPES[id - $L] != null)",
+                FactoryInterfaceGenerator.FIRST_EVENT_ID, FactoryInterfaceGenerator.FIRST_EVENT_ID, FactoryInterfaceGenerator.FIRST_EVENT_ID)
+            .addStatement("return EVENT_SUPERTYPES[id - $L]", FactoryInterfaceGenerator.FIRST_EVENT_ID)
+            .endControlFlow()
+            .addCode(mergedSupertypes.build())
+            .addStatement("return $T.of()", List.class)
+            .build());
+        factoryClass.addMethod(MethodSpec.methodBuilder("eventId")
+            .addJavadoc("Get the id of an event interface or implementation, of this factory or a factory it merges.\n\n"
+                + "<p>This is a map lookup, and is meant to be resolved once per class. The id of an event instance is read\n"
+                + "with {@link $T#generatedEventId()} instead.</p>\n\n"
+                + "@param type the event interface or implementation\n@return the event id, or {@code -1} if unknown\n", IdentifiedEvent.class)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(int.class)
+            .addParameter(FactoryInterfaceGenerator.CLASS, "type", Modifier.FINAL)
+            .addCode(mergedFactories.isEmpty() ? CodeBlock.of("return EVENT_IDS.getOrDefault(type, -1);\n") : CodeBlock.builder()
+                .addStatement("int id = EVENT_IDS.getOrDefault(type, -1)")
+                .beginControlFlow("if (id != -1)")
+                .addStatement("return id")
+                .endControlFlow()
+                .add(mergedId.build())
+                .addStatement("return -1")
+                .build())
+            .build());
+    }
 
-        for (final TypeParameterElement param : targetMethod.getTypeParameters()) {
-            spec.addTypeVariable(TypeVariableName.get((TypeVariable) param.asType()));
+    /**
+     * Collect the supertypes of an event that can be referenced from the
+     * factory, breadth-first and without duplicates.
+     */
+    private List<TypeElement> accessibleSupertypes(final TypeElement event, final String packageName) {
+        final Map<String, TypeElement> seen = new LinkedHashMap<>();
+        final Deque<TypeMirror> queue = new ArrayDeque<>(this.types.directSupertypes(event.asType()));
+        while (!queue.isEmpty()) {
+            final TypeMirror next = queue.poll();
+            if (next.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            final TypeElement element = (TypeElement) ((DeclaredType) next).asElement();
+            if (element.getQualifiedName().contentEquals("java.lang.Object")
+                || seen.putIfAbsent(element.getQualifiedName().toString(), element) != null) {
+                continue;
+            }
+            queue.addAll(this.types.directSupertypes(next));
+        }
+        seen.values().removeIf(element -> !FactoryInterfaceGenerator.isAccessibleFrom(element, packageName));
+        return List.copyOf(seen.values());
+    }
+
+    private static boolean isAccessibleFrom(final TypeElement element, final String packageName) {
+        for (Element target = element; target instanceof TypeElement; target = target.getEnclosingElement()) {
+            final Set<Modifier> modifiers = target.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !(target.getEnclosingElement() instanceof TypeElement outer && outer.getKind().isInterface())
+                && !FactoryInterfaceGenerator.packageOf(target).equals(packageName)) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private static String packageOf(Element element) {
+        while (!(element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return ((PackageElement) element).getQualifiedName().toString();
+    }
+
+    private MethodSpec generateForwardingMethod(final FactoryDescriptor.ForwardedMethod targetMethod) {
+        final MethodSpec.Builder spec = MethodSpec.methodBuilder(targetMethod.name())
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(targetMethod.returnType())
+            .addTypeVariables(targetMethod.typeVariables())
+            .addParameters(targetMethod.parameters());
 
         final StringBuilder params = new StringBuilder();
-        for (final VariableElement parameter : targetMethod.getParameters()) {
-            spec.addParameter(TypeName.get(parameter.asType()), parameter.getSimpleName().toString(), Modifier.FINAL);
+        for (final ParameterSpec parameter : targetMethod.parameters()) {
             if (params.length() > 0) {
                 params.append(", ");
             }
-            params.append(parameter.getSimpleName().toString());
+            params.append(parameter.name());
         }
 
-        final String template = targetMethod.getTypeParameters().isEmpty() ? "return $T.$L($L);" : "return $T.$L<>($L);";
-        spec.addCode(template, TypeName.get(targetMethod.getEnclosingElement().asType()), targetMethod.getSimpleName().toString(), params.toString());
+        // type arguments of generic methods are inferred from the return type
+        spec.addCode("return $T.$L($L);", targetMethod.owner(), targetMethod.name(), params.toString());
 
         return spec.build();
     }
 
-    private MethodSpec generateRealImpl(final TypeElement event, final ClassName eventName, final List<Property> params) {
-        final MethodSpec.Builder spec = MethodSpec.methodBuilder(FactoryInterfaceGenerator.generateMethodName(event))
+    private MethodSpec generateRealImpl(final FactoryDescriptor event, final List<FactoryDescriptor.PropertyDescriptor> params) {
+        final MethodSpec.Builder spec = MethodSpec.methodBuilder(event.methodName())
             .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-            .returns(TypeName.get(event.asType()));
+            .addTypeVariables(event.typeVariables())
+            .returns(event.eventType());
 
-        for (final TypeParameterElement param : event.getTypeParameters()) {
-            spec.addTypeVariable(TypeVariableName.get((TypeVariable) param.asType()));
+        final StringBuilder paramNames = new StringBuilder();
+        for (final FactoryDescriptor.PropertyDescriptor property : params) {
+            spec.addParameter(property.type(), property.name(), Modifier.FINAL);
+            if (paramNames.length() > 0) {
+                paramNames.append(", ");
+            }
+            paramNames.append(property.name());
         }
 
+        final String template = event.typeVariables().isEmpty() ? "return new $T($L);" : "return new $T<>($L);";
+        spec.addCode(template, event.implClass(), paramNames.toString());
+
+        return spec.build();
+    }
+
+    private MethodSpec generateBatchImpl(final FactoryDescriptor event, final List<FactoryDescriptor.PropertyDescriptor> params) {
+        final TypeName eventType = event.eventType();
+        final String count = FactoryInterfaceGenerator.freeName("count", params, FactoryDescriptor.PropertyDescriptor::name);
+        final String events = FactoryInterfaceGenerator.freeName("events", params, FactoryDescriptor.PropertyDescriptor::name);
+        final String i = FactoryInterfaceGenerator.freeName("i", params, FactoryDescriptor.PropertyDescriptor::name);
+        final MethodSpec.Builder spec = MethodSpec.methodBuilder(event.methodName() + "Batch")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(ArrayTypeName.of(eventType))
+            .addParameter(int.class, count, Modifier.FINAL);
+        final String paramNames = FactoryInterfaceGenerator.addColumns(spec, params, i);
+
+        return spec.addStatement("final $T[] $L = new $T[$L]", eventType, events, eventType, count)
+            .beginControlFlow("for (int $1L = 0; $1L < $2L; $1L++)", i, count)
+            .addStatement("$L[$L] = new $T($L)", events, i, event.implClass(), paramNames)
+            .endControlFlow()
+            .addStatement("return $L", events)
+            .build();
+    }
+
+    private MethodSpec generateFillImpl(final FactoryDescriptor event, final List<FactoryDescriptor.PropertyDescriptor> params) {
+        final TypeName eventType = event.eventType();
+        final ClassName eventName = event.implClass();
+        final String count = FactoryInterfaceGenerator.freeName("count", params, FactoryDescriptor.PropertyDescriptor::name);
+        final String events = FactoryInterfaceGenerator.freeName("events", params, FactoryDescriptor.PropertyDescriptor::name);
+        final String i = FactoryInterfaceGenerator.freeName("i", params, FactoryDescriptor.PropertyDescriptor::name);
+        final String existing = FactoryInterfaceGenerator.freeName("event", params, FactoryDescriptor.PropertyDescriptor::name);
+        final MethodSpec.Builder spec = MethodSpec.methodBuilder("fill" + event.methodName().substring("create".length()) + "Batch")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .addParameter(ArrayTypeName.of(eventType), events, Modifier.FINAL)
+            .addParameter(int.class, count, Modifier.FINAL);
+        final String paramNames = FactoryInterfaceGenerator.addColumns(spec, params, i);
+
+        // Instances of the generated class are re-initialized, anything else is replaced
+        return spec.beginControlFlow("for (int $1L = 0; $1L < $2L; $1L++)", i, count)
+            .addStatement("final $T $L = $L[$L]", eventType, existing, events, i)
+            .beginControlFlow("if ($L instanceof $T)", existing, eventName)
+            .addStatement("(($T) $L).$L($L)", eventName, existing, ClassGenerator.FILL, paramNames)
+            .nextControlFlow("else")
+            .addStatement("$L[$L] = new $T($L)", events, i, eventName, paramNames)
+            .endControlFlow()
+            .endControlFlow()
+            .build();
+    }
+
+    /**
+     * Add one array parameter per property, returning the arguments to pass
+     * for the element at {@code index}.
+     */
+    private static String addColumns(final MethodSpec.Builder spec, final List<FactoryDescriptor.PropertyDescriptor> params, final String index) {
         final StringBuilder paramNames = new StringBuilder();
-        for (final Property property : params) {
-            spec.addParameter(TypeName.get(property.getType()), property.getName(), Modifier.FINAL);
+        for (final FactoryDescriptor.PropertyDescriptor property : params) {
+            spec.addParameter(ArrayTypeName.of(property.type()), property.name(), Modifier.FINAL);
             if (paramNames.length() > 0) {
                 paramNames.append(", ");
             }
-            paramNames.append(property.getName());
+            paramNames.append(property.name()).append('[').append(index).append(']');
         }
+        return paramNames.toString();
+    }
 
-        final String template = event.getTypeParameters().isEmpty() ? "return new $T($L);" : "return new $T<>($L);";
-        spec.addCode(template, eventName, paramNames.toString());
+    /**
+     * Pick a local name that does not clash with any property.
+     */
+    static String freeName(final String name, final List<Property> params) {
+        return FactoryInterfaceGenerator.freeName(name, params, Property::getName);
+    }
 
-        return spec.build();
+    private static <T> String freeName(final String name, final List<T> params, final Function<T, String> nameOf) {
+        String candidate = name;
+        for (int i = 0; i < params.size(); i++) {
+            if (nameOf.apply(params.get(i)).equals(candidate)) {
+                candidate = "_" + candidate;
+                i = -1; // start over
+            }
+        }
+        return candidate;
     }
 
     public static String generateMethodName(TypeElement event) {
@@ -0,0 +1,308 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import com.palantir.javapoet.AnnotationSpec;
+import com.palantir.javapoet.ArrayTypeName;
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.ParameterizedTypeName;
+import com.palantir.javapoet.TypeName;
+import com.palantir.javapoet.TypeSpec;
+import com.palantir.javapoet.WildcardTypeName;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates column stores and flyweight views for read-only events.
+ */
+@Singleton
+public class FlyweightGenerator {
+
+    private static final AnnotationSpec UNCHECKED = AnnotationSpec.builder(SuppressWarnings.class)
+        .addMember("value", "$S", "unchecked")
+        .build();
+    private static final String STORE = "store";
+    private static final String INDEX = "index";
+
+    private final ClassGenerator generator;
+    private final ClassNameProvider classNameProvider;
+    private final ClassContext.Factory classContextFactory;
+    private final Types types;
+    private final Elements elements;
+    private final Messager messager;
+    private final AnnotationIndex annotationIndex;
+
+    @Inject
+    FlyweightGenerator(
+        final ClassGenerator generator,
+        final ClassNameProvider classNameProvider,
+        final ClassContext.Factory classContextFactory,
+        final Types types,
+        final Elements elements,
+        final Messager messager,
+        final AnnotationIndex annotationIndex
+    ) {
+        this.generator = generator;
+        this.classNameProvider = classNameProvider;
+        this.classContextFactory = classContextFactory;
+        this.types = types;
+        this.elements = elements;
+        this.messager = messager;
+        this.annotationIndex = annotationIndex;
+    }
+
+    /**
+     * Create the column store and view classes for an event.
+     *
+     * @param type The event interface
+     * @param parentType The base class the event's implementation extends
+     * @param data Properties of the event
+     * @param plugins The plugins taking part in implementation generation
+     * @return the store and view, or {@code null} if an error was reported
+     */
+    public @Nullable List<JavaFile> createClasses(
+        final TypeElement type,
+        final DeclaredType parentType,
+        final EventData data,
+        final List<? extends EventFactoryPlugin> plugins
+    ) {
+        if (!this.validate(type, parentType, data, plugins)) {
+            return null;
+        }
+
+        final ClassName storeName = this.classNameProvider.getClassName(type, "Columns");
+        final ClassName viewName = this.classNameProvider.getClassName(type, "View");
+        final List<Property> columns = data.plan().parameters();
+
+        return List.of(
+            this.file(storeName, this.createStore(type, storeName, viewName, columns), type, data),
+            this.file(viewName, this.createView(type, storeName, viewName, data.properties()), type, data)
+        );
+    }
+
+    private boolean validate(
+        final TypeElement type,
+        final DeclaredType parentType,
+        final EventData data,
+        final List<? extends EventFactoryPlugin> plugins
+    ) {
+        boolean success = true;
+        if (!type.getTypeParameters().isEmpty()) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Flyweight views are not supported for generic events", type);
+            success = false;
+        }
+        if (!((TypeElement) parentType.asElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Flyweight views are not supported for events implemented by a base class", type);
+            success = false;
+        }
+        for (final Property property : data.properties()) {
+            if (property.getMutator().isPresent()) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "Flyweight views can only be generated for read-only events, but the property '"
+                                                                  + property.getName() + "' has a mutator", property.getMutator().get());
+                success = false;
+            }
+            for (final EventFactoryPlugin plugin : plugins) {
+                if (plugin.mayContribute(type, property, this.annotationIndex)) {
+                    this.messager.printMessage(Diagnostic.Kind.ERROR, "Flyweight views can't be generated for properties handled by plugins",
+                        property.getAccessor());
+                    success = false;
+                }
+            }
+        }
+        return success;
+    }
+
+    private JavaFile file(final ClassName name, final TypeSpec.Builder builder, final TypeElement type, final EventData data) {
+        builder.addOriginatingElement(type)
+            .addAnnotation(this.generator.generatedEventAnnotation(ClassName.get(type)))
+            .addAnnotation(this.generator.generatedAnnotation());
+        data.extraOrigins().forEach(builder::addOriginatingElement);
+        return JavaFile.builder(name.packageName(), builder.build())
+            .indent("    ")
+            .build();
+    }
+
+    private TypeSpec.Builder createStore(final TypeElement type, final ClassName storeName, final ClassName viewName, final List<Property> columns) {
+        final TypeName eventType = TypeName.get(type.asType());
+        final String size = FactoryInterfaceGenerator.freeName("size", columns);
+        final TypeSpec.Builder store = TypeSpec.classBuilder(storeName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc("A column store of {@link $T} events.\n", eventType)
+            .addField(int.class, size, Modifier.PRIVATE);
+
+        final MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(int.class, "capacity", Modifier.FINAL);
+        final MethodSpec.Builder grow = MethodSpec.methodBuilder("grow")
+            .addModifiers(Modifier.PRIVATE)
+            .addStatement("final int capacity = $T.max(8, this.$L * 2)", Math.class, size);
+        final MethodSpec.Builder clear = MethodSpec.methodBuilder("clear")
+            .addJavadoc("Remove all events, releasing references held by the store.\n")
+            .addModifiers(Modifier.PUBLIC);
+        final MethodSpec.Builder add = MethodSpec.methodBuilder("add")
+            .addJavadoc("Append an event to the store.\n\n@return the index of the event\n")
+            .addModifiers(Modifier.PUBLIC)
+            .returns(int.class);
+        final CodeBlock.Builder assignments = CodeBlock.builder();
+
+        for (final Property property : columns) {
+            final String name = property.getName();
+            final TypeName column = ArrayTypeName.of(TypeName.get(this.types.erasure(property.getType())));
+            // Columns are read directly by the view
+            store.addField(column, name);
+            constructor.addStatement("this.$L = new $T[capacity]", name, TypeName.get(this.types.erasure(property.getType())));
+            grow.addStatement("this.$1L = $2T.copyOf(this.$1L, capacity)", name, Arrays.class);
+            if (!property.getType().getKind().isPrimitive()) {
+                clear.addStatement("$T.fill(this.$L, 0, this.$L, null)", Arrays.class, name, size);
+            }
+
+            add.addParameter(TypeName.get(property.getType()), name, Modifier.FINAL);
+            if (this.generator.requiresNullCheck(property)) {
+                assignments.addStatement(
+                    "this.$1L[this.$2L] = $3T.requireNonNull($1L, $4S)",
+                    name,
+                    size,
+                    Objects.class,
+                    ClassGenerator.missingPropertyMessage(property)
+                );
+            } else {
+                assignments.addStatement("this.$1L[this.$2L] = $1L", name, size);
+            }
+        }
+        clear.addStatement("this.$L = 0", size);
+
+        if (!columns.isEmpty()) {
+            add.beginControlFlow("if (this.$L == this.$L.length)", size, columns.get(0).getName())
+                .addStatement("this.grow()")
+                .endControlFlow();
+            store.addMethod(grow.build());
+        }
+        add.addCode(assignments.build())
+            .addStatement("return this.$L++", size);
+
+        return store.addMethod(constructor.build())
+            .addMethod(MethodSpec.methodBuilder("size")
+                .addJavadoc("Get the number of events in the store.\n\n@return the number of events\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(int.class)
+                .addStatement("return this.$L", size)
+                .build())
+            .addMethod(add.build())
+            .addMethod(clear.build())
+            .addMethod(MethodSpec.methodBuilder("get")
+                .addJavadoc("Get a view of a single event.\n\n@param index the index of the event\n@return a new view of the event\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(eventType)
+                .addParameter(int.class, FlyweightGenerator.INDEX, Modifier.FINAL)
+                .beginControlFlow("if ($1L < 0 || $1L >= this.$2L)", FlyweightGenerator.INDEX, size)
+                .addStatement("throw new $T($S + $L)", IndexOutOfBoundsException.class, "Index out of range: ", FlyweightGenerator.INDEX)
+                .endControlFlow()
+                .addStatement("return new $T(this, $L)", viewName, FlyweightGenerator.INDEX)
+                .build())
+            .addMethod(MethodSpec.methodBuilder("forEach")
+                .addJavadoc("Pass every event in the store to an action, in order.\n\n"
+                    + "<p>The same view is moved between events, so it must not be retained by the action.</p>\n\n"
+                    + "@param action the action\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(eventType)), "action", Modifier.FINAL)
+                .addStatement("final $1T view = new $1T(this, 0)", viewName)
+                .beginControlFlow("for (int i = 0; i < this.$L; i++)", size)
+                .addStatement("view.$L = i", FlyweightGenerator.INDEX)
+                .addStatement("action.accept(view)")
+                .endControlFlow()
+                .build());
+    }
+
+    private TypeSpec.Builder createView(final TypeElement type, final ClassName storeName, final ClassName viewName, final List<Property> properties) {
+        final TypeSpec.Builder view = TypeSpec.classBuilder(viewName)
+            .addModifiers(Modifier.FINAL)
+            .addSuperinterface(TypeName.get(type.asType()))
+            .addField(storeName, FlyweightGenerator.STORE, Modifier.PRIVATE, Modifier.FINAL)
+            .addField(int.class, FlyweightGenerator.INDEX)
+            .addMethod(MethodSpec.constructorBuilder()
+                .addParameter(storeName, FlyweightGenerator.STORE, Modifier.FINAL)
+                .addParameter(int.class, FlyweightGenerator.INDEX, Modifier.FINAL)
+                .addStatement("this.$1L = $1L", FlyweightGenerator.STORE)
+                .addStatement("this.$1L = $1L", FlyweightGenerator.INDEX)
+                .build());
+
+        final DeclaredType object = (DeclaredType) this.elements.getTypeElement("java.lang.Object").asType();
+        final ClassContext ctx = this.classContextFactory.create(view);
+        ctx.initializeToString(type);
+        for (final Property property : properties) {
+            ctx.contributeToString(object, property);
+            if (!ClassGenerator.generateMethods(property) || !property.isMostSpecificType(this.types)) {
+                continue; // the compiler generates bridges for less specific accessors
+            }
+
+            final MethodSpec.Builder accessor = MethodSpec.methodBuilder(property.getAccessor().getSimpleName().toString())
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.get(property.getType()));
+            if (ClassGenerator.isRequired(property)) {
+                final boolean erased = !this.types.isSameType(property.getType(), this.types.erasure(property.getType()));
+                if (erased) {
+                    accessor.addAnnotation(FlyweightGenerator.UNCHECKED);
+                }
+                accessor.addStatement(
+                    erased ? "return ($4T) this.$1L.$2L[this.$3L]" : "return this.$1L.$2L[this.$3L]",
+                    FlyweightGenerator.STORE,
+                    property.getName(),
+                    FlyweightGenerator.INDEX,
+                    TypeName.get(property.getType())
+                );
+            } else {
+                // not a column, always the default value
+                final TypeKind kind = property.getType().getKind();
+                accessor.addStatement("return $L", kind == TypeKind.BOOLEAN ? "false" : kind.isPrimitive() ? "0" : "null");
+            }
+            view.addMethod(accessor.build());
+        }
+        ctx.finalizeToString(type);
+        return view;
+    }
+
+}
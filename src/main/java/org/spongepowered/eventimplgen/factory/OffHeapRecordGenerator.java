@@ -0,0 +1,341 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.FieldSpec;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.TypeName;
+import com.palantir.javapoet.TypeSpec;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+import org.spongepowered.eventimplgen.processor.PreviewFeatures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates {@code MemorySegment}-backed records for events made only of
+ * primitive properties.
+ *
+ * <p>The Foreign Function &amp; Memory API is only referred to by name, since
+ * it is a preview API in the Java version the processor is built for.</p>
+ */
+@Singleton
+public class OffHeapRecordGenerator {
+
+    private static final String FOREIGN = "java.lang.foreign";
+    private static final ClassName MEMORY_SEGMENT = ClassName.get(OffHeapRecordGenerator.FOREIGN, "MemorySegment");
+    private static final ClassName MEMORY_LAYOUT = ClassName.get(OffHeapRecordGenerator.FOREIGN, "MemoryLayout");
+    private static final ClassName STRUCT_LAYOUT = ClassName.get(OffHeapRecordGenerator.FOREIGN, "StructLayout");
+    private static final ClassName VALUE_LAYOUT = ClassName.get(OffHeapRecordGenerator.FOREIGN, "ValueLayout");
+    private static final ClassName PATH_ELEMENT = OffHeapRecordGenerator.MEMORY_LAYOUT.nestedClass("PathElement");
+    private static final String LAYOUT = "LAYOUT";
+    private static final String SEGMENT = "segment";
+    // The FFM API was finalized in Java 22, adding a base offset coordinate to layout var handles
+    private static final int FINAL_RELEASE = 22;
+
+    private final ClassGenerator generator;
+    private final ClassNameProvider classNameProvider;
+    private final ClassContext.Factory classContextFactory;
+    private final Types types;
+    private final Elements elements;
+    private final Messager messager;
+    private final AnnotationIndex annotationIndex;
+    private final boolean previewFeatures;
+    private final int release;
+
+    @Inject
+    OffHeapRecordGenerator(
+        final ClassGenerator generator,
+        final ClassNameProvider classNameProvider,
+        final ClassContext.Factory classContextFactory,
+        final Types types,
+        final Elements elements,
+        final Messager messager,
+        final AnnotationIndex annotationIndex,
+        @PreviewFeatures final boolean previewFeatures,
+        final SourceVersion sourceVersion
+    ) {
+        this.generator = generator;
+        this.classNameProvider = classNameProvider;
+        this.classContextFactory = classContextFactory;
+        this.types = types;
+        this.elements = elements;
+        this.messager = messager;
+        this.annotationIndex = annotationIndex;
+        this.previewFeatures = previewFeatures;
+        this.release = sourceVersion.ordinal();
+    }
+
+    /**
+     * Create the record class for an event.
+     *
+     * @param type The event interface
+     * @param parentType The base class the event's implementation extends
+     * @param data Properties of the event
+     * @param plugins The plugins taking part in implementation generation
+     * @return the record class, or {@code null} if an error was reported
+     */
+    public @Nullable JavaFile createClass(
+        final TypeElement type,
+        final DeclaredType parentType,
+        final EventData data,
+        final List<? extends EventFactoryPlugin> plugins
+    ) {
+        if (!this.validate(type, parentType, data, plugins)) {
+            return null;
+        }
+
+        // One value per property, largest first so every member is naturally aligned
+        final Map<String, Property> stored = new LinkedHashMap<>();
+        for (final Property property : data.properties()) {
+            if (property.isMostSpecificType(this.types) && (ClassGenerator.isRequired(property) || ClassGenerator.generateMethods(property))) {
+                stored.putIfAbsent(property.getName(), property);
+            }
+        }
+        final List<Property> members = new ArrayList<>(stored.values());
+        members.sort(Comparator.comparingInt((Property property) -> OffHeapRecordGenerator.byteSize(property.getType().getKind())).reversed()
+            .thenComparing(Property::getName));
+
+        final ClassName name = this.classNameProvider.getClassName(type, "Record");
+        final TypeSpec.Builder record = TypeSpec.classBuilder(name)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(TypeName.get(type.asType()))
+            .addOriginatingElement(type)
+            .addAnnotation(this.generator.generatedEventAnnotation(ClassName.get(type)))
+            .addAnnotation(this.generator.generatedAnnotation())
+            .addJavadoc("An implementation of {@link $T} backed by a memory segment.\n\n"
+                + "<p>Segments must be aligned to {@code LAYOUT.byteAlignment()}.</p>\n", ClassName.get(type));
+        data.extraOrigins().forEach(record::addOriginatingElement);
+
+        record.addField(FieldSpec.builder(OffHeapRecordGenerator.STRUCT_LAYOUT, OffHeapRecordGenerator.LAYOUT, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+            .addJavadoc("The layout of a single event.\n")
+            .initializer(this.layout(type, members))
+            .build());
+        for (final Property property : members) {
+            record.addField(FieldSpec.builder(VarHandle.class, OffHeapRecordGenerator.handleName(property), Modifier.STATIC, Modifier.FINAL)
+                .initializer(this.handle(property))
+                .build());
+        }
+
+        record.addField(OffHeapRecordGenerator.MEMORY_SEGMENT, OffHeapRecordGenerator.SEGMENT, Modifier.PRIVATE, Modifier.FINAL)
+            .addMethod(MethodSpec.constructorBuilder()
+                .addJavadoc("Create a view of the event stored in a segment.\n\n@param segment a segment of at least {@link #LAYOUT}'s size\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(OffHeapRecordGenerator.MEMORY_SEGMENT, OffHeapRecordGenerator.SEGMENT, Modifier.FINAL)
+                .addStatement("this.$1L = $1L", OffHeapRecordGenerator.SEGMENT)
+                .build())
+            .addMethod(MethodSpec.methodBuilder("at")
+                .addJavadoc("Get a view of an event in a buffer of consecutive events.\n\n"
+                    + "@param buffer the buffer\n@param index the index of the event in the buffer\n@return a view of the event\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(name)
+                .addParameter(OffHeapRecordGenerator.MEMORY_SEGMENT, "buffer", Modifier.FINAL)
+                .addParameter(long.class, "index", Modifier.FINAL)
+                .addStatement("return new $T(buffer.asSlice(index * $L.byteSize(), $L))", name, OffHeapRecordGenerator.LAYOUT, OffHeapRecordGenerator.LAYOUT)
+                .build())
+            .addMethod(this.write(data.plan().parameters(), members));
+
+        final DeclaredType object = (DeclaredType) this.elements.getTypeElement("java.lang.Object").asType();
+        final ClassContext ctx = this.classContextFactory.create(record);
+        ctx.initializeToString(type);
+        for (final Property property : data.properties()) {
+            ctx.contributeToString(object, property);
+            if (!ClassGenerator.generateMethods(property) || !property.isMostSpecificType(this.types)) {
+                continue;
+            }
+            record.addMethod(MethodSpec.methodBuilder(property.getAccessor().getSimpleName().toString())
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.get(property.getType()))
+                .addStatement("return ($T) $L.get(this.$L)", TypeName.get(property.getType()), OffHeapRecordGenerator.handleName(property), OffHeapRecordGenerator.SEGMENT)
+                .build());
+            if (property.getMutator().isPresent()) {
+                final ExecutableElement mutator = property.getMutator().get();
+                record.addMethod(MethodSpec.methodBuilder(mutator.getSimpleName().toString())
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(TypeName.get(mutator.getParameters().get(0).asType()), property.getName(), Modifier.FINAL)
+                    .addStatement("$L.set(this.$L, $L)", OffHeapRecordGenerator.handleName(property), OffHeapRecordGenerator.SEGMENT, property.getName())
+                    .build());
+            }
+        }
+        ctx.finalizeToString(type);
+
+        return JavaFile.builder(name.packageName(), record.build())
+            .indent("    ")
+            .build();
+    }
+
+    private boolean validate(
+        final TypeElement type,
+        final DeclaredType parentType,
+        final EventData data,
+        final List<? extends EventFactoryPlugin> plugins
+    ) {
+        if (this.release < OffHeapRecordGenerator.FINAL_RELEASE && !this.previewFeatures) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Off-heap records use the Foreign Function & Memory API, which requires "
+                                                              + "--enable-preview when compiling for Java " + this.release, type);
+            return false;
+        }
+
+        boolean success = true;
+        if (!type.getTypeParameters().isEmpty()) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Off-heap records are not supported for generic events", type);
+            success = false;
+        }
+        if (!((TypeElement) parentType.asElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Off-heap records are not supported for events implemented by a base class", type);
+            success = false;
+        }
+        for (final Property property : data.properties()) {
+            if (!property.getType().getKind().isPrimitive()) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "Off-heap records can only hold primitive properties, but the property '"
+                                                                  + property.getName() + "' is a " + property.getType(), property.getAccessor());
+                success = false;
+            }
+            for (final EventFactoryPlugin plugin : plugins) {
+                if (plugin.mayContribute(type, property, this.annotationIndex)) {
+                    this.messager.printMessage(Diagnostic.Kind.ERROR, "Off-heap records can't be generated for properties handled by plugins",
+                        property.getAccessor());
+                    success = false;
+                }
+            }
+        }
+        return success;
+    }
+
+    private CodeBlock layout(final TypeElement type, final List<Property> members) {
+        final CodeBlock.Builder layout = CodeBlock.builder()
+            .add("$T.structLayout($>$>", OffHeapRecordGenerator.MEMORY_LAYOUT);
+        long size = 0;
+        int alignment = 1;
+        for (int i = 0; i < members.size(); i++) {
+            final Property property = members.get(i);
+            final TypeKind kind = property.getType().getKind();
+            layout.add(i == 0 ? "\n$T.$L.withName($S)" : ",\n$T.$L.withName($S)",
+                OffHeapRecordGenerator.VALUE_LAYOUT, "JAVA_" + kind.name(), property.getName());
+            size += OffHeapRecordGenerator.byteSize(kind);
+            alignment = Math.max(alignment, OffHeapRecordGenerator.byteSize(kind));
+        }
+        // pad to the alignment of the largest member, so events can be laid out consecutively
+        final long padding = (alignment - size % alignment) % alignment;
+        if (padding != 0) {
+            layout.add(",\n$T.paddingLayout($L)", OffHeapRecordGenerator.MEMORY_LAYOUT, padding);
+        }
+        return layout.add("$<$<\n).withName($S)", type.getSimpleName()).build();
+    }
+
+    private CodeBlock handle(final Property property) {
+        final CodeBlock handle = CodeBlock.of(
+            "$L.varHandle($T.groupElement($S))",
+            OffHeapRecordGenerator.LAYOUT,
+            OffHeapRecordGenerator.PATH_ELEMENT,
+            property.getName()
+        );
+        if (this.release < OffHeapRecordGenerator.FINAL_RELEASE) {
+            return handle;
+        }
+        // bind the base offset, so handles take only a segment
+        return CodeBlock.of("$T.insertCoordinates($L, 1, 0L)", MethodHandles.class, handle);
+    }
+
+    private MethodSpec write(final List<Property> parameters, final List<Property> members) {
+        final String segment = FactoryInterfaceGenerator.freeName(OffHeapRecordGenerator.SEGMENT, parameters);
+        final MethodSpec.Builder write = MethodSpec.methodBuilder("write")
+            .addJavadoc("Write a new event to a segment, as if created by the event factory.\n\n@param $L the segment to write to\n", segment)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .addParameter(OffHeapRecordGenerator.MEMORY_SEGMENT, segment, Modifier.FINAL);
+        final Set<String> written = new HashSet<>();
+        for (final Property property : parameters) {
+            write.addParameter(TypeName.get(property.getType()), property.getName(), Modifier.FINAL)
+                .addStatement("$L.set($L, $L)", OffHeapRecordGenerator.handleName(property), segment, property.getName());
+            written.add(property.getName());
+        }
+        // everything else starts out with its default value
+        for (final Property property : members) {
+            if (!written.contains(property.getName())) {
+                final TypeKind kind = property.getType().getKind();
+                write.addStatement(
+                    "$L.set($L, $L)",
+                    OffHeapRecordGenerator.handleName(property),
+                    segment,
+                    kind == TypeKind.BOOLEAN ? "false" : "(" + kind.name().toLowerCase(Locale.ROOT) + ") 0"
+                );
+            }
+        }
+        return write.build();
+    }
+
+    private static String handleName(final Property property) {
+        final String name = property.getName();
+        final StringBuilder handle = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                handle.append('_');
+            }
+            handle.append(Character.toUpperCase(c));
+        }
+        return handle.append("_HANDLE").toString();
+    }
+
+    private static int byteSize(final TypeKind kind) {
+        return switch (kind) {
+            case BOOLEAN, BYTE -> 1;
+            case SHORT, CHAR -> 2;
+            case INT, FLOAT -> 4;
+            case LONG, DOUBLE -> 8;
+            default -> throw new IllegalArgumentException("Not a primitive: " + kind);
+        };
+    }
+
+}
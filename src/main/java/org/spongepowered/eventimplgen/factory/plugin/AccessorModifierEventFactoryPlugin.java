@@ -24,20 +24,28 @@
  */
 package org.spongepowered.eventimplgen.factory.plugin;
 
+import com.palantir.javapoet.CodeBlock;
 import com.palantir.javapoet.MethodSpec;
 import com.palantir.javapoet.TypeName;
 import org.spongepowered.eventgen.annotations.TransformResult;
 import org.spongepowered.eventgen.annotations.TransformWith;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.eventgencore.Property;
 import org.spongepowered.eventimplgen.factory.ClassContext;
 
-import java.util.Objects;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.processing.Messager;
 import javax.inject.Inject;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -50,57 +58,153 @@ public class AccessorModifierEventFactoryPlugin implements EventFactoryPlugin {
 
     private final Types types;
     private final Messager messager;
+    private final AnnotationIndex annotationIndex;
+    // qualified name -> @TransformWith methods of the type and its supertypes
+    private final Map<String, TransformIndex> transformers = new HashMap<>();
 
     @Inject
-    AccessorModifierEventFactoryPlugin(final Types types, final Messager messager) {
+    AccessorModifierEventFactoryPlugin(final Types types, final Messager messager, final AnnotationIndex annotationIndex) {
         this.types = types;
         this.messager = messager;
+        this.annotationIndex = annotationIndex;
     }
 
     private MethodPair getLinkedField(final Property property) {
-        final ExecutableElement leastSpecificMethod = property.getLeastSpecificMethod();
-        final TransformResult transformResult;
-        ExecutableElement transformWith = null;
-        String name = null;
-
-        if ((transformResult = leastSpecificMethod.getAnnotation(TransformResult.class)) != null) {
-            name = transformResult.value();
-            // Since we that the modifier method (the one annotated with TransformWith) doesn't
-            // use covariant types, we can call getMethods on the more specific version,
-            // allowing the annotation to be present on a method defined there, as well as in
-            // the least specific type.
-            for (final ExecutableElement method : ElementFilter.methodsIn(this.types.asElement(property.getAccessor().getReturnType()).getEnclosedElements())) {
-                final TransformWith annotation = method.getAnnotation(TransformWith.class);
-                if (annotation != null && Objects.equals(annotation.value(), name)) {
-                    if (transformWith != null) {
-                        this.messager.printMessage(Diagnostic.Kind.ERROR, "Multiple @TransformResult annotations were found with the name "
-                                + name + ". One of them needs to be changed!", method);
-                        return MethodPair.FAILED;
-                    }
-                    transformWith = method;
-                }
+        final TransformResult transformResult = this.annotationIndex.find(property.getLeastSpecificMethod(), TransformResult.class);
+        if (transformResult == null) {
+            return null;
+        }
+
+        final String name = transformResult.value();
+        // Since we that the modifier method (the one annotated with TransformWith) doesn't
+        // use covariant types, we can search the more specific version,
+        // allowing the annotation to be present on a method defined there, as well as in
+        // the least specific type.
+        final Element returnType = this.types.asElement(property.getAccessor().getReturnType());
+        final TransformIndex index = returnType instanceof TypeElement type ? this.index(type) : TransformIndex.EMPTY;
+        if (index.conflicts().contains(name)) {
+            return MethodPair.FAILED; // already reported for the type
+        }
+
+        final ExecutableElement transformWith = index.methods().get(name);
+        if (transformWith == null) {
+            this.messager.printMessage(Diagnostic.Kind.ERROR, "Unable to locate a matching @TransformWith annotation with the name "
+                    + name + " for this method", property.getAccessor());
+            return MethodPair.FAILED;
+        }
+        return new MethodPair(name, transformWith, property);
+    }
+
+    /**
+     * Get the {@link TransformWith} methods available on a type, indexing
+     * the type and its supertypes on first use.
+     *
+     * <p>Methods declared on a type hide those of its supertypes with the
+     * same name. Conflicts are reported once, when the type declaring them
+     * is indexed.</p>
+     */
+    private TransformIndex index(final TypeElement type) {
+        final String key = type.getQualifiedName().toString();
+        final TransformIndex existing = this.transformers.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Map<String, ExecutableElement> methods = new HashMap<>();
+        final Set<String> conflicts = new HashSet<>();
+
+        // Declared methods
+        final Map<String, ExecutableElement> declared = new HashMap<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            final TransformWith annotation = this.annotationIndex.find(method, TransformWith.class);
+            if (annotation == null) {
+                continue;
             }
-            if (transformWith == null) {
-                this.messager.printMessage(Diagnostic.Kind.ERROR, "Unable to locate a matching @TransformWith annotation with the name "
-                        + name + " for this method", property.getAccessor());
-                return MethodPair.FAILED;
+            final ExecutableElement previous = declared.putIfAbsent(annotation.value(), method);
+            if (previous != null && conflicts.add(annotation.value())) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "Multiple @TransformWith annotations were found with the name "
+                        + annotation.value() + ". One of them needs to be changed!", method);
             }
         }
 
-        if (transformWith != null) {
-            return new MethodPair(name, transformWith, property);
+        // Inherited methods, unless hidden by a declared one
+        for (final TypeMirror supertype : this.types.directSupertypes(type.asType())) {
+            final TransformIndex inherited = this.index((TypeElement) this.types.asElement(supertype));
+            for (final Map.Entry<String, ExecutableElement> method : inherited.methods().entrySet()) {
+                if (declared.containsKey(method.getKey())) {
+                    continue;
+                }
+                final ExecutableElement previous = methods.putIfAbsent(method.getKey(), method.getValue());
+                if (previous != null && !previous.equals(method.getValue()) && conflicts.add(method.getKey())) {
+                    this.messager.printMessage(Diagnostic.Kind.ERROR, "Multiple @TransformWith annotations were inherited with the name "
+                            + method.getKey() + ". Declare it on this type to resolve the conflict.", type);
+                }
+            }
+            for (final String conflict : inherited.conflicts()) {
+                if (!declared.containsKey(conflict)) {
+                    conflicts.add(conflict);
+                }
+            }
         }
-        return null;
+        methods.putAll(declared);
+        methods.keySet().removeAll(conflicts);
+
+        final TransformIndex index = new TransformIndex(Map.copyOf(methods), Set.copyOf(conflicts));
+        this.transformers.put(key, index);
+        return index;
     }
 
     private void generateTransformingAccessor(final ClassContext cw, final MethodPair pair, final Property property) {
         final ExecutableElement accessor = property.getAccessor();
         final ExecutableElement transformerMethod = pair.getTransformerMethod();
-        cw.addMethod(MethodSpec.methodBuilder(accessor.getSimpleName().toString())
+        final TypeName returnType = TypeName.get(property.getType());
+        final MethodSpec.Builder method = MethodSpec.methodBuilder(accessor.getSimpleName().toString())
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation(Override.class)
-            .returns(TypeName.get(property.getType()))
-            .addStatement("return this.$L(this.$L)", transformerMethod.getSimpleName().toString(), property.getName()));
+            .returns(returnType);
+
+        // @TransformWith methods may return Object for compatibility with generics
+        final CodeBlock transform = CodeBlock.of("($T) this.$L.$L()", returnType, property.getName(), transformerMethod.getSimpleName().toString());
+        if (!this.isMemoized(property)) {
+            cw.addMethod(method.addStatement("return $L", transform));
+            return;
+        }
+
+        final String cache = AccessorModifierEventFactoryPlugin.cacheName(property);
+        if (property.isLeastSpecificType(this.types)) {
+            cw.addField(property.getLeastSpecificType(), cache, Modifier.PRIVATE);
+        }
+        final TypeName cacheType = TypeName.get(property.getLeastSpecificType());
+        method.addStatement("$T transformed = this.$L", cacheType, cache)
+            .beginControlFlow("if (transformed == null)")
+            .addStatement("transformed = $L", transform)
+            .addStatement("this.$L = transformed", cache)
+            .endControlFlow();
+        if (property.isLeastSpecificType(this.types)) {
+            method.addStatement("return transformed");
+        } else {
+            method.addStatement("return ($T) transformed", returnType);
+        }
+        cw.addMethod(method);
+    }
+
+    private boolean isMemoized(final Property property) {
+        final TransformResult transformResult = this.annotationIndex.find(property.getLeastSpecificMethod(), TransformResult.class);
+        return transformResult != null && transformResult.memoize();
+    }
+
+    private static String cacheName(final Property property) {
+        return property.getName() + "$transformed";
+    }
+
+    @Override
+    public Set<Class<? extends Annotation>> propertyAnnotations() {
+        return Set.of(TransformResult.class);
+    }
+
+    @Override
+    public boolean mayContribute(final TypeElement eventClass, final Property property, final AnnotationIndex annotations) {
+        return annotations.isPresent(property.getLeastSpecificMethod(), TransformResult.class);
     }
 
     @Override
@@ -114,7 +218,14 @@ public Result contributeProperty(final TypeElement eventClass, final ClassContex
 
         classWriter.addField(property);
         if (property.getMutator().isPresent()) {
-            classWriter.addMutator(eventClass, property.getName(), property);
+            classWriter.addMutator(
+                eventClass,
+                property.getName(),
+                property,
+                this.isMemoized(property)
+                    ? CodeBlock.builder().addStatement("this.$L = null", AccessorModifierEventFactoryPlugin.cacheName(property)).build()
+                    : CodeBlock.builder().build()
+            );
         }
 
         this.generateTransformingAccessor(classWriter, methodPair, property);
@@ -122,6 +233,12 @@ public Result contributeProperty(final TypeElement eventClass, final ClassContex
         return Result.SUCCESSS;
     }
 
+    record TransformIndex(Map<String, ExecutableElement> methods, Set<String> conflicts) {
+
+        static final TransformIndex EMPTY = new TransformIndex(Map.of(), Set.of());
+
+    }
+
     static final class MethodPair {
 
         static final MethodPair FAILED = new MethodPair("error", null, null);
@@ -24,16 +24,134 @@
  */
 package org.spongepowered.eventimplgen.factory.plugin;
 
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.eventgencore.Property;
 import org.spongepowered.eventimplgen.factory.ClassContext;
 
+import java.lang.annotation.Annotation;
+import java.util.Comparator;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.TypeElement;
 
 /**
  * Represents a class which modifies the behavior of an event generator.
+ *
+ * <p>For every event, plugins are called in {@link #order()}: first
+ * {@link #beforeClass(TypeElement, ClassContext)}, then
+ * {@link #contributeProperty(TypeElement, ClassContext, Property)} for each
+ * property they {@link #mayContribute(TypeElement, Property, AnnotationIndex) may contribute}
+ * to, and finally {@link #afterClass(TypeElement, ClassContext)}.</p>
+ *
+ * <p>Besides the built-in plugins, implementations listed in
+ * {@code META-INF/services} on the processor path are discovered with a
+ * {@link java.util.ServiceLoader}. These must have a public no-argument
+ * constructor, and receive the processing environment through
+ * {@link #init(ProcessingEnvironment)}.</p>
  */
 public interface EventFactoryPlugin {
 
+    /**
+     * Orders plugins by {@link #order()}, then by class name.
+     */
+    Comparator<EventFactoryPlugin> ORDER = Comparator.comparingInt(EventFactoryPlugin::order)
+        .thenComparing(plugin -> plugin.getClass().getName());
+
+    /**
+     * Initialize a plugin discovered through a {@link java.util.ServiceLoader}.
+     *
+     * <p>This is called once per compilation, before any event is
+     * generated.</p>
+     *
+     * @param environment the processing environment
+     */
+    default void init(final ProcessingEnvironment environment) {
+    }
+
+    /**
+     * Get an identifier for this plugin, recorded in the events it
+     * contributes to.
+     *
+     * @return the plugin identifier
+     */
+    default String id() {
+        return this.getClass().getName();
+    }
+
+    /**
+     * Get the version of this plugin, recorded in the events it
+     * contributes to.
+     *
+     * <p>By default, this is the implementation version of the plugin's
+     * package.</p>
+     *
+     * @return the version, or {@code null} if unknown
+     */
+    default @Nullable String version() {
+        return this.getClass().getPackage().getImplementationVersion();
+    }
+
+    /**
+     * Get the position of this plugin relative to other plugins.
+     *
+     * <p>Plugins with a lower order are called first, and get the first
+     * chance to claim each property.</p>
+     *
+     * @return the order of this plugin
+     */
+    default int order() {
+        return 0;
+    }
+
+    /**
+     * Get the annotations marking properties this plugin is interested in.
+     *
+     * <p>If not empty, the plugin will only be offered properties with one
+     * of these annotations on one of their accessors. These annotations are
+     * tracked by the {@link AnnotationIndex}.</p>
+     *
+     * @return the annotation types, or an empty set to be offered every property
+     */
+    default Set<Class<? extends Annotation>> propertyAnnotations() {
+        return Set.of();
+    }
+
+    /**
+     * Called before any properties of an event are processed.
+     *
+     * @param eventClass The {@link Class} of the event an implementation is being generated for
+     * @param classWriter The {@link ClassContext} holding information about the implementation class
+     * @return the result, where {@link Result#FAILURE} suppresses writing the class
+     */
+    default Result beforeClass(final TypeElement eventClass, final ClassContext classWriter) {
+        return Result.IGNORE;
+    }
+
+    /**
+     * Called after every property of an event has been processed.
+     *
+     * @param eventClass The {@link Class} of the event an implementation is being generated for
+     * @param classWriter The {@link ClassContext} holding information about the implementation class
+     * @return the result, where {@link Result#FAILURE} suppresses writing the class
+     */
+    default Result afterClass(final TypeElement eventClass, final ClassContext classWriter) {
+        return Result.IGNORE;
+    }
+
+    /**
+     * Get whether this plugin may contribute to the class of an event
+     * through {@link #beforeClass(TypeElement, ClassContext)} or
+     * {@link #afterClass(TypeElement, ClassContext)}.
+     *
+     * @param eventClass The {@link Class} of the event an implementation is being generated for
+     * @return whether the class hooks may generate anything
+     */
+    default boolean mayContributeToClass(final TypeElement eventClass) {
+        return false;
+    }
+
     /**
      * Called to allow a plugin to override the generation of the field and method(s) for a {@link Property}.
      *
@@ -50,6 +168,39 @@ public interface EventFactoryPlugin {
      */
     Result contributeProperty(TypeElement eventClass, ClassContext classWriter, Property property);
 
+    /**
+     * Get whether this plugin may claim the provided {@link Property}, without
+     * generating anything.
+     *
+     * <p>This is used to skip plugins for properties they don't apply to, and
+     * to decide whether an event can be generated without consulting plugins
+     * at all. Plugins should only return {@code false} when
+     * {@link #contributeProperty(TypeElement, ClassContext, Property)} would
+     * return {@link Result#IGNORE} for the same property.</p>
+     *
+     * <p>By default, this tests for the plugin's
+     * {@link #propertyAnnotations()}.</p>
+     *
+     * @param eventClass The {@link Class} of the event an implementation is being generated for
+     * @param property The {@link Property} being tested
+     * @param annotations The index to look up tracked annotations with
+     * @return whether this plugin may contribute to the property
+     */
+    default boolean mayContribute(final TypeElement eventClass, final Property property, final AnnotationIndex annotations) {
+        final Set<Class<? extends Annotation>> marks = this.propertyAnnotations();
+        if (marks.isEmpty()) {
+            return true;
+        }
+        for (final Class<? extends Annotation> annotation : marks) {
+            if (annotations.isPresent(property.getAccessor(), annotation)
+                || annotations.isPresent(property.getLeastSpecificMethod(), annotation)
+                || annotations.isPresent(property.getMostSpecificMethod(), annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     enum Result {
         /**
          * Claim the property, having successfully processed it.
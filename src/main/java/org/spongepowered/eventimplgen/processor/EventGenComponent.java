@@ -35,5 +35,6 @@ public interface EventGenComponent {
   EventGenOptions options();
   EventScanner scanner();
   EventImplWriter writer(); // must be preserved between rounds
+  ProcessorMetrics metrics();
 
 }
@@ -32,15 +32,15 @@
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.tools.Diagnostic;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Singleton
 public class EventGenOptions {
@@ -51,8 +51,8 @@ public class EventGenOptions {
 
   public static final String SORT_PRIORITY_PREFIX = "sortPriorityPrefix"; // default: original
   public static final String GROUPING_PREFIXES = "groupingPrefixes"; // <a>:<b>[,<a>:<b>]* default: from:to
-  public static final String INCLUSIVE_FOLDERS = "eventGenInclusiveFolders"; // default: empty, comma separated list of folders to include
-  public static final String EXCLUSIVE_FOLDERS = "eventGenExclusiveFolders"; // default: empty, comma separated list of folders to exclude
+  public static final String INCLUSIVE_FOLDERS = "eventGenInclusiveFolders"; // default: empty, comma separated list of folders to include, a trailing /** includes subfolders
+  public static final String EXCLUSIVE_FOLDERS = "eventGenExclusiveFolders"; // default: empty, comma separated list of folders to exclude, a trailing /** excludes subfolders
 
   // these two take fully qualified names to annotations that should include or exclude a certain element from implementation generation
   public static final String INCLUSIVE_ANNOTATIONS = "inclusiveAnnotations"; // default: GenerateFactoryMethod
@@ -60,11 +60,22 @@ public class EventGenOptions {
 
   public static final String DEBUG = "eventGenDebug"; // default: false, whether to print debug logging
 
-  private boolean validated;
-  private boolean valid = true;
+  public static final String IMPL_OUTPUT = "eventGenImplOutput"; // default: source, one of source or class
+
+  public static final String FACTORY_MODE = "eventGenFactoryMode"; // default: aggregating, one of aggregating or isolating
+
+  public static final String MERGE_FACTORIES = "eventGenMergeFactories"; // default: empty, comma separated list of factories from other modules to forward to
+
+  public static final String FIRST_EVENT_ID = "eventGenFirstEventId"; // default: after the ids of merged factories, the first id assigned to this factory's events
+
+  public static final String SKIP_UNCHANGED = "eventGenSkipUnchanged"; // default: false, whether to keep generated files identical to the previous build
+
+  public static final String METRICS = "eventGenMetrics"; // default: false, whether to report throughput metrics of the processor
 
   private final Messager messager;
   private final Map<String, String> options;
+  private @Nullable Snapshot snapshot;
+  private boolean validated;
 
   @Inject
   EventGenOptions(@ProcessorOptions final Map<String, String> options, final Messager messager) {
@@ -73,45 +84,144 @@ public class EventGenOptions {
   }
 
   public String generatedEventFactory() {
-    return Objects.requireNonNull(this.options.get(EventGenOptions.GENERATED_EVENT_FACTORY), "invalid state, factory name not provided");
+    return Objects.requireNonNull(this.snapshot().generatedEventFactory(), "invalid state, factory name not provided");
+  }
+
+  public PackageFilter inclusivePackages() {
+    return this.snapshot().inclusivePackages();
   }
 
-  public Set<String> inclusivePackages() {
-    final var rawInclusiveFolders = this.options.get(EventGenOptions.INCLUSIVE_FOLDERS);
-    if (rawInclusiveFolders == null) {
-      return Collections.emptySet();
+  public PackageFilter exclusivePackages() {
+    return this.snapshot().exclusivePackages();
+  }
+
+  public String sortPriorityPrefix() {
+    return this.snapshot().sortPriorityPrefix();
+  }
+
+  public Map<String, String> groupingPrefixes() {
+    return this.snapshot().groupingPrefixes();
+  }
+
+  public Set<String> inclusiveAnnotations() {
+    return this.snapshot().inclusiveAnnotations();
+  }
+
+  public Set<String> exclusiveAnnotations() {
+    return this.snapshot().exclusiveAnnotations();
+  }
+
+  public boolean debug() {
+    return this.snapshot().debug();
+  }
+
+  public ImplOutput implOutput() {
+    final @Nullable ImplOutput output = this.snapshot().implOutput();
+    if (output == null) {
+      throw new IllegalArgumentException("Unknown " + EventGenOptions.IMPL_OUTPUT + " '" + this.options.get(EventGenOptions.IMPL_OUTPUT) + "'");
     }
-    final var folders = rawInclusiveFolders.split(",");
-    return Arrays.stream(folders).map(s -> s.replace("/", ".")).collect(Collectors.toUnmodifiableSet());
+    return output;
   }
 
-  public Set<String> exclusivePackages() {
-    final var rawExclusiveFolders = this.options.get(EventGenOptions.EXCLUSIVE_FOLDERS);
-    if (rawExclusiveFolders == null) {
-      return Collections.emptySet();
+  public FactoryMode factoryMode() {
+    final @Nullable FactoryMode mode = this.snapshot().factoryMode();
+    if (mode == null) {
+      throw new IllegalArgumentException("Unknown " + EventGenOptions.FACTORY_MODE + " '" + this.options.get(EventGenOptions.FACTORY_MODE) + "'");
     }
-    final var folders = rawExclusiveFolders.split(",");
-    return Arrays.stream(folders).map(s -> s.replace("/", ".")).collect(Collectors.toUnmodifiableSet());
+    return mode;
   }
 
-  public @Nullable String sortPriorityPrefix() {
-    return this.options.getOrDefault(EventGenOptions.SORT_PRIORITY_PREFIX, "original");
+  public List<String> mergeFactories() {
+    return this.snapshot().mergeFactories();
   }
 
-  public Map<String, String> groupingPrefixes() {
+  // -1 if not set
+  public int firstEventId() {
+    return this.snapshot().firstEventId();
+  }
+
+  public boolean skipUnchanged() {
+    return this.snapshot().skipUnchanged();
+  }
+
+  public boolean metrics() {
+    return this.snapshot().metrics();
+  }
+
+  private Snapshot snapshot() {
+    if (this.snapshot == null) {
+      this.snapshot = this.parse();
+    }
+    return this.snapshot;
+  }
+
+  private Snapshot parse() {
+    final List<String> errors = new ArrayList<>();
+    final @Nullable String factory = this.options.get(EventGenOptions.GENERATED_EVENT_FACTORY);
+    if (factory == null) {
+      errors.add("The " + EventGenOptions.GENERATED_EVENT_FACTORY + " option must be specified to generate a factory.");
+    }
+
+    @Nullable ImplOutput implOutput = null;
+    try {
+      implOutput = ImplOutput.byName(this.options.getOrDefault(EventGenOptions.IMPL_OUTPUT, "source"));
+    } catch (final IllegalArgumentException ex) {
+      errors.add("Unknown " + EventGenOptions.IMPL_OUTPUT + " '" + this.options.get(EventGenOptions.IMPL_OUTPUT) + "', expected one of: source, class");
+    }
+
+    @Nullable FactoryMode factoryMode = null;
+    try {
+      factoryMode = FactoryMode.byName(this.options.getOrDefault(EventGenOptions.FACTORY_MODE, "aggregating"));
+    } catch (final IllegalArgumentException ex) {
+      errors.add("Unknown " + EventGenOptions.FACTORY_MODE + " '" + this.options.get(EventGenOptions.FACTORY_MODE) + "', expected one of: aggregating, isolating");
+    }
+
+    int firstEventId = -1;
+    final @Nullable String firstEventIdInput = this.options.get(EventGenOptions.FIRST_EVENT_ID);
+    if (firstEventIdInput != null) {
+      try {
+        firstEventId = Integer.parseInt(firstEventIdInput.trim());
+      } catch (final NumberFormatException ex) {
+        firstEventId = -1;
+      }
+      if (firstEventId < 0) {
+        errors.add("Invalid " + EventGenOptions.FIRST_EVENT_ID + " '" + firstEventIdInput + "', expected a non-negative integer");
+      }
+    }
+
+    return new Snapshot(
+        factory,
+        PackageFilter.parse(this.commaSeparatedList(EventGenOptions.INCLUSIVE_FOLDERS)),
+        PackageFilter.parse(this.commaSeparatedList(EventGenOptions.EXCLUSIVE_FOLDERS)),
+        this.options.getOrDefault(EventGenOptions.SORT_PRIORITY_PREFIX, "original"),
+        this.parseGroupingPrefixes(),
+        this.commaSeparatedSet(EventGenOptions.INCLUSIVE_ANNOTATIONS, GenerateFactoryMethod.class.getCanonicalName()),
+        this.commaSeparatedSet(EventGenOptions.EXCLUSIVE_ANNOTATIONS, NoFactoryMethod.class.getCanonicalName()),
+        Boolean.parseBoolean(this.options.getOrDefault(EventGenOptions.DEBUG, "false")),
+        implOutput,
+        factoryMode,
+        this.commaSeparatedList(EventGenOptions.MERGE_FACTORIES),
+        firstEventId,
+        Boolean.parseBoolean(this.options.getOrDefault(EventGenOptions.SKIP_UNCHANGED, "false")),
+        Boolean.parseBoolean(this.options.getOrDefault(EventGenOptions.METRICS, "false")),
+        List.copyOf(errors)
+    );
+  }
+
+  private Map<String, String> parseGroupingPrefixes() {
     final @Nullable String input = this.options.get(EventGenOptions.GROUPING_PREFIXES);
     if (input == null || input.isEmpty()) {
       return Collections.singletonMap("from", "to");
     }
 
-    final Map<String, String> prefixes = new HashMap<>();
+    final Map<String, String> prefixes = new LinkedHashMap<>();
     for (final String pair : EventGenOptions.COMMA_SPLIT.split(input, -1)) {
       if (pair.isEmpty()) {
         continue;
       }
 
       final String[] values = EventGenOptions.COLON_SPLIT.split(pair, 2);
-      if (values.length != 2) {
+      if (values.length != 2 || values[0].isEmpty()) {
         this.messager.printMessage(
             Diagnostic.Kind.WARNING,
             String.format(
@@ -119,22 +229,26 @@ public Map<String, String> groupingPrefixes() {
                 pair
             )
         );
-        prefixes.put(values[0], values[1]);
+        continue;
       }
+      prefixes.put(values[0], values[1]);
     }
     return Collections.unmodifiableMap(prefixes);
   }
 
-  public Set<String> inclusiveAnnotations() {
-    return this.commaSeparatedSet(EventGenOptions.INCLUSIVE_ANNOTATIONS, GenerateFactoryMethod.class.getCanonicalName());
-  }
-
-  public Set<String> exclusiveAnnotations() {
-    return this.commaSeparatedSet(EventGenOptions.EXCLUSIVE_ANNOTATIONS, NoFactoryMethod.class.getCanonicalName());
-  }
-
-  public boolean debug() {
-    return Boolean.parseBoolean(this.options.getOrDefault(EventGenOptions.DEBUG, "false"));
+  private List<String> commaSeparatedList(final String key) {
+    final @Nullable String input = this.options.get(key);
+    if (input == null || input.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<String> values = new ArrayList<>();
+    for (final String value : EventGenOptions.COMMA_SPLIT.split(input, -1)) {
+      final String trimmed = value.trim();
+      if (!trimmed.isEmpty()) {
+        values.add(trimmed);
+      }
+    }
+    return List.copyOf(values);
   }
 
   private Set<String> commaSeparatedSet(final String key, final String defaultValue) {
@@ -142,31 +256,48 @@ private Set<String> commaSeparatedSet(final String key, final String defaultValu
     if (input == null) {
       return Collections.singleton(defaultValue);
     }
-    return new HashSet<>(Arrays.asList(EventGenOptions.COMMA_SPLIT.split(input, -1)));
+    return Set.copyOf(Arrays.asList(EventGenOptions.COMMA_SPLIT.split(input, -1)));
   }
 
   /**
    * Ensure all options are accurate, and return `false` to skip processing if
    * any issues are detected.
    *
-   * <p>This option can safely be called multiple times without printing
-   * extraneous error messages.</p>
+   * <p>Options are parsed once, and this can safely be called multiple
+   * times without printing extraneous error messages.</p>
    *
    * @return whether all options are valid
    */
   public boolean validate() {
-    if (this.validated) {
-      return this.valid;
-    }
-
-    boolean valid = true;
-    if (!this.options.containsKey(EventGenOptions.GENERATED_EVENT_FACTORY)) {
-      this.messager.printMessage(Diagnostic.Kind.ERROR, "[event-impl-gen]: The " + EventGenOptions.GENERATED_EVENT_FACTORY + " option must be specified to generate a factory.");
-      valid = false;
+    final Snapshot snapshot = this.snapshot();
+    if (!this.validated) {
+      for (final String error : snapshot.errors()) {
+        this.messager.printMessage(Diagnostic.Kind.ERROR, "[event-impl-gen]: " + error);
+      }
+      this.validated = true;
     }
+    return snapshot.errors().isEmpty();
+  }
 
-    this.valid = valid;
-    this.validated = true;
-    return valid;
+  /**
+   * The parsed values of all options.
+   */
+  private record Snapshot(
+      @Nullable String generatedEventFactory,
+      PackageFilter inclusivePackages,
+      PackageFilter exclusivePackages,
+      String sortPriorityPrefix,
+      Map<String, String> groupingPrefixes,
+      Set<String> inclusiveAnnotations,
+      Set<String> exclusiveAnnotations,
+      boolean debug,
+      @Nullable ImplOutput implOutput,
+      @Nullable FactoryMode factoryMode,
+      List<String> mergeFactories,
+      int firstEventId,
+      boolean skipUnchanged,
+      boolean metrics,
+      List<String> errors
+  ) {
   }
 }
@@ -27,13 +27,27 @@
 import dagger.Binds;
 import dagger.Module;
 import dagger.Provides;
+import dagger.multibindings.ElementsIntoSet;
 import dagger.multibindings.IntoSet;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.eventgencore.AccessorFirstStrategy;
+import org.spongepowered.eventimplgen.eventgencore.NamingConvention;
 import org.spongepowered.eventimplgen.eventgencore.PropertySearchStrategy;
 import org.spongepowered.eventimplgen.factory.plugin.AccessorModifierEventFactoryPlugin;
 import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.inject.Singleton;
+import javax.tools.Diagnostic;
 
 /**
  * Bindings specifically for the event implementation generator.
@@ -45,10 +59,64 @@ public interface EventImplGenModule {
     @Singleton
     @IntoSet EventFactoryPlugin bindAccessModifierPlugin(final AccessorModifierEventFactoryPlugin strategy);
 
+    @Provides
+    @Singleton
+    @ElementsIntoSet
+    static Set<EventFactoryPlugin> loadExternalPlugins(final ProcessingEnvironment environment, final Messager messager) {
+        final Set<EventFactoryPlugin> plugins = EventImplGenModule.loadServices(EventFactoryPlugin.class, "an event factory plugin", messager);
+        for (final EventFactoryPlugin plugin : plugins) {
+            plugin.init(environment);
+        }
+        return plugins;
+    }
+
+    @Provides
+    @Singleton
+    static List<EventFactoryPlugin> orderPlugins(final Set<EventFactoryPlugin> plugins, final AnnotationIndex annotationIndex) {
+        final List<EventFactoryPlugin> ordered = new ArrayList<>(plugins);
+        ordered.sort(EventFactoryPlugin.ORDER);
+        for (final EventFactoryPlugin plugin : ordered) {
+            annotationIndex.track(plugin.propertyAnnotations());
+        }
+        return List.copyOf(ordered);
+    }
+
+    @Provides
+    @Singleton
+    @ElementsIntoSet
+    static Set<NamingConvention> loadNamingConventions(final Messager messager) {
+        final Set<NamingConvention> conventions = new HashSet<>(NamingConvention.STANDARD);
+        conventions.addAll(EventImplGenModule.loadServices(NamingConvention.class, "a naming convention", messager));
+        return conventions;
+    }
+
     @Provides
     @Singleton
     static PropertySearchStrategy bindPropertySearchStrategy(final AccessorFirstStrategy.Factory accessorFirst) {
         return accessorFirst.create(true);
     }
 
+    /**
+     * Load the providers of a service from the processor path.
+     *
+     * <p>A broken provider is reported as an error, rather than failing the
+     * whole compilation with an exception.</p>
+     */
+    private static <T> Set<T> loadServices(final Class<T> service, final String description, final Messager messager) {
+        final Set<T> providers = new HashSet<>();
+        final Iterator<T> iterator = ServiceLoader.load(service, service.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    return providers;
+                }
+                providers.add(iterator.next());
+            } catch (final ServiceConfigurationError ex) {
+                // the iterator moves on to the next provider
+                messager.printMessage(Diagnostic.Kind.ERROR, "[event-impl-gen]: Unable to load " + description + ": " + ex.getMessage()
+                    + (ex.getCause() == null ? "" : " (" + ex.getCause() + ")"));
+            }
+        }
+    }
+
 }
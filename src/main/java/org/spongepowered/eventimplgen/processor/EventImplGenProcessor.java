@@ -39,6 +39,7 @@
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -54,13 +55,22 @@
     EventGenOptions.INCLUSIVE_ANNOTATIONS,
     EventGenOptions.EXCLUSIVE_ANNOTATIONS,
     EventGenOptions.DEBUG,
+    EventGenOptions.IMPL_OUTPUT,
+    EventGenOptions.FACTORY_MODE,
+    EventGenOptions.MERGE_FACTORIES,
+    EventGenOptions.FIRST_EVENT_ID,
+    EventGenOptions.SKIP_UNCHANGED,
+    EventGenOptions.METRICS,
 })
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 @SupportedAnnotationTypes({
     "org.spongepowered.eventgen.annotations.AbsoluteSortPosition",
+    "org.spongepowered.eventgen.annotations.BatchFactoryMethod",
     "org.spongepowered.eventgen.annotations.DefaultImplemented",
+    "org.spongepowered.eventgen.annotations.FlyweightView",
     "org.spongepowered.eventgen.annotations.GenerateFactoryMethod",
     "org.spongepowered.eventgen.annotations.NoFactoryMethod",
+    "org.spongepowered.eventgen.annotations.OffHeapRecord",
     "org.spongepowered.eventgen.annotations.PropertySettings",
     "org.spongepowered.eventgen.annotations.ToStringExclude",
     "org.spongepowered.eventgen.annotations.TransformResult",
@@ -70,6 +80,10 @@
 })
 public class EventImplGenProcessor extends AbstractProcessor {
 
+    // Gradle's incremental processing category, declared as dynamic in our metadata
+    private static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+    private static final String GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
+
     public EventImplGenProcessor() {
     }
 
@@ -92,33 +106,88 @@ public synchronized void init(final ProcessingEnvironment processingEnv) {
             .build();
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        final Set<String> options = new HashSet<>(super.getSupportedOptions());
+        FactoryMode mode = FactoryMode.AGGREGATING;
+        if (this.component != null) {
+            try {
+                mode = this.component.options().factoryMode();
+            } catch (final IllegalArgumentException ex) {
+                // reported when validating options
+            }
+        }
+        options.add(mode == FactoryMode.ISOLATING ? EventImplGenProcessor.GRADLE_ISOLATING : EventImplGenProcessor.GRADLE_AGGREGATING);
+        return options;
+    }
+
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (this.component == null) {
+            return false; // processing is already over
+        }
         if (!this.component.options().validate()) {
+            this.releaseIfOver(roundEnv);
             return false;
         }
 
         final EventScanner scanner = this.component.scanner();
         final EventImplWriter writer = this.component.writer();
+        final ProcessorMetrics metrics = this.component.metrics();
+        metrics.startRound();
 
+        long start = metrics.start();
         if (!scanner.scanRound(roundEnv, writer, annotations)) {
             writer.skipRound();
         }
+        metrics.end(ProcessorMetrics.Phase.SCAN, start);
 
         try {
+            start = metrics.start();
             writer.dumpRound(roundEnv.getRootElements());
+            metrics.end(ProcessorMetrics.Phase.GENERATE, start);
             // If this is the last round, then let's do the actual generation
             if (roundEnv.processingOver()) {
+               start = metrics.start();
                writer.dumpFinal();
+               metrics.end(ProcessorMetrics.Phase.FACTORY, start);
+            }
+            metrics.endRound();
+            if (roundEnv.processingOver()) {
+                metrics.report();
+                writer.finish();
             }
         } catch (final IOException ex) {
             this.processingEnv.getMessager()
                 .printMessage(Diagnostic.Kind.ERROR, "Failed to write class information due to an exception: " + ex.getMessage());
             ex.printStackTrace();
+        } finally {
+            this.releaseIfOver(roundEnv);
         }
 
         // Never claim annotations -- that way we don't block other processors from visiting them if they want to
         return false;
     }
 
+    /**
+     * Get whether the state of the last compilation has been released.
+     *
+     * @return whether processing is over
+     */
+    boolean released() {
+        return this.component == null;
+    }
+
+    /**
+     * Drop all state of this compilation after the last round, so a
+     * processor instance kept alive by a compiler daemon retains nothing
+     * from it.
+     */
+    private void releaseIfOver(final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.component.writer().reset();
+            this.component = null;
+        }
+    }
+
 }
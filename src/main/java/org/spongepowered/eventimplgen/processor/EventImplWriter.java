@@ -26,17 +26,26 @@
 
 import com.palantir.javapoet.ClassName;
 import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
 import org.jetbrains.annotations.Nullable;
-import org.spongepowered.eventimplgen.AnnotationUtils;
+import org.spongepowered.eventgen.annotations.FlyweightView;
+import org.spongepowered.eventgen.annotations.OffHeapRecord;
+import org.spongepowered.eventgen.annotations.internal.GeneratedFactory;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.BaseClassCache;
 import org.spongepowered.eventimplgen.eventgencore.Property;
 import org.spongepowered.eventimplgen.eventgencore.PropertySorter;
+import org.spongepowered.eventimplgen.factory.ClassFileGenerator;
 import org.spongepowered.eventimplgen.factory.ClassGenerator;
 import org.spongepowered.eventimplgen.factory.EventData;
+import org.spongepowered.eventimplgen.factory.FactoryDescriptor;
 import org.spongepowered.eventimplgen.factory.FactoryInterfaceGenerator;
+import org.spongepowered.eventimplgen.factory.FlyweightGenerator;
 import org.spongepowered.eventimplgen.factory.NullPolicy;
+import org.spongepowered.eventimplgen.factory.OffHeapRecordGenerator;
 import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
 
-import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.element.Element;
@@ -44,9 +53,11 @@
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,54 +70,92 @@
 @Singleton
 public class EventImplWriter implements PropertyConsumer {
 
-    private final Filer filer;
+    // the property model of the factory's events, mergeable across modules at runtime
+    static final String INDEX = GeneratedOutput.MANIFEST_DIRECTORY + "events.index";
+
+    private final GeneratedOutput output;
     private final Elements elements;
     private final PropertySorter sorter;
-    private final Set<EventFactoryPlugin> plugins;
+    private final List<EventFactoryPlugin> plugins;
     private final String outputFactory;
     private final FactoryInterfaceGenerator factoryGenerator;
     private final ClassGenerator generator;
+    private final ClassFileGenerator classFileGenerator;
+    private final FlyweightGenerator flyweightGenerator;
+    private final OffHeapRecordGenerator offHeapRecordGenerator;
+    private final ImplOutput implOutput;
+    private final FactoryMode factoryMode;
+    private final List<String> mergeFactories;
+    private final int firstEventId;
+    private final String idIndex;
+    private final Messager messager;
+    private final BaseClassCache baseClasses;
+    private final AnnotationIndex annotationIndex;
+    private final ProcessorMetrics metrics;
 
     // Cleared on write at the end of each round
     private final Map<TypeElement, EventData> roundFoundProperties;
 
-    // All found properties, for generating the factory at the end
-    private final Map<TypeElement, EventData> allFoundProperties;
-    private final List<ExecutableElement> forwardedMethods = new ArrayList<>();
+    // Compact descriptors of all found events by binary name, for generating the factory at the end
+    private final Map<String, FactoryDescriptor> descriptors = new TreeMap<>();
+    private final List<FactoryDescriptor.ForwardedMethod> forwardedMethods = new ArrayList<>();
     private boolean failed = false;
+    private boolean idsStarted = false;
+    private boolean facadeWritten = false;
     // only write out an event factory if some classes were written
     private boolean classesWritten = false;
 
     @Inject
     EventImplWriter(
-        final Filer filer,
+        final GeneratedOutput output,
+        final Messager messager,
         final Elements elements,
         final PropertySorter sorter,
-        final Set<EventFactoryPlugin> plugins,
+        final List<EventFactoryPlugin> plugins,
         final EventGenOptions options,
         final FactoryInterfaceGenerator factoryGenerator,
-        final ClassGenerator generator
+        final ClassGenerator generator,
+        final ClassFileGenerator classFileGenerator,
+        final FlyweightGenerator flyweightGenerator,
+        final OffHeapRecordGenerator offHeapRecordGenerator,
+        final BaseClassCache baseClasses,
+        final AnnotationIndex annotationIndex,
+        final ProcessorMetrics metrics
     ) {
-        this.filer = filer;
+        this.output = output;
         this.elements = elements;
         this.sorter = sorter;
         this.plugins = plugins;
         this.roundFoundProperties = new TreeMap<>(Comparator.comparing(e -> elements.getBinaryName(e).toString()));
-        this.allFoundProperties = new TreeMap<>(Comparator.comparing(e -> elements.getBinaryName(e).toString()));
         this.outputFactory = options.generatedEventFactory();
         this.factoryGenerator = factoryGenerator;
         this.generator = generator;
+        this.classFileGenerator = classFileGenerator;
+        this.flyweightGenerator = flyweightGenerator;
+        this.offHeapRecordGenerator = offHeapRecordGenerator;
+        this.implOutput = options.implOutput();
+        this.factoryMode = options.factoryMode();
+        this.mergeFactories = options.mergeFactories();
+        this.firstEventId = options.firstEventId();
+        this.idIndex = GeneratedOutput.MANIFEST_DIRECTORY + this.outputFactory + ".ids";
+        this.messager = messager;
+        this.baseClasses = baseClasses;
+        this.annotationIndex = annotationIndex;
+        this.metrics = metrics;
     }
 
     @Override
     public void propertyFound(
         final TypeElement event, final List<Property> property, final Set<? extends Element> originating) {
-        this.roundFoundProperties.put(event, new EventData(property, originating));
+        this.roundFoundProperties.put(event, EventData.create(property, originating, this.sorter));
+        this.metrics.eventScanned(event, property.size());
     }
 
     @Override
     public void forwardedMethods(final List<? extends ExecutableElement> elements) {
-        this.forwardedMethods.addAll(elements);
+        for (final ExecutableElement element : elements) {
+            this.forwardedMethods.add(this.factoryGenerator.describeForwarded(element));
+        }
     }
 
     /**
@@ -120,8 +169,17 @@ void skipRound() {
     public void dumpRound(final Set<? extends Element> rootElements) throws IOException {
         this.generator.setNullPolicy(NullPolicy.NON_NULL_BY_DEFAULT);
         JavaFile clazz;
+        if (this.factoryMode == FactoryMode.AGGREGATING && !this.idsStarted) {
+            this.startEventIds();
+        }
         for (final TypeElement event : this.roundFoundProperties.keySet()) {
-            final ClassName name = this.generator.qualifiedName(event);
+            // Assign ids in a stable order, before anything can be skipped.
+            // Isolated events can't know about each other, so get no id.
+            final int eventId = this.factoryMode == FactoryMode.ISOLATING ? -1 : this.factoryGenerator.eventId(event);
+            final EventData data = this.roundFoundProperties.get(event);
+            final FactoryDescriptor descriptor = this.factoryGenerator.describe(event, data, eventId);
+            this.descriptors.put(descriptor.binaryName(), descriptor);
+            final ClassName name = descriptor.implClass();
             if (!rootElements.contains(EventImplGenProcessor.topLevelType(event))) { // only generate for rounds containing the appropriate root elements
                 continue;
             }
@@ -134,32 +192,237 @@ public void dumpRound(final Set<? extends Element> rootElements) throws IOExcept
             if (baseClass == null) {
                 continue; // an error occurred, don't generate
             }
-            clazz = this.generator.createClass(event, name, baseClass,
-                this.roundFoundProperties.get(event), this.sorter, this.plugins
-            );
+            if (this.annotationIndex.isPresent(event, FlyweightView.class)) {
+                final @Nullable List<JavaFile> flyweight = this.flyweightGenerator.createClasses(event, baseClass, data, this.plugins);
+                if (flyweight != null) {
+                    for (final JavaFile file : flyweight) {
+                        this.output.write(file);
+                    }
+                } else {
+                    this.failed = true;
+                }
+            }
+
+            if (this.annotationIndex.isPresent(event, OffHeapRecord.class)) {
+                final @Nullable JavaFile record = this.offHeapRecordGenerator.createClass(event, baseClass, data, this.plugins);
+                if (record != null) {
+                    this.output.write(record);
+                } else {
+                    this.failed = true;
+                }
+            }
+
+            if (this.implOutput == ImplOutput.CLASS && this.classFileGenerator.canGenerate(event, baseClass, data, this.plugins)) {
+                final byte @Nullable [] bytes = this.classFileGenerator.createClass(event, name, eventId, data);
+                if (bytes != null) {
+                    this.classesWritten = true;
+                    this.metrics.eventGenerated(this.writeClassFile(name, event, data, bytes));
+                    this.writeFragment(descriptor, event);
+                } else {
+                    this.failed = true;
+                }
+                continue;
+            }
+
+            clazz = this.generator.createClass(event, name, baseClass, eventId, data, this.plugins);
 
             if (clazz != null) {
                 this.classesWritten = true;
-                clazz.writeTo(this.filer);
+                this.metrics.eventGenerated(this.output.write(clazz));
+                this.writeFragment(descriptor, event);
             } else {
                 this.failed = true;
             }
         }
 
-        this.allFoundProperties.putAll(this.roundFoundProperties);
         this.roundFoundProperties.clear();
     }
 
     public void dumpFinal() throws IOException {
-        if (this.failed || !this.classesWritten) {
-            return;
+        final List<FactoryDescriptor.ForwardedMethod> forwarded = new ArrayList<>(this.forwardedMethods);
+        final List<FactoryDescriptor.MergedFactory> mergedFactories = new ArrayList<>();
+        if (this.factoryMode == FactoryMode.AGGREGATING && !this.idsStarted) {
+            // nothing was found this build, the factory may still merge others
+            this.startEventIds();
+        }
+        final boolean merged = this.collectMergedFactories(forwarded, mergedFactories);
+        // events are scanned in source order, so sort for reproducible output
+        forwarded.sort(FactoryDescriptor.ForwardedMethod.ORDER);
+        if (!this.failed && (this.classesWritten || merged) && this.factoryMode == FactoryMode.AGGREGATING) {
+            // factory methods were generated with each round, only assemble them here
+            final JavaFile clazz = this.factoryGenerator.createClass(this.outputFactory, this.descriptors.values(), forwarded, mergedFactories);
+            this.output.write(clazz);
+            final Element[] events = this.descriptors.values().stream()
+                .flatMap(descriptor -> descriptor.resolveOrigins(this.elements).stream().limit(1))
+                .toArray(Element[]::new);
+            this.output.write(EventImplWriter.INDEX, this.factoryGenerator.createIndex(this.outputFactory, this.descriptors.values()), events);
+            this.output.write(this.idIndex, this.factoryGenerator.createIdIndex(), events);
+        }
+    }
+
+    /**
+     * Record what was written, once everything else has been generated.
+     */
+    void finish() throws IOException {
+        this.output.finish();
+    }
+
+    /**
+     * Release everything retained between rounds, once processing is over.
+     *
+     * <p>Compiler daemons may keep the processor alive after a
+     * compilation, so nothing referencing the compiler's elements may
+     * outlive it.</p>
+     */
+    void reset() {
+        this.roundFoundProperties.clear();
+        this.descriptors.clear();
+        this.forwardedMethods.clear();
+        this.failed = false;
+        this.idsStarted = false;
+        this.facadeWritten = false;
+        this.classesWritten = false;
+        this.baseClasses.clear();
+        this.annotationIndex.clear();
+    }
+
+    /**
+     * Collect the methods of factories from other modules, to forward to.
+     *
+     * <p>A method that would clash with a method of this module's factory,
+     * or with a method of another merged factory, is reported as an
+     * error.</p>
+     *
+     * @param forwarded the list to add methods to, holding this module's forwarded methods
+     * @param mergedFactories the list to add the merged factories to
+     * @return whether any factory was merged
+     */
+    private boolean collectMergedFactories(
+        final List<FactoryDescriptor.ForwardedMethod> forwarded,
+        final List<FactoryDescriptor.MergedFactory> mergedFactories
+    ) {
+        // signature -> the factory declaring it
+        final Map<String, String> declaredBy = new HashMap<>();
+        for (final FactoryDescriptor descriptor : this.descriptors.values()) {
+            for (final MethodSpec method : descriptor.factoryMethods()) {
+                declaredBy.putIfAbsent(FactoryInterfaceGenerator.signature(method.name(), method.parameters()), this.outputFactory);
+            }
         }
-        final JavaFile clazz = this.factoryGenerator.createClass(this.outputFactory, this.allFoundProperties, this.sorter, this.forwardedMethods);
-        clazz.writeTo(this.filer);
+        for (final FactoryDescriptor.ForwardedMethod method : forwarded) {
+            declaredBy.putIfAbsent(FactoryInterfaceGenerator.signature(method.name(), method.parameters()), this.outputFactory);
+        }
+
+        boolean merged = false;
+        for (final String name : this.mergeFactories) {
+            final @Nullable TypeElement factory = this.elements.getTypeElement(name);
+            if (factory == null || !this.annotationIndex.isPresent(factory, GeneratedFactory.class)) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "[event-impl-gen]: Unable to find a generated event factory " + name + " to merge");
+                this.failed = true;
+                continue;
+            }
+            final FactoryDescriptor.@Nullable MergedFactory range = this.factoryGenerator.describeMerged(factory);
+            if (range == null) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "[event-impl-gen]: The event factory " + name + " to merge declares no event ids, "
+                    + "it was generated by an older version", factory);
+                this.failed = true;
+                continue;
+            }
+            mergedFactories.add(range);
+            for (final FactoryDescriptor.ForwardedMethod method : this.factoryGenerator.mergeableMethods(factory)) {
+                final String signature = FactoryInterfaceGenerator.signature(method.name(), method.parameters());
+                final @Nullable String existing = declaredBy.putIfAbsent(signature, name);
+                if (existing != null) {
+                    this.messager.printMessage(Diagnostic.Kind.ERROR, String.format(
+                        "[event-impl-gen]: Unable to merge %s from %s, as %s already declares the same factory method",
+                        signature,
+                        name,
+                        existing
+                    ), factory);
+                    this.failed = true;
+                    continue;
+                }
+                forwarded.add(method);
+            }
+            merged = true;
+        }
+        this.checkEventIds(mergedFactories);
+        return merged;
+    }
+
+    /**
+     * Start assigning ids after those of the merged factories, or from the
+     * configured id, keeping the ids assigned by the previous build.
+     */
+    private void startEventIds() {
+        int first = 0;
+        for (final String name : this.mergeFactories) {
+            final @Nullable TypeElement factory = this.elements.getTypeElement(name);
+            final FactoryDescriptor.@Nullable MergedFactory merged = factory == null ? null : this.factoryGenerator.describeMerged(factory);
+            if (merged != null) { // otherwise reported when merging
+                first = Math.max(first, merged.eventIdLimit());
+            }
+        }
+        if (this.firstEventId >= 0) {
+            first = this.firstEventId;
+        }
+        this.factoryGenerator.startEventIds(first, this.output.readPrevious(this.idIndex));
+        this.idsStarted = true;
+    }
+
+    /**
+     * Report factories whose event ids overlap, as a bus indexing all of
+     * their events by id couldn't tell them apart.
+     */
+    private void checkEventIds(final List<FactoryDescriptor.MergedFactory> mergedFactories) {
+        final List<FactoryDescriptor.MergedFactory> ranges = new ArrayList<>(mergedFactories);
+        if (this.factoryGenerator.nextEventId() > this.factoryGenerator.firstEventId()) {
+            ranges.add(new FactoryDescriptor.MergedFactory(
+                ClassName.bestGuess(this.outputFactory),
+                this.factoryGenerator.firstEventId(),
+                this.factoryGenerator.nextEventId()
+            ));
+        }
+        for (int i = 0; i < ranges.size(); i++) {
+            for (int j = i + 1; j < ranges.size(); j++) {
+                final FactoryDescriptor.MergedFactory a = ranges.get(i);
+                final FactoryDescriptor.MergedFactory b = ranges.get(j);
+                if (a.firstEventId() < b.eventIdLimit() && b.firstEventId() < a.eventIdLimit()) {
+                    this.messager.printMessage(Diagnostic.Kind.ERROR, String.format(
+                        "[event-impl-gen]: The event ids of %s (%d to %d) overlap those of %s (%d to %d), set %s to reserve separate ids",
+                        a.name().reflectionName(), a.firstEventId(), a.eventIdLimit() - 1,
+                        b.name().reflectionName(), b.firstEventId(), b.eventIdLimit() - 1,
+                        EventGenOptions.FIRST_EVENT_ID
+                    ));
+                    this.failed = true;
+                }
+            }
+        }
+    }
+
+    private void writeFragment(final FactoryDescriptor descriptor, final TypeElement event) throws IOException {
+        if (this.factoryMode == FactoryMode.ISOLATING) {
+            this.output.write(this.factoryGenerator.createFragment(descriptor, this.forwardedMethods));
+            if (!this.facadeWritten) {
+                // the facade is the same for every event, so any of them can originate it
+                this.output.write(this.factoryGenerator.createFacade(this.outputFactory, event));
+                this.facadeWritten = true;
+            }
+        }
+    }
+
+    private boolean writeClassFile(final ClassName name, final TypeElement event, final EventData data, final byte[] bytes) throws IOException {
+        final Element[] originating = new Element[data.extraOrigins().size() + 1];
+        originating[0] = event;
+        int i = 1;
+        for (final Element origin : data.extraOrigins()) {
+            originating[i++] = origin;
+        }
+
+        return this.output.write(name, bytes, originating);
     }
 
     private @Nullable DeclaredType getBaseClass(final TypeElement event) {
-        final var found = AnnotationUtils.getImplementedBy(event);
+        final var found = this.baseClasses.implementedBy(event);
         if (found != null) {
             return found;
         }
@@ -28,6 +28,8 @@
 import org.spongepowered.eventgen.annotations.FactoryMethod;
 import org.spongepowered.eventgen.annotations.NoFactoryMethod;
 import org.spongepowered.eventgen.annotations.internal.GeneratedEvent;
+import org.spongepowered.eventgen.annotations.internal.GeneratedFactory;
+import org.spongepowered.eventimplgen.AnnotationIndex;
 import org.spongepowered.eventimplgen.AnnotationUtils;
 import org.spongepowered.eventimplgen.eventgencore.PropertySearchStrategy;
 
@@ -53,6 +55,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -67,14 +70,17 @@ public class EventScanner {
 
     private final Set<String> inclusiveAnnotations;
     private final Set<String> exclusiveAnnotations;
+    private final AnnotationIndex annotationIndex;
+    private Set<TypeElement> inclusive = Set.of();
+    private Set<TypeElement> exclusive = Set.of();
     private final boolean debugMode;
     private final Types types;
     private final Elements elements;
     private final Messager messager;
     private final PropertySearchStrategy strategy;
     private final RootNode packages = new RootNode();
-    private final Set<String> inclusivePackages;
-    private final Set<String> exclusivePackages;
+    private final PackageFilter inclusivePackages;
+    private final PackageFilter exclusivePackages;
 
     @Inject
     EventScanner(
@@ -82,7 +88,8 @@ public class EventScanner {
         final Types types,
         final Elements elemests,
         final Messager messager,
-        final PropertySearchStrategy strategy
+        final PropertySearchStrategy strategy,
+        final AnnotationIndex annotationIndex
     ) {
         this.inclusiveAnnotations = options.inclusiveAnnotations();
         this.exclusiveAnnotations = options.exclusiveAnnotations();
@@ -93,6 +100,7 @@ public class EventScanner {
         this.elements = elemests;
         this.messager = messager;
         this.strategy = strategy;
+        this.annotationIndex = annotationIndex;
     }
 
     boolean scanRound(
@@ -100,6 +108,9 @@ boolean scanRound(
         final PropertyConsumer consumer,
         final Set<? extends TypeElement> annotations
     ) {
+        this.annotationIndex.newRound();
+        this.inclusive = this.annotationIndex.resolve(this.inclusiveAnnotations);
+        this.exclusive = this.annotationIndex.resolve(this.exclusiveAnnotations);
         if (!environment.getRootElements().isEmpty()) {
             // populate package tree
             this.packages.populate(environment);
@@ -125,8 +136,7 @@ boolean scanRound(
         }
 
         this.hydrateIncrementalPackageHierarchy(environment, annotations);
-        for (var inclusivePackage : this.inclusivePackages) {
-            var fixedPackage = inclusivePackage.replace('/', '.');
+        for (final String fixedPackage : this.inclusivePackages.packages()) {
             final PackageElement packageElement = this.elements.getPackageElement(fixedPackage);
             if (packageElement == null) {
                 this.messager.printMessage(Diagnostic.Kind.ERROR, "Unable to resolve an inclusive package " + fixedPackage);
@@ -177,6 +187,9 @@ boolean scanRound(
                         continue;
                     }
 
+                    if (!this.includesSubpackages((PackageElement) active)) {
+                        continue;
+                    }
                     node.childPackages()
                         .filter(pkg -> !this.hasExclusiveAnnotation(pkg))
                         .forEach(pkg -> elements.add(new OriginatedElement(pkg, finalPointer)));
@@ -202,7 +215,7 @@ boolean scanRound(
                     if (pointer.parent == null) {
                         extraOriginating = Collections.emptySet();
                     } else {
-                        extraOriginating = new HashSet<>();
+                        extraOriginating = new LinkedHashSet<>();
                         OriginatedElement collector = pointer.parent;
                         do {
                             extraOriginating.add(collector.element);
@@ -215,7 +228,7 @@ boolean scanRound(
                     // We will occasionally scan enums anyways
                 }
                 case CLASS -> {
-                    if (active.getAnnotation(GeneratedEvent.class) != null) {
+                    if (this.annotationIndex.isPresent(active, GeneratedEvent.class) || this.annotationIndex.isPresent(active, GeneratedFactory.class)) {
                         continue; // these implementation classes are indirectly annotated, but because we generated them we can ignore them.
                     }
                     if (active.getModifiers().contains(Modifier.ABSTRACT)) {
@@ -240,29 +253,29 @@ boolean scanRound(
     }
 
     private boolean hasExclusiveAnnotationInherited(final Element candidate, boolean inherited) {
-        final var excludedByAnnotation = AnnotationUtils.containsAnnotation(candidate, this.exclusiveAnnotations);
+        final var excludedByAnnotation = this.annotationIndex.containsAny(candidate, this.exclusive);
         if (excludedByAnnotation) {
             if (!inherited) {
                 return true;
             }
             // Basically, last ditch effort, if using the NoFactoryMethod with ignoring nested being true,
             // then we can permit the child
-            final var noFactory = AnnotationUtils.getAnnotation(candidate, NoFactoryMethod.class);
+            final var noFactory = this.annotationIndex.get(candidate, NoFactoryMethod.class);
             return noFactory == null || !AnnotationUtils.<Boolean>getValue(noFactory, "ignoreNested");
         }
         return switch (candidate.getKind()) {
             case PACKAGE -> {
-                if (AnnotationUtils.containsAnnotation(candidate, this.inclusiveAnnotations)) {
+                if (this.annotationIndex.containsAny(candidate, this.inclusive)) {
                     yield false;
                 }
 
                 final var qualifiedPackageName = ((PackageElement) candidate).getQualifiedName().toString();
 
-                // Stop Climbing the tree
-                if (this.inclusivePackages.contains(qualifiedPackageName)) {
+                // Stop Climbing the tree, entries without .** don't apply to subpackages
+                if (this.inclusivePackages.declares(qualifiedPackageName, inherited)) {
                     yield false;
                 }
-                if (this.exclusivePackages.contains(qualifiedPackageName)) {
+                if (this.exclusivePackages.declares(qualifiedPackageName, inherited)) {
                     yield true;
                 }
                 // Otherwise, find the parent in this tree
@@ -282,7 +295,7 @@ private boolean hasExclusiveAnnotationInherited(final Element candidate, boolean
             // to check for exclusions
             case CLASS, INTERFACE -> {
                 final TypeElement typeElement = (TypeElement) candidate;
-                if (AnnotationUtils.containsAnnotation(candidate, this.inclusiveAnnotations)) {
+                if (this.annotationIndex.containsAny(candidate, this.inclusive)) {
                     yield false;
                 }
 
@@ -293,6 +306,31 @@ private boolean hasExclusiveAnnotationInherited(final Element candidate, boolean
     }
 
 
+    /**
+     * Get whether the subpackages of a package are scanned with it, which
+     * isn't the case for a package only included by an entry without
+     * {@code .**}.
+     */
+    private boolean includesSubpackages(final PackageElement pkg) {
+        String packageName = pkg.getQualifiedName().toString();
+        if (!this.inclusivePackages.declares(packageName, false) || this.inclusivePackages.declares(packageName, true)) {
+            return true;
+        }
+        // unless the package is also included as part of a parent
+        @Nullable PackageElement current = pkg;
+        while (true) {
+            if (current != null && this.annotationIndex.containsAny(current, this.inclusive) || this.inclusivePackages.declares(packageName, true)) {
+                return true;
+            }
+            final int lastDot = packageName.lastIndexOf('.');
+            if (lastDot == -1) {
+                return false;
+            }
+            packageName = packageName.substring(0, lastDot);
+            current = this.elements.getPackageElement(packageName);
+        }
+    }
+
     public boolean hasExclusiveAnnotation(final Element candidate) {
        return hasExclusiveAnnotationInherited(candidate, false);
     }
@@ -300,7 +338,7 @@ public boolean hasExclusiveAnnotation(final Element candidate) {
     public boolean isNonTransitivelyExcluded(final TypeElement candidate) {
         if (!ElementFilter.typesIn(candidate.getEnclosedElements()).isEmpty()) {
             // no explicit inclusion annotation applied
-            return !AnnotationUtils.containsAnnotation(candidate, this.inclusiveAnnotations);
+            return !this.annotationIndex.containsAny(candidate, this.inclusive);
         }
         return false;
     }
@@ -318,7 +356,7 @@ private void hydrateIncrementalPackageHierarchy(final RoundEnvironment environme
             final TypeMirror object = this.elements.getTypeElement("java.lang.Object").asType();
             final Set<String> seenPackages = new HashSet<>();
             for (final Element existing : environment.getElementsAnnotatedWith(generatedEvent)) {
-                final AnnotationMirror mirror = AnnotationUtils.getAnnotation(existing, GeneratedEvent.class);
+                final AnnotationMirror mirror = this.annotationIndex.get(existing, GeneratedEvent.class);
                 final TypeMirror annotatedType = AnnotationUtils.getValue(mirror, "source");
                 if (annotatedType == null || this.types.isSameType(annotatedType, object) || annotatedType.getKind() != TypeKind.DECLARED) {
                     continue;
@@ -351,7 +389,7 @@ private void hydrateIncrementalPackageHierarchy(final RoundEnvironment environme
     private List<ExecutableElement> findForwardedMethods(final TypeElement event) {
         final List<ExecutableElement> methods = new ArrayList<>();
         for (final ExecutableElement method : ElementFilter.methodsIn(event.getEnclosedElements())) {
-            if (method.getAnnotation(FactoryMethod.class) != null) {
+            if (this.annotationIndex.isPresent(method, FactoryMethod.class)) {
                 boolean failed = false;
                 if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) {
                     this.messager.printMessage(Diagnostic.Kind.ERROR, "Methods annotated with @FactoryMethod must be public and static", method);
@@ -0,0 +1,58 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import java.util.Locale;
+
+/**
+ * Determines how factory methods for events are written.
+ */
+public enum FactoryMode {
+
+    /**
+     * Write a single factory holding the methods for every event, along
+     * with the event id registry.
+     *
+     * <p>This is the default. Changing any event regenerates the whole
+     * factory.</p>
+     */
+    AGGREGATING,
+
+    /**
+     * Write a factory fragment per event, originating only from that
+     * event, for fully isolating incremental processing.
+     *
+     * <p>The factory is a facade resolving the fragment of an event by
+     * name, so it doesn't depend on the events. Event ids are not assigned,
+     * and events don't implement {@code IdentifiedEvent}, since ids depend on
+     * every event in the compilation.</p>
+     */
+    ISOLATING;
+
+    static FactoryMode byName(final String name) {
+        return FactoryMode.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+}
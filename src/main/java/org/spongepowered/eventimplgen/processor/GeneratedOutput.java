@@ -0,0 +1,269 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.JavaFile;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes generated files, skipping those identical to the output of the
+ * previous build when {@link EventGenOptions#SKIP_UNCHANGED} is enabled.
+ *
+ * <p>A content hash of every generated file is recorded in a manifest in
+ * the class output. A file is only skipped when its hash matches the
+ * manifest and the previous output still exists, leaving its timestamp
+ * untouched for downstream tools. Sources are only skipped while their
+ * compiled class exists as well, since javac won't compile them again.</p>
+ *
+ * <p>The factory refers to every event implementation, so a skipped class
+ * must also be found on the class path of the compilation, which requires
+ * the class output to be on it. Build tools compiling incrementally do
+ * this, a plain {@code javac -d} does not, in which case nothing is
+ * skipped.</p>
+ */
+@Singleton
+public class GeneratedOutput {
+
+    static final String MANIFEST_DIRECTORY = "META-INF/event-impl-gen/";
+
+    private final Filer filer;
+    private final Messager messager;
+    private final Elements elements;
+    private final boolean skipUnchanged;
+    private final String manifestName;
+
+    private @Nullable Map<String, String> previousHashes;
+    private final Map<String, String> hashes = new TreeMap<>();
+    private int written;
+    private int skipped;
+    private boolean unresolved;
+
+    @Inject
+    GeneratedOutput(final Filer filer, final Messager messager, final Elements elements, final EventGenOptions options) {
+        this.filer = filer;
+        this.messager = messager;
+        this.elements = elements;
+        this.skipUnchanged = options.skipUnchanged();
+        this.manifestName = GeneratedOutput.MANIFEST_DIRECTORY + options.generatedEventFactory() + ".sha256";
+    }
+
+    /**
+     * Write a source file.
+     *
+     * @param file the source file
+     * @return whether the file was written, rather than skipped as unchanged
+     */
+    public boolean write(final JavaFile file) throws IOException {
+        if (!this.skipUnchanged) {
+            file.writeTo(this.filer);
+            this.written++;
+            return true;
+        }
+
+        final String content = file.toString();
+        final String name = file.packageName().isEmpty() ? file.typeSpec().name() : file.packageName() + '.' + file.typeSpec().name();
+        if (this.unchanged("source:" + name, content.getBytes(StandardCharsets.UTF_8))
+            && this.exists(StandardLocation.SOURCE_OUTPUT, file.packageName(), file.typeSpec().name() + JavaFileObject.Kind.SOURCE.extension)
+            // a skipped source isn't compiled again, so its class must have been kept too
+            && this.exists(StandardLocation.CLASS_OUTPUT, file.packageName(), file.typeSpec().name() + JavaFileObject.Kind.CLASS.extension)
+            && this.resolvable(name)) {
+            this.skipped++;
+            return false;
+        }
+
+        final JavaFileObject output = this.filer.createSourceFile(name, file.typeSpec().originatingElements().toArray(Element[]::new));
+        try (final Writer writer = output.openWriter()) {
+            writer.write(content);
+        }
+        this.written++;
+        return true;
+    }
+
+    /**
+     * Write a class file.
+     *
+     * @param name the name of the class
+     * @param bytes the class file
+     * @param originating the elements the class was generated from
+     * @return whether the file was written, rather than skipped as unchanged
+     */
+    public boolean write(final ClassName name, final byte[] bytes, final Element... originating) throws IOException {
+        final String binaryName = name.reflectionName();
+        if (this.skipUnchanged) {
+            final String relativeName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + JavaFileObject.Kind.CLASS.extension;
+            if (this.unchanged("class:" + binaryName, bytes)
+                && this.exists(StandardLocation.CLASS_OUTPUT, name.packageName(), relativeName)
+                && this.resolvable(name.canonicalName())) {
+                this.skipped++;
+                return false;
+            }
+        }
+
+        final JavaFileObject output = this.filer.createClassFile(binaryName, originating);
+        try (final OutputStream os = output.openOutputStream()) {
+            os.write(bytes);
+        }
+        this.written++;
+        return true;
+    }
+
+    public void write(final String resource, final String content, final Element... originating) throws IOException {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (this.skipUnchanged && this.unchanged("resource:" + resource, bytes) && this.exists(StandardLocation.CLASS_OUTPUT, "", resource)) {
+            this.skipped++;
+            return;
+        }
+
+        final FileObject output = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", resource, originating);
+        try (final OutputStream os = output.openOutputStream()) {
+            os.write(bytes);
+        }
+        this.written++;
+    }
+
+    /**
+     * Record the manifest for the next build, and report what was written.
+     */
+    public void finish() throws IOException {
+        if (!this.skipUnchanged) {
+            return;
+        }
+
+        final FileObject manifest = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", this.manifestName);
+        try (final Writer writer = manifest.openWriter()) {
+            for (final Map.Entry<String, String> entry : this.hashes.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+        }
+        this.messager.printMessage(
+            Diagnostic.Kind.NOTE,
+            String.format("[event-impl-gen]: Wrote %d generated files, skipped %d unchanged", this.written, this.skipped)
+        );
+        if (this.unresolved) {
+            this.messager.printMessage(
+                Diagnostic.Kind.NOTE,
+                "[event-impl-gen]: Unchanged files were written again, as the class output is not on the class path to find their classes"
+            );
+        }
+    }
+
+    private boolean unchanged(final String key, final byte[] content) {
+        final String hash = GeneratedOutput.hash(content);
+        this.hashes.put(key, hash);
+        return hash.equals(this.previousHashes().get(key));
+    }
+
+    private boolean exists(final StandardLocation location, final String packageName, final String relativeName) {
+        // the build tool may have cleaned the previous output
+        try {
+            return this.filer.getResource(location, packageName, relativeName).getLastModified() != 0;
+        } catch (final IOException | IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private boolean resolvable(final String name) {
+        // the factory is compiled against the kept class
+        if (this.elements.getTypeElement(name) != null) {
+            return true;
+        }
+        this.unresolved = true;
+        return false;
+    }
+
+    private Map<String, String> previousHashes() {
+        if (this.previousHashes != null) {
+            return this.previousHashes;
+        }
+
+        final Map<String, String> previous = new TreeMap<>();
+        for (final String line : this.readPrevious(this.manifestName)) {
+            final int split = line.indexOf(' ');
+            if (split > 0) {
+                previous.put(line.substring(0, split), line.substring(split + 1));
+            }
+        }
+        return this.previousHashes = previous;
+    }
+
+    /**
+     * Read a resource written to the class output by the previous build.
+     *
+     * @param resource the name of the resource
+     * @return the lines of the resource, or an empty list if it doesn't exist
+     */
+    public List<String> readPrevious(final String resource) {
+        final List<String> lines = new ArrayList<>();
+        try {
+            final FileObject file = this.filer.getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (final BufferedReader reader = new BufferedReader(file.openReader(false))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+        } catch (final IOException | IllegalArgumentException | UnsupportedOperationException ex) {
+            // no previous build, or the build tool doesn't allow reading outputs
+            return List.of();
+        }
+        return lines;
+    }
+
+    static String hash(final byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is required to be supported", ex);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A set of packages, each either matched exactly or together with all of
+ * its subpackages.
+ *
+ * <p>Entries may be given as package names or as folders, such as
+ * {@code com.example.event} or {@code com/example/event}. An entry ending
+ * in {@code .**} (or {@code /**}) also matches every subpackage, any other
+ * entry only matches the package itself. Entries are kept in a trie of
+ * package name segments.</p>
+ */
+public final class PackageFilter {
+
+    static final PackageFilter EMPTY = new PackageFilter(List.of());
+
+    private static final String SUBTREE = ".**";
+
+    private final Node root = new Node();
+    private final List<String> packages;
+
+    private PackageFilter(final Collection<String> entries) {
+        final List<String> packages = new ArrayList<>(entries.size());
+        for (final String entry : entries) {
+            String name = entry.trim().replace('/', '.');
+            final boolean subtree = name.endsWith(PackageFilter.SUBTREE);
+            if (subtree) {
+                name = name.substring(0, name.length() - PackageFilter.SUBTREE.length());
+            }
+            if (name.isEmpty()) {
+                continue;
+            }
+            final Node node = Objects.requireNonNull(this.root.child(name, true, false));
+            if (subtree) {
+                node.subtree = true;
+            } else {
+                node.exact = true;
+            }
+            if (!packages.contains(name)) {
+                packages.add(name);
+            }
+        }
+        this.packages = List.copyOf(packages);
+    }
+
+    static PackageFilter parse(final Collection<String> entries) {
+        return entries.isEmpty() ? PackageFilter.EMPTY : new PackageFilter(entries);
+    }
+
+    /**
+     * Get the names of the packages at the root of each entry.
+     *
+     * @return the package names, in the order they were declared
+     */
+    public List<String> packages() {
+        return this.packages;
+    }
+
+    /**
+     * Get whether this filter has no entries.
+     *
+     * @return whether this filter is empty
+     */
+    public boolean isEmpty() {
+        return this.packages.isEmpty();
+    }
+
+    /**
+     * Get whether a package is matched by any entry.
+     *
+     * @param packageName the qualified package name
+     * @return whether the package matches
+     */
+    public boolean matches(final String packageName) {
+        final @Nullable Node node = this.root.child(packageName, false, true);
+        return node != null && (node.exact || node.subtree);
+    }
+
+    /**
+     * Get whether an entry for exactly this package applies, either to the
+     * package itself or, when climbing from a subpackage, to its
+     * subpackages.
+     *
+     * <p>A scan climbing the package hierarchy can stop at the nearest
+     * package with an entry, so the most specific entry wins.</p>
+     *
+     * @param packageName the qualified package name
+     * @param subpackage whether the package is checked for one of its subpackages
+     * @return whether an entry for the package applies
+     */
+    public boolean declares(final String packageName, final boolean subpackage) {
+        final @Nullable Node node = this.root.child(packageName, false, false);
+        return node != null && (node.subtree || !subpackage && node.exact);
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        boolean exact;
+        boolean subtree;
+
+        /**
+         * Walk down the segments of a package name.
+         *
+         * @param create whether to create missing nodes
+         * @param stopAtSubtree whether to stop at the first node matching a whole subtree
+         */
+        @Nullable Node child(final String packageName, final boolean create, final boolean stopAtSubtree) {
+            Node node = this;
+            int start = 0;
+            while (start <= packageName.length()) {
+                if (stopAtSubtree && node.subtree) {
+                    return node;
+                }
+                int end = packageName.indexOf('.', start);
+                if (end == -1) {
+                    end = packageName.length();
+                }
+                final String segment = packageName.substring(start, end);
+                @Nullable Node next = node.children.get(segment);
+                if (next == null) {
+                    if (!create) {
+                        return null;
+                    }
+                    next = new Node();
+                    node.children.put(segment, next);
+                }
+                node = next;
+                start = end + 1;
+            }
+            return node;
+        }
+    }
+
+}
@@ -27,12 +27,12 @@
 import javax.annotation.processing.ProcessingEnvironment;
 
 /**
- * Multi-release shim for {@code isPreviewEnabled()}
+ * Shim for {@code isPreviewEnabled()}
  */
 final class PreviewFeatureShim {
 
     static boolean previewFeaturesEnabled(final ProcessingEnvironment environment) {
-        return false;
+        return environment.isPreviewEnabled();
     }
 
 }
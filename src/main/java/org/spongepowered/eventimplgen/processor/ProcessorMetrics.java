@@ -0,0 +1,277 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.BaseClassCache;
+
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput metrics of a compilation, reported at the end of processing
+ * when {@link EventGenOptions#METRICS} is enabled.
+ *
+ * <p>The summary is printed as a note for build logs, and written as a
+ * JSON resource to the class output so CI can compare it between
+ * commits. The resource originates from every scanned event, so it is
+ * only written when the factory is aggregating.</p>
+ *
+ * <p>Allocation is measured on the compiler thread while the processor
+ * runs, so work done by javac itself is not attributed.</p>
+ */
+@Singleton
+public final class ProcessorMetrics {
+
+    static final String RESOURCE_EXTENSION = ".metrics.json";
+
+    enum Phase {
+        SCAN("scan"),
+        GENERATE("generate"),
+        FACTORY("factory");
+
+        final String key;
+
+        Phase(final String key) {
+            this.key = key;
+        }
+    }
+
+    private final boolean enabled;
+    private final GeneratedOutput output;
+    private final Messager messager;
+    private final String factory;
+    private final FactoryMode factoryMode;
+    private final BaseClassCache baseClasses;
+    private final AnnotationIndex annotationIndex;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final List<Element> origins = new ArrayList<>();
+    private int rounds;
+    private int eventsScanned;
+    private int eventsGenerated;
+    private int eventsSkipped;
+    private long propertiesResolved;
+    // -1 when the runtime can't measure allocation
+    private long allocated;
+    private long peakRoundAllocated;
+    private long roundStart;
+    private long roundStartNanos;
+    // the last round to end is the final round, which assembles the factory
+    private long finalRoundNanos;
+
+    @Inject
+    ProcessorMetrics(
+        final EventGenOptions options,
+        final GeneratedOutput output,
+        final Messager messager,
+        final BaseClassCache baseClasses,
+        final AnnotationIndex annotationIndex
+    ) {
+        this.enabled = options.metrics();
+        this.output = output;
+        this.messager = messager;
+        this.factory = options.generatedEventFactory();
+        this.factoryMode = options.factoryMode();
+        this.baseClasses = baseClasses;
+        this.annotationIndex = annotationIndex;
+    }
+
+    void startRound() {
+        this.rounds++;
+        if (this.enabled) {
+            this.roundStartNanos = System.nanoTime();
+            this.roundStart = ProcessorMetrics.allocatedBytes();
+        }
+    }
+
+    void endRound() {
+        if (!this.enabled) {
+            return;
+        }
+        this.finalRoundNanos = System.nanoTime() - this.roundStartNanos;
+        if (this.allocated < 0) {
+            return;
+        }
+        final long end = ProcessorMetrics.allocatedBytes();
+        if (this.roundStart < 0 || end < 0) {
+            this.allocated = -1;
+            this.peakRoundAllocated = -1;
+            return;
+        }
+        final long round = end - this.roundStart;
+        this.allocated += round;
+        this.peakRoundAllocated = Math.max(this.peakRoundAllocated, round);
+    }
+
+    long start() {
+        return this.enabled ? System.nanoTime() : 0;
+    }
+
+    void end(final Phase phase, final long start) {
+        if (this.enabled) {
+            this.phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    void eventScanned(final Element event, final int properties) {
+        this.eventsScanned++;
+        this.propertiesResolved += properties;
+        if (this.enabled) {
+            this.origins.add(event);
+        }
+    }
+
+    /**
+     * Record an event implementation being generated.
+     *
+     * @param written whether the implementation was written, rather than
+     *     skipped as unchanged from the previous build
+     */
+    void eventGenerated(final boolean written) {
+        if (written) {
+            this.eventsGenerated++;
+        } else {
+            this.eventsSkipped++;
+        }
+    }
+
+    /**
+     * Print the summary and write the metrics resource, if enabled.
+     */
+    void report() throws IOException {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.messager.printMessage(Diagnostic.Kind.NOTE, String.format(
+            Locale.ROOT,
+            "[event-impl-gen]: Scanned %d events with %d properties in %d rounds, generated %d, skipped %d unchanged; "
+                + "scan %d ms, generate %d ms, factory %d ms, final round %d ms; "
+                + "cache hit rates: annotations %.1f%%, base classes %.1f%%; allocated %s, peak round %s",
+            this.eventsScanned,
+            this.propertiesResolved,
+            this.rounds,
+            this.eventsGenerated,
+            this.eventsSkipped,
+            this.millis(Phase.SCAN),
+            this.millis(Phase.GENERATE),
+            this.millis(Phase.FACTORY),
+            TimeUnit.NANOSECONDS.toMillis(this.finalRoundNanos),
+            ProcessorMetrics.hitRate(this.annotationIndex.hits(), this.annotationIndex.misses()) * 100,
+            ProcessorMetrics.hitRate(this.baseClasses.hits(), this.baseClasses.misses()) * 100,
+            ProcessorMetrics.kibibytes(this.allocated),
+            ProcessorMetrics.kibibytes(this.peakRoundAllocated)
+        ));
+
+        // an isolating processor can't write files originating from more than one element
+        final String resource = GeneratedOutput.MANIFEST_DIRECTORY + this.factory + ProcessorMetrics.RESOURCE_EXTENSION;
+        if (this.factoryMode == FactoryMode.AGGREGATING) {
+            this.output.write(resource, this.toJson(), this.origins.toArray(Element[]::new));
+        } else {
+            this.messager.printMessage(Diagnostic.Kind.NOTE, "[event-impl-gen]: Metrics are not written to " + resource
+                + " as the factory is isolating");
+        }
+    }
+
+    String toJson() {
+        final StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"factory\": \"").append(this.factory).append("\",\n");
+        json.append("  \"rounds\": ").append(this.rounds).append(",\n");
+        json.append("  \"events\": {\n");
+        json.append("    \"scanned\": ").append(this.eventsScanned).append(",\n");
+        json.append("    \"generated\": ").append(this.eventsGenerated).append(",\n");
+        json.append("    \"skippedUnchanged\": ").append(this.eventsSkipped).append("\n");
+        json.append("  },\n");
+        json.append("  \"propertiesResolved\": ").append(this.propertiesResolved).append(",\n");
+        json.append("  \"caches\": {\n");
+        ProcessorMetrics.appendCache(json, "annotationIndex", this.annotationIndex.hits(), this.annotationIndex.misses());
+        json.append(",\n");
+        ProcessorMetrics.appendCache(json, "baseClasses", this.baseClasses.hits(), this.baseClasses.misses());
+        json.append("\n  },\n");
+        json.append("  \"phasesMillis\": {\n");
+        for (final Phase phase : Phase.values()) {
+            json.append("    \"").append(phase.key).append("\": ").append(this.millis(phase));
+            json.append(phase.ordinal() == Phase.values().length - 1 ? "\n" : ",\n");
+        }
+        json.append("  },\n");
+        json.append("  \"finalRoundMillis\": ").append(TimeUnit.NANOSECONDS.toMillis(this.finalRoundNanos)).append(",\n");
+        json.append("  \"allocatedBytes\": ").append(ProcessorMetrics.jsonBytes(this.allocated)).append(",\n");
+        json.append("  \"peakRoundAllocatedBytes\": ").append(ProcessorMetrics.jsonBytes(this.peakRoundAllocated)).append('\n');
+        return json.append("}\n").toString();
+    }
+
+    private long millis(final Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(this.phaseNanos[phase.ordinal()]);
+    }
+
+    private static void appendCache(final StringBuilder json, final String name, final long hits, final long misses) {
+        json.append("    \"").append(name).append("\": {\"hits\": ").append(hits)
+            .append(", \"misses\": ").append(misses)
+            .append(", \"hitRate\": ").append(String.format(Locale.ROOT, "%.4f", ProcessorMetrics.hitRate(hits, misses)))
+            .append('}');
+    }
+
+    private static double hitRate(final long hits, final long misses) {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private static String kibibytes(final long bytes) {
+        return bytes < 0 ? "unknown" : (bytes / 1024) + " KiB";
+    }
+
+    private static String jsonBytes(final long bytes) {
+        return bytes < 0 ? "null" : Long.toString(bytes);
+    }
+
+    /**
+     * Get the bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or {@code -1} if not supported
+     */
+    private static long allocatedBytes() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getCurrentThreadAllocatedBytes();
+            }
+        } catch (final LinkageError ex) {
+            // jdk.management is not part of this runtime
+        }
+        return -1;
+    }
+
+}
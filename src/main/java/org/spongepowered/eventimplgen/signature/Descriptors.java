@@ -66,6 +66,10 @@ public String getDescriptor(final ExecutableType method, final boolean includeRe
         }
     }
 
+    public String getDescriptor(final TypeMirror type) {
+        return type.accept(this.descWriter, new StringBuilder()).toString();
+    }
+
     public String getInternalName(TypeMirror name) {
         name = this.types.erasure(name);
         switch (name.getKind()) {
@@ -0,0 +1,209 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.signature;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ErrorType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.NoType;
+import javax.lang.model.type.NullType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.UnionType;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.AbstractTypeVisitor14;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.List;
+
+/**
+ * A writer to convert a {@link TypeMirror} into its generic signature string,
+ * as used in the {@code Signature} attribute of class files.
+ */
+@Singleton
+public class TypeToSignatureWriter extends AbstractTypeVisitor14<StringBuilder, StringBuilder> {
+
+    private final Types types;
+    private final Elements elements;
+
+    @Inject
+    TypeToSignatureWriter(final Types types, final Elements elements) {
+        this.types = types;
+        this.elements = elements;
+    }
+
+    /**
+     * Write the formal type parameter section of a class or method signature.
+     *
+     * @param parameters the type parameters
+     * @param builder the builder to append to
+     * @return the builder
+     */
+    public StringBuilder writeTypeParameters(final List<? extends TypeParameterElement> parameters, final StringBuilder builder) {
+        if (parameters.isEmpty()) {
+            return builder;
+        }
+
+        builder.append('<');
+        for (final TypeParameterElement parameter : parameters) {
+            builder.append(parameter.getSimpleName());
+            final List<? extends TypeMirror> bounds = parameter.getBounds();
+            if (bounds.isEmpty()) {
+                builder.append(':');
+                this.elements.getTypeElement("java.lang.Object").asType().accept(this, builder);
+                continue;
+            }
+            for (int i = 0; i < bounds.size(); i++) {
+                final TypeMirror bound = bounds.get(i);
+                // interface bounds are written with an empty class bound before them
+                if (i == 0 && this.types.asElement(bound) != null && this.types.asElement(bound).getKind().isInterface()) {
+                    builder.append(':');
+                }
+                builder.append(':');
+                bound.accept(this, builder);
+            }
+        }
+        return builder.append('>');
+    }
+
+    @Override
+    public StringBuilder visitIntersection(final IntersectionType t, final StringBuilder builder) {
+        return this.types.erasure(t).accept(this, builder);
+    }
+
+    @Override
+    public StringBuilder visitPrimitive(final PrimitiveType t, final StringBuilder builder) {
+        return builder.append(TypeToDescriptorWriter.descriptor(t));
+    }
+
+    @Override
+    public StringBuilder visitArray(final ArrayType t, final StringBuilder builder) {
+        builder.append('[');
+        return t.getComponentType().accept(this, builder);
+    }
+
+    @Override
+    public StringBuilder visitDeclared(final DeclaredType t, final StringBuilder builder) {
+        return this.writeClassType(t, builder).append(';');
+    }
+
+    private StringBuilder writeClassType(final DeclaredType t, final StringBuilder builder) {
+        final TypeElement element = (TypeElement) t.asElement();
+        final TypeMirror enclosing = t.getEnclosingType();
+        if (enclosing.getKind() == TypeKind.DECLARED && TypeToSignatureWriter.isParameterized((DeclaredType) enclosing)) {
+            // Inner classes of a parameterized type must carry the outer type's arguments
+            this.writeClassType((DeclaredType) enclosing, builder)
+                .append('.')
+                .append(element.getSimpleName());
+        } else {
+            builder.append('L')
+                .append(this.elements.getBinaryName(element).toString().replace('.', '/'));
+        }
+
+        final List<? extends TypeMirror> arguments = t.getTypeArguments();
+        if (!arguments.isEmpty()) {
+            builder.append('<');
+            for (final TypeMirror argument : arguments) {
+                argument.accept(this, builder);
+            }
+            builder.append('>');
+        }
+        return builder;
+    }
+
+    private static boolean isParameterized(final DeclaredType type) {
+        if (!type.getTypeArguments().isEmpty()) {
+            return true;
+        }
+        final TypeMirror enclosing = type.getEnclosingType();
+        // static nested types have no enclosing type instance
+        return enclosing.getKind() == TypeKind.DECLARED && TypeToSignatureWriter.isParameterized((DeclaredType) enclosing);
+    }
+
+    @Override
+    public StringBuilder visitTypeVariable(final TypeVariable t, final StringBuilder builder) {
+        return builder.append('T')
+            .append(t.asElement().getSimpleName())
+            .append(';');
+    }
+
+    @Override
+    public StringBuilder visitWildcard(final WildcardType t, final StringBuilder builder) {
+        if (t.getExtendsBound() != null) {
+            builder.append('+');
+            return t.getExtendsBound().accept(this, builder);
+        } else if (t.getSuperBound() != null) {
+            builder.append('-');
+            return t.getSuperBound().accept(this, builder);
+        } else {
+            return builder.append('*');
+        }
+    }
+
+    @Override
+    public StringBuilder visitExecutable(final ExecutableType t, final StringBuilder builder) {
+        builder.append('(');
+        for (final TypeMirror param : t.getParameterTypes()) {
+            param.accept(this, builder);
+        }
+        builder.append(')');
+        return t.getReturnType().accept(this, builder);
+    }
+
+    @Override
+    public StringBuilder visitNoType(final NoType t, final StringBuilder builder) {
+        if (t.getKind() == TypeKind.VOID) {
+            return builder.append('V');
+        } else {
+            return builder;
+        }
+    }
+
+    // Skipped types
+
+    @Override
+    public StringBuilder visitError(final ErrorType t, final StringBuilder builder) {
+        builder.append("L!ERROR!;");
+        return builder;
+    }
+
+    @Override
+    public StringBuilder visitNull(final NullType t, final StringBuilder builder) {
+        return builder;
+    }
+
+    @Override
+    public StringBuilder visitUnion(final UnionType t, final StringBuilder builder) {
+        return null;
+    }
+}
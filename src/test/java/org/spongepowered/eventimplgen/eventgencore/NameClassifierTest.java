@@ -0,0 +1,87 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.eventgencore;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+public class NameClassifierTest {
+
+    private final TypeMirror booleanType = NameClassifierTest.type(TypeKind.BOOLEAN);
+    private final TypeMirror intType = NameClassifierTest.type(TypeKind.INT);
+
+    private static TypeMirror type(final TypeKind kind) {
+        final TypeMirror type = Mockito.mock(TypeMirror.class);
+        when(type.getKind()).thenReturn(kind);
+        return type;
+    }
+
+    @Test
+    public void testStandardAccessors() {
+        final NameClassifier classifier = new NameClassifier(Set.copyOf(NamingConvention.STANDARD));
+
+        assertEquals("count", classifier.accessorName("getCount", this.intType));
+        assertEquals("cancelled", classifier.accessorName("isCancelled", this.booleanType));
+        assertEquals("hasCustomName", classifier.accessorName("hasCustomName", this.booleanType));
+        assertEquals("keepsInventory", classifier.accessorName("keepsInventory", this.booleanType));
+
+        assertNull(classifier.accessorName("isCancelled", this.intType));
+        assertNull(classifier.accessorName("getaway", this.intType));
+        assertNull(classifier.accessorName("get", this.intType));
+        assertNull(classifier.accessorName("setCount", this.intType));
+    }
+
+    @Test
+    public void testStandardMutators() {
+        final NameClassifier classifier = new NameClassifier(Set.copyOf(NamingConvention.STANDARD));
+
+        assertEquals("count", classifier.mutatorName("setCount", this.intType));
+        assertNull(classifier.mutatorName("settle", this.intType));
+        assertNull(classifier.mutatorName("getCount", this.intType));
+    }
+
+    @Test
+    public void testLongestPrefixWins() {
+        final Set<NamingConvention> conventions = new HashSet<>(NamingConvention.STANDARD);
+        conventions.add(new NamingConvention.Simple(NamingConvention.Kind.ACCESSOR, "can", true, true));
+        conventions.add(new NamingConvention.Simple(NamingConvention.Kind.ACCESSOR, "cannot", false, true));
+        conventions.add(new NamingConvention.Simple(NamingConvention.Kind.MUTATOR, "with", false, false));
+        final NameClassifier classifier = new NameClassifier(conventions);
+
+        assertEquals("canFly", classifier.accessorName("canFly", this.booleanType));
+        assertEquals("fly", classifier.accessorName("cannotFly", this.booleanType));
+        assertEquals("count", classifier.mutatorName("withCount", this.intType));
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks descriptors retained until the final round hold no javac models.
+ */
+class FactoryDescriptorTest {
+
+    @Test
+    void testDescriptorsHoldNoElements() {
+        for (final Class<?> descriptor : new Class<?>[] {
+            FactoryDescriptor.class,
+            FactoryDescriptor.PropertyDescriptor.class,
+            FactoryDescriptor.MergedFactory.class,
+            FactoryDescriptor.ForwardedMethod.class
+        }) {
+            for (final RecordComponent component : descriptor.getRecordComponents()) {
+                assertFalse(FactoryDescriptorTest.isModel(component.getGenericType()), descriptor.getSimpleName() + "." + component.getName());
+            }
+        }
+    }
+
+    private static boolean isModel(final Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            for (final Type argument : parameterized.getActualTypeArguments()) {
+                if (FactoryDescriptorTest.isModel(argument)) {
+                    return true;
+                }
+            }
+            return FactoryDescriptorTest.isModel(parameterized.getRawType());
+        }
+        return type instanceof Class<?> clazz && clazz.getName().startsWith("javax.lang.model.");
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.factory.plugin;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.spongepowered.eventgen.annotations.TransformResult;
+import org.spongepowered.eventimplgen.AnnotationIndex;
+import org.spongepowered.eventimplgen.eventgencore.Property;
+import org.spongepowered.eventimplgen.factory.ClassContext;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class EventFactoryPluginTest {
+
+    @Test
+    public void testOrder() {
+        final EventFactoryPlugin late = new TestPlugin(10, Set.of());
+        final EventFactoryPlugin early = new TestPlugin(-10, Set.of());
+        final EventFactoryPlugin normal = new TestPlugin(0, Set.of());
+
+        final List<EventFactoryPlugin> plugins = new ArrayList<>(List.of(late, normal, early));
+        plugins.sort(EventFactoryPlugin.ORDER);
+        assertEquals(List.of(early, normal, late), plugins);
+    }
+
+    @Test
+    public void testMayContributeByAnnotation() {
+        final TypeElement transformResult = Mockito.mock(TypeElement.class);
+        final Elements elements = Mockito.mock(Elements.class);
+        when(elements.getTypeElement(TransformResult.class.getCanonicalName())).thenReturn(transformResult);
+        final AnnotationIndex annotations = new AnnotationIndex(elements);
+        annotations.newRound();
+
+        final DeclaredType annotationType = Mockito.mock(DeclaredType.class);
+        when(annotationType.asElement()).thenReturn(transformResult);
+        final AnnotationMirror mirror = Mockito.mock(AnnotationMirror.class);
+        when(mirror.getAnnotationType()).thenReturn(annotationType);
+        final ExecutableElement annotated = Mockito.mock(ExecutableElement.class);
+        Mockito.doReturn(List.of(mirror)).when(annotated).getAnnotationMirrors();
+        final ExecutableElement plain = Mockito.mock(ExecutableElement.class);
+
+        final Property withAnnotation = new Property("value", Mockito.mock(TypeMirror.class), annotated, plain, plain, null);
+        final Property withoutAnnotation = new Property("value", Mockito.mock(TypeMirror.class), plain, plain, plain, null);
+        final TypeElement event = Mockito.mock(TypeElement.class);
+
+        final EventFactoryPlugin filtered = new TestPlugin(0, Set.of(TransformResult.class));
+        assertTrue(filtered.mayContribute(event, withAnnotation, annotations));
+        assertFalse(filtered.mayContribute(event, withoutAnnotation, annotations));
+
+        final EventFactoryPlugin unfiltered = new TestPlugin(0, Set.of());
+        assertTrue(unfiltered.mayContribute(event, withoutAnnotation, annotations));
+    }
+
+    @Test
+    public void testDefaultIdentity() {
+        final EventFactoryPlugin plugin = new TestPlugin(0, Set.of());
+        assertEquals(TestPlugin.class.getName(), plugin.id());
+        // test classes are not packaged, so have no implementation version
+        assertNull(plugin.version());
+    }
+
+    static final class TestPlugin implements EventFactoryPlugin {
+
+        private final int order;
+        private final Set<Class<? extends Annotation>> annotations;
+
+        TestPlugin(final int order, final Set<Class<? extends Annotation>> annotations) {
+            this.order = order;
+            this.annotations = annotations;
+        }
+
+        @Override
+        public int order() {
+            return this.order;
+        }
+
+        @Override
+        public Set<Class<? extends Annotation>> propertyAnnotations() {
+            return this.annotations;
+        }
+
+        @Override
+        public Result contributeProperty(final TypeElement eventClass, final ClassContext classWriter, final Property property) {
+            return Result.IGNORE;
+        }
+
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what the generated implementations take from the cached model of
+ * their base classes and events.
+ */
+class BaseClassModelTest {
+
+    private static final String FACTORY = "test.base.BaseEventFactory";
+    private static final Map<String, String> SOURCES = Map.of(
+        "test/base/other/Text.java", """
+            package test.base.other;
+
+            public final class Text {
+            }
+            """,
+        "test/base/Marked.java", """
+            package test.base;
+
+            public interface Marked {
+
+                interface Text {
+                }
+
+            }
+            """,
+        "test/base/SignEvent.java", """
+            package test.base;
+
+            import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+            import org.spongepowered.eventgen.annotations.ImplementedBy;
+
+            @GenerateFactoryMethod
+            @ImplementedBy(AbstractSignEvent.class)
+            public interface SignEvent extends Marked {
+
+                String owner();
+
+                test.base.other.Text text();
+
+            }
+            """,
+        "test/base/AbstractSignEvent.java", """
+            package test.base;
+
+            import org.spongepowered.eventgen.annotations.UseField;
+
+            public abstract class AbstractSignEvent implements SignEvent {
+
+                @UseField(overrideToString = true)
+                protected String owner;
+
+            }
+            """
+    );
+    // generated in the first round, so its base class model comes from the cache
+    private static final String POST_EVENT = """
+        package test.base;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface PostEvent extends SignEvent {
+
+            int slot();
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+    private Path output;
+
+    @BeforeEach
+    void compile() throws IOException {
+        final List<File> sources = new ArrayList<>();
+        for (final Map.Entry<String, String> source : BaseClassModelTest.SOURCES.entrySet()) {
+            final Path file = this.dir.resolve("src").resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            sources.add(file.toFile());
+        }
+        sources.sort(null);
+        this.output = this.dir.resolve("out");
+
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.output,
+            BaseClassModelTest.FACTORY,
+            List.of(),
+            sources,
+            List.of(new PostEventProcessor(), new EventImplGenProcessor())
+        );
+        assertTrue(result.success(), () -> String.join("\n", result.errors()));
+    }
+
+    @Test
+    void testUseFieldIsInherited() throws Exception {
+        try (final URLClassLoader loader = this.loader()) {
+            for (final String event : List.of("SignEvent", "PostEvent")) {
+                final Set<String> fields = Arrays.stream(loader.loadClass("test.base." + event + "_Impl").getDeclaredFields())
+                    .map(Field::getName)
+                    .collect(Collectors.toSet());
+                assertFalse(fields.contains("owner"), event + " declares the base class field again: " + fields);
+                assertTrue(fields.contains("text"), event + " is missing its own field: " + fields);
+
+                final String source = Files.readString(this.output.resolve("test/base/" + event + "_Impl.java"));
+                assertTrue(source.contains("\"owner=\" + this.owner\n"), event + " doesn't use the field in toString:\n" + source);
+                assertTrue(source.contains("\", text=\" + this.text()\n"), event + " doesn't use the accessor in toString:\n" + source);
+            }
+
+            final Object text = loader.loadClass("test.base.other.Text").getConstructor().newInstance();
+            final Object post = this.factoryMethod(loader, "createPostEvent").invoke(null, "alice", text, 3);
+            final Class<?> base = loader.loadClass("test.base.AbstractSignEvent");
+            final Field owner = base.getDeclaredField("owner");
+            owner.setAccessible(true);
+            assertEquals("alice", owner.get(post));
+            assertEquals("alice", base.getMethod("owner").invoke(post));
+        }
+    }
+
+    @Test
+    void testInheritedNestedTypeIsQualified() throws Exception {
+        try (final URLClassLoader loader = this.loader()) {
+            for (final String event : List.of("SignEvent", "PostEvent")) {
+                // Marked.Text is a member of the implementation, so the import would be shadowed
+                final String source = Files.readString(this.output.resolve("test/base/" + event + "_Impl.java"));
+                assertFalse(source.contains("import test.base.other.Text;"), event + " imports a shadowed type:\n" + source);
+                assertTrue(source.contains("test.base.other.Text text"), event + " doesn't qualify the property type:\n" + source);
+            }
+
+            final Class<?> textType = loader.loadClass("test.base.other.Text");
+            final Object text = textType.getConstructor().newInstance();
+            final Object sign = this.factoryMethod(loader, "createSignEvent").invoke(null, "bob", text);
+            final Method accessor = sign.getClass().getMethod("text");
+            assertEquals(textType, accessor.getReturnType());
+            assertSame(text, accessor.invoke(sign));
+        }
+    }
+
+    private URLClassLoader loader() throws IOException {
+        return new URLClassLoader(new URL[] {this.output.toUri().toURL()}, BaseClassModelTest.class.getClassLoader());
+    }
+
+    private Method factoryMethod(final ClassLoader loader, final String name) throws ClassNotFoundException {
+        return Arrays.stream(loader.loadClass(BaseClassModelTest.FACTORY).getMethods())
+            .filter(method -> method.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Generates another event in the first round, so the second round
+     * generates an implementation with the same base class.
+     */
+    private static final class PostEventProcessor extends AbstractProcessor {
+
+        private boolean generated;
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Set.of("*");
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+            if (!this.generated) {
+                this.generated = true;
+                try (final Writer writer = this.processingEnv.getFiler().createSourceFile("test.base.PostEvent").openWriter()) {
+                    writer.write(BaseClassModelTest.POST_EVENT);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BatchFactoryMethodTest {
+
+    private static final String EVENT = """
+        package test.batch;
+
+        import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+        import org.spongepowered.eventgen.annotations.ImplementedBy;
+
+        @GenerateFactoryMethod
+        @BatchFactoryMethod
+        @ImplementedBy(AbstractBlockEvent.class)
+        public interface BlockEvent {
+
+            int x();
+
+        }
+        """;
+    private static final String BASE = """
+        package test.batch;
+
+        public abstract class AbstractBlockEvent implements BlockEvent {
+
+            protected int changes;
+
+            protected void init() {
+                this.changes = 1;
+            }
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBaseClassRefused() throws Exception {
+        final List<File> sources = List.of(
+            TestDataCompiler.write(this.dir, "test.batch.BlockEvent", BatchFactoryMethodTest.EVENT),
+            TestDataCompiler.write(this.dir, "test.batch.AbstractBlockEvent", BatchFactoryMethodTest.BASE)
+        );
+
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir.resolve("out"), "test.batch.BatchEventFactory", List.of(), sources, new EventImplGenProcessor()
+        );
+
+        assertFalse(result.success());
+        final List<Diagnostic<? extends JavaFileObject>> errors = result.find(Diagnostic.Kind.ERROR, "@ImplementedBy base class");
+        assertEquals(1, errors.size(), () -> String.valueOf(result.errors()));
+        assertEquals("BlockEvent.java", Path.of(errors.get(0).getSource().getName()).getFileName().toString());
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fires and reads generated events in a loop that lets them be
+ * scalar replaced, and checks that once the JIT has compiled the loop
+ * nothing is allocated any more.
+ *
+ * <p>Anything in the generated methods that exceeds the inlining budget
+ * or lets the event escape shows up as allocated bytes.</p>
+ */
+class EscapeAnalysisTest {
+
+    private static final String HARNESS = "test.harness.FireAndRead";
+    private static final String HARNESS_SOURCE = """
+        package test.harness;
+
+        import java.lang.management.ManagementFactory;
+        import java.nio.file.Path;
+        import java.util.Optional;
+
+        import test.event.TestEventFactory;
+        import test.event.item.LabelItemEvent;
+        import test.event.lifecycle.ConnectionEvent;
+        import test.event.lifecycle.empty.then.PartyEvent;
+
+        public final class FireAndRead {
+
+            private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            private static final Path DESTINATION = Path.of("spawn");
+            private static int sink;
+
+            private FireAndRead() {
+            }
+
+            public static long party(final int iterations) {
+                final long start = FireAndRead.THREADS.getCurrentThreadAllocatedBytes();
+                int total = 0;
+                for (int i = 0; i < iterations; i++) {
+                    final PartyEvent event = TestEventFactory.createPartyEvent((i & 1) == 0, false, i);
+                    event.setCancelled(i % 3 == 0);
+                    if (!event.cancelled() && event.balloons()) {
+                        total += event.guests();
+                    }
+                }
+                FireAndRead.sink = total;
+                return FireAndRead.THREADS.getCurrentThreadAllocatedBytes() - start;
+            }
+
+            public static long connection(final int iterations) {
+                final long start = FireAndRead.THREADS.getCurrentThreadAllocatedBytes();
+                int total = 0;
+                for (int i = 0; i < iterations; i++) {
+                    final ConnectionEvent event = TestEventFactory.createConnectionEvent(Optional.empty(), "server", false);
+                    event.setDestination(FireAndRead.DESTINATION);
+                    if (event.destination().isPresent() && !event.cancelled()) {
+                        total += event.name().length();
+                    }
+                }
+                FireAndRead.sink = total;
+                return FireAndRead.THREADS.getCurrentThreadAllocatedBytes() - start;
+            }
+
+            public static long label(final int iterations) {
+                final long start = FireAndRead.THREADS.getCurrentThreadAllocatedBytes();
+                int total = 0;
+                for (int i = 0; i < iterations; i++) {
+                    final LabelItemEvent.Named event = TestEventFactory.createLabelItemEventNamed("item");
+                    // passes the mutator's check for the narrowed type
+                    event.setLabel((i & 1) == 0 ? "apple" : "pear");
+                    total += event.label().length();
+                }
+                FireAndRead.sink = total;
+                return FireAndRead.THREADS.getCurrentThreadAllocatedBytes() - start;
+            }
+
+        }
+        """;
+    private static final String REJECTED_LABEL = "You've attempted to call the method 'setLabel' with an object of typejava.lang.StringBuilder, "
+        + "instead of java.lang.String. Though you may have been listening for a supertype of this event, it's technicallya "
+        + "test.event.item.LabelItemEvent.Named. You need to ensure that the event is the type you think it is.";
+    private static final int ITERATIONS = 20_000;
+    // enough for C2 to compile the loop even on a slow machine
+    private static final int MAX_RUNS = 200;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"source", "class"})
+    void testFireAndReadDoesNotAllocate(final String implOutput) throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(
+            threads instanceof com.sun.management.ThreadMXBean allocation && allocation.isThreadAllocatedMemorySupported()
+                && allocation.isThreadAllocatedMemoryEnabled(),
+            "allocation can't be measured by this JVM"
+        );
+        final List<String> vmArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        assumeFalse(
+            vmArguments.stream().anyMatch(argument -> argument.equals("-Xint") || argument.startsWith("-XX:TieredStopAtLevel")
+                || argument.equals("-XX:-DoEscapeAnalysis")),
+            "escape analysis is not available"
+        );
+
+        try (final URLClassLoader loader = this.compile(implOutput)) {
+            final Class<?> harness = loader.loadClass(EscapeAnalysisTest.HARNESS);
+            assertEquals(0, EscapeAnalysisTest.allocatedAfterWarmup(harness.getMethod("party", int.class)), "party event allocated");
+            assertEquals(0, EscapeAnalysisTest.allocatedAfterWarmup(harness.getMethod("connection", int.class)), "connection event allocated");
+            assertEquals(0, EscapeAnalysisTest.allocatedAfterWarmup(harness.getMethod("label", int.class)), "label event allocated");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"source", "class"})
+    void testRejectedMutatorArgument(final String implOutput) throws Exception {
+        try (final URLClassLoader loader = this.compile(implOutput)) {
+            final Object event = loader.loadClass(TestDataCompiler.FACTORY).getMethod("createLabelItemEventNamed", String.class).invoke(null, "item");
+            final Method setLabel = loader.loadClass("test.event.item.LabelItemEvent").getMethod("setLabel", CharSequence.class);
+
+            // the check moved out of line, but still throws the original message
+            final InvocationTargetException rejected = assertThrows(
+                InvocationTargetException.class,
+                () -> setLabel.invoke(event, new StringBuilder("apple"))
+            );
+            assertEquals(RuntimeException.class, rejected.getCause().getClass());
+            assertEquals(EscapeAnalysisTest.REJECTED_LABEL, rejected.getCause().getMessage());
+        }
+    }
+
+    private URLClassLoader compile(final String implOutput) throws IOException {
+        final Path source = this.dir.resolve("src/test/harness/FireAndRead.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, EscapeAnalysisTest.HARNESS_SOURCE);
+        final List<File> sources = new ArrayList<>(TestDataCompiler.sources());
+        sources.add(source.toFile());
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(output, sources, "-A" + EventGenOptions.IMPL_OUTPUT + "=" + implOutput);
+        return new URLClassLoader(new URL[] {output.toUri().toURL()}, EscapeAnalysisTest.class.getClassLoader());
+    }
+
+    /**
+     * Run the loop until it no longer allocates, or give up.
+     *
+     * @return the bytes allocated by the last run
+     */
+    private static long allocatedAfterWarmup(final Method loop) throws ReflectiveOperationException {
+        long allocated = -1;
+        for (int run = 0; run < EscapeAnalysisTest.MAX_RUNS && allocated != 0; run++) {
+            allocated = (Long) loop.invoke(null, EscapeAnalysisTest.ITERATIONS);
+        }
+        return allocated;
+    }
+
+}
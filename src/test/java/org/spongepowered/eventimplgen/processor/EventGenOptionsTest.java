@@ -0,0 +1,83 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventGenOptionsTest {
+
+    @Test
+    public void testGroupingPrefixesKeepValidPairs() {
+        final Messager messager = Mockito.mock(Messager.class);
+        final EventGenOptions options = new EventGenOptions(Map.of(EventGenOptions.GROUPING_PREFIXES, "from:to,invalid,original:modified"), messager);
+
+        assertEquals(Map.of("from", "to", "original", "modified"), options.groupingPrefixes());
+        assertSame(options.groupingPrefixes(), options.groupingPrefixes());
+        Mockito.verify(messager, Mockito.times(1)).printMessage(Mockito.eq(Diagnostic.Kind.WARNING), Mockito.any());
+    }
+
+    @Test
+    public void testInvalidOptionsReportedOnce() {
+        final Messager messager = Mockito.mock(Messager.class);
+        final EventGenOptions options = new EventGenOptions(Map.of(EventGenOptions.FACTORY_MODE, "unknown"), messager);
+
+        assertFalse(options.validate());
+        assertFalse(options.validate());
+        // the factory name is missing, and the factory mode is unknown
+        Mockito.verify(messager, Mockito.times(2)).printMessage(Mockito.eq(Diagnostic.Kind.ERROR), Mockito.any());
+    }
+
+    @Test
+    public void testPackageFilter() {
+        final PackageFilter filter = PackageFilter.parse(List.of("test/event/cause/filter", "test.event.entity.**"));
+
+        assertEquals(List.of("test.event.cause.filter", "test.event.entity"), filter.packages());
+        assertTrue(filter.matches("test.event.cause.filter"));
+        assertFalse(filter.matches("test.event.cause.filter.nested"));
+        assertFalse(filter.matches("test.event.cause"));
+        assertTrue(filter.matches("test.event.entity"));
+        assertTrue(filter.matches("test.event.entity.living"));
+        assertFalse(filter.matches("test.event.entityx"));
+        assertFalse(filter.matches("test"));
+
+        // entries only apply to subpackages of the package they name with the subtree syntax
+        assertTrue(filter.declares("test.event.cause.filter", false));
+        assertFalse(filter.declares("test.event.cause.filter", true));
+        assertTrue(filter.declares("test.event.entity", true));
+        assertFalse(filter.declares("test.event.entity.living", false));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.eventgen.annotations.IdentifiedEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the ids assigned to events and the registry of the factory.
+ */
+class EventRegistryTest {
+
+    // enough for the registry to exceed the size limit of a single static initializer
+    private static final int MANY_EVENTS = 2000;
+    private static final String MANY_FACTORY = "test.many.ManyEventFactory";
+    private static final String STABLE_FACTORY = "test.stable.StableEventFactory";
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testIdIsReadableFromEvents() throws Exception {
+        for (final String mode : new String[] {"source", "class"}) {
+            try (final URLClassLoader loader = TestDataCompiler.compileAndLoad(this.output.resolve(mode), "-A" + EventGenOptions.IMPL_OUTPUT + "=" + mode)) {
+                final Class<?> factory = loader.loadClass(TestDataCompiler.FACTORY);
+                final Method create = Arrays.stream(factory.getMethods())
+                    .filter(method -> method.getName().equals("createPartyEvent"))
+                    .findFirst()
+                    .orElseThrow();
+                final Object party = create.invoke(null, true, false, 100);
+                final int id = (int) factory.getMethod("eventId", Class.class).invoke(null, loader.loadClass("test.event.lifecycle.empty.then.PartyEvent"));
+
+                // a bus in another package reads the id without reflection
+                assertEquals(id, ((IdentifiedEvent) party).generatedEventId(), mode);
+                final Field eventId = party.getClass().getDeclaredField("EVENT_ID");
+                assertTrue(Modifier.isPublic(eventId.getModifiers()), mode);
+                assertEquals(party.getClass().getInterfaces()[0], factory.getMethod("eventType", int.class).invoke(null, id), mode);
+            }
+        }
+    }
+
+    @Test
+    void testIdsAreKeptAcrossBuilds() throws Exception {
+        final Path classes = this.output.resolve("stable");
+        final File alpha = this.stableEvent("Alpha");
+        final File bravo = this.stableEvent("Bravo");
+        final File charlie = this.stableEvent("Charlie");
+        TestDataCompiler.compile(classes, EventRegistryTest.STABLE_FACTORY, List.of(), List.of(bravo, charlie));
+        final int charlieId = this.stableId(classes, "Charlie");
+        final int bravoId = this.stableId(classes, "Bravo");
+
+        // add an event sorting before the others, and remove one
+        TestDataCompiler.compile(classes, EventRegistryTest.STABLE_FACTORY, List.of(), List.of(alpha, charlie));
+        assertEquals(charlieId, this.stableId(classes, "Charlie"));
+        final int alphaId = this.stableId(classes, "Alpha");
+        assertNotEquals(charlieId, alphaId);
+        assertNotEquals(bravoId, alphaId);
+        assertEquals(-1, this.stableId(classes, "Bravo"));
+    }
+
+    @Test
+    void testLargeRegistryIsInitializedInChunks() throws Exception {
+        final List<File> sources = new ArrayList<>();
+        sources.add(TestDataCompiler.write(this.output, "test.many.Marker", """
+            package test.many;
+
+            public interface Marker {
+            }
+            """));
+        for (int i = 0; i < EventRegistryTest.MANY_EVENTS; i++) {
+            sources.add(TestDataCompiler.write(this.output, "test.many.Event" + i, """
+                package test.many;
+
+                import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+                @GenerateFactoryMethod
+                public interface Event%d extends Marker {
+
+                    int value();
+
+                }
+                """.formatted(i)));
+        }
+        final Path classes = this.output.resolve("many");
+        TestDataCompiler.compile(classes, EventRegistryTest.MANY_FACTORY, List.of(), sources);
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, EventRegistryTest.class.getClassLoader())) {
+            final Class<?> factory = loader.loadClass(EventRegistryTest.MANY_FACTORY);
+            assertTrue(Arrays.stream(factory.getDeclaredMethods()).filter(method -> method.getName().startsWith("registerEvents")).count() > 1);
+            assertEquals(EventRegistryTest.MANY_EVENTS, factory.getMethod("eventCount").invoke(null));
+
+            final Class<?> marker = loader.loadClass("test.many.Marker");
+            for (int id = 0; id < EventRegistryTest.MANY_EVENTS; id++) {
+                final Class<?> type = (Class<?>) factory.getMethod("eventType", int.class).invoke(null, id);
+                assertEquals(id, factory.getMethod("eventId", Class.class).invoke(null, type));
+                assertEquals(List.of(marker), factory.getMethod("eventSupertypes", int.class).invoke(null, id));
+            }
+        }
+    }
+
+    private File stableEvent(final String name) throws IOException {
+        return TestDataCompiler.write(this.output, "test.stable." + name + "Event", """
+            package test.stable;
+
+            import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+            @GenerateFactoryMethod
+            public interface %sEvent {
+
+                int value();
+
+            }
+            """.formatted(name));
+    }
+
+    private int stableId(final Path classes, final String name) throws Exception {
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, EventRegistryTest.class.getClassLoader())) {
+            final Class<?> factory = loader.loadClass(EventRegistryTest.STABLE_FACTORY);
+            return (int) factory.getMethod("eventId", Class.class).invoke(null, loader.loadClass("test.stable." + name + "Event"));
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.eventgen.annotations.IdentifiedEvent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles the test data in {@link FactoryMode#ISOLATING} mode.
+ */
+class FactoryModeTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testIsolatingModeWritesFragments() throws Exception {
+        try (final URLClassLoader loader = TestDataCompiler.compileAndLoad(this.output, "-A" + EventGenOptions.FACTORY_MODE + "=isolating")) {
+            assertTrue(Files.exists(this.output.resolve("test/event/PartyEvent_Factory.java")));
+
+            final Class<?> fragment = loader.loadClass("test.event.PartyEvent_Factory");
+            final Method create = Arrays.stream(fragment.getMethods())
+                .filter(method -> method.getName().equals("createPartyEvent"))
+                .findFirst()
+                .orElseThrow();
+            final Object party = create.invoke(null, true, false, 100);
+            final Class<?> partyEvent = loader.loadClass("test.event.lifecycle.empty.then.PartyEvent");
+            assertTrue(partyEvent.isInstance(party));
+
+            // ids depend on every event, so are not assigned
+            assertFalse(party instanceof IdentifiedEvent);
+            assertTrue(Arrays.stream(party.getClass().getDeclaredFields()).noneMatch(field -> field.getName().equals("EVENT_ID")));
+        }
+    }
+
+    @Test
+    void testIsolatingFacadeResolvesFragments() throws Exception {
+        try (final URLClassLoader loader = TestDataCompiler.compileAndLoad(this.output, "-A" + EventGenOptions.FACTORY_MODE + "=isolating")) {
+            final Class<?> facade = loader.loadClass(TestDataCompiler.FACTORY);
+            final Method fragment = facade.getMethod("fragment", Class.class);
+            assertEquals(loader.loadClass("test.event.PartyEvent_Factory"), fragment.invoke(null, loader.loadClass("test.event.lifecycle.empty.then.PartyEvent")));
+
+            // the facade is the same whichever events were compiled
+            assertFalse(Files.readString(this.output.resolve("test/event/TestEventFactory.java")).contains("PartyEvent"));
+
+            final InvocationTargetException missing = assertThrows(InvocationTargetException.class, () -> fragment.invoke(null, Object.class));
+            assertInstanceOf(IllegalArgumentException.class, missing.getCause());
+        }
+    }
+
+}
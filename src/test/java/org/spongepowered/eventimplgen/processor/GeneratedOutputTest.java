@@ -0,0 +1,184 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles the test data twice into the same output, checking unchanged
+ * generated files are left untouched.
+ */
+class GeneratedOutputTest {
+
+    private static final FileTime PREVIOUS_BUILD = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+    @TempDir
+    Path output;
+    @TempDir
+    Path sources;
+
+    @Test
+    void testUnchangedOutputIsKept() throws Exception {
+        final String skip = "-A" + EventGenOptions.SKIP_UNCHANGED + "=true";
+        this.compile(TestDataCompiler.sources(), List.of(this.output), skip);
+        assertTrue(Files.exists(this.output.resolve(GeneratedOutput.MANIFEST_DIRECTORY + TestDataCompiler.FACTORY + ".sha256")));
+
+        final Path impl = this.output.resolve("test/event/PartyEvent_Impl.java");
+        final Path factory = this.output.resolve("test/event/TestEventFactory.java");
+        Files.setLastModifiedTime(impl, GeneratedOutputTest.PREVIOUS_BUILD);
+        Files.setLastModifiedTime(factory, GeneratedOutputTest.PREVIOUS_BUILD);
+
+        this.compile(TestDataCompiler.sources(), List.of(this.output), skip);
+        this.loadFactory();
+        assertEquals(GeneratedOutputTest.PREVIOUS_BUILD, Files.getLastModifiedTime(impl));
+        assertEquals(GeneratedOutputTest.PREVIOUS_BUILD, Files.getLastModifiedTime(factory));
+    }
+
+    @Test
+    void testPartialChangeKeepsOtherSources() throws Exception {
+        final String skip = "-A" + EventGenOptions.SKIP_UNCHANGED + "=true";
+        final List<File> sources = this.copySources();
+        this.compile(sources, List.of(this.output), skip);
+        final List<Path> impls = this.markImplSources();
+
+        this.editPartyEvent();
+        this.compile(sources, List.of(this.output), skip);
+        // the rewritten factory refers to the kept sources' classes through the class path
+        this.loadFactory();
+        assertNotEquals(GeneratedOutputTest.PREVIOUS_BUILD, Files.getLastModifiedTime(this.output.resolve("test/event/PartyEvent_Impl.java")));
+        assertTrue(impls.stream().filter(this::kept).count() > 0);
+    }
+
+    @Test
+    void testPartialChangeWithoutClassOutputOnClasspath() throws Exception {
+        final String skip = "-A" + EventGenOptions.SKIP_UNCHANGED + "=true";
+        final List<File> sources = this.copySources();
+        this.compile(sources, List.of(), skip);
+        final List<Path> impls = this.markImplSources();
+
+        // as with a plain javac -d, which doesn't find the classes of skipped sources
+        this.editPartyEvent();
+        this.compile(sources, List.of(), skip);
+        this.loadFactory();
+        assertTrue(impls.stream().noneMatch(this::kept));
+    }
+
+    @Test
+    void testSourcesAreCompiledAfterClassesAreCleaned() throws Exception {
+        final String skip = "-A" + EventGenOptions.SKIP_UNCHANGED + "=true";
+        TestDataCompiler.compile(this.output, TestDataCompiler.sources(), skip);
+
+        // keep the manifest and generated sources, as if only compiled classes were removed
+        final Path impl = this.output.resolve("test/event/PartyEvent_Impl.class");
+        try (final Stream<Path> files = Files.walk(this.output)) {
+            for (final Path file : files.filter(file -> file.toString().endsWith(".class")).toList()) {
+                Files.delete(file);
+            }
+        }
+
+        try (final URLClassLoader loader = TestDataCompiler.compileAndLoad(this.output, skip)) {
+            loader.loadClass(TestDataCompiler.FACTORY);
+            loader.loadClass("test.event.PartyEvent_Impl");
+        }
+        assertTrue(Files.exists(impl));
+    }
+
+    @Test
+    void testOutputIsRewrittenWithoutOption() throws Exception {
+        TestDataCompiler.compile(this.output, TestDataCompiler.sources());
+        final Path impl = this.output.resolve("test/event/PartyEvent_Impl.java");
+        Files.setLastModifiedTime(impl, GeneratedOutputTest.PREVIOUS_BUILD);
+
+        TestDataCompiler.compile(this.output, TestDataCompiler.sources());
+        assertNotEquals(GeneratedOutputTest.PREVIOUS_BUILD, Files.getLastModifiedTime(impl));
+    }
+
+    private void compile(final List<File> sources, final List<Path> classpath, final String... extraOptions) throws IOException {
+        TestDataCompiler.compile(this.output, TestDataCompiler.FACTORY, classpath, sources, extraOptions);
+    }
+
+    /**
+     * Load and initialize the factory, which loads the implementation of
+     * every event.
+     */
+    private void loadFactory() throws Exception {
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {this.output.toUri().toURL()}, GeneratedOutputTest.class.getClassLoader())) {
+            Class.forName(TestDataCompiler.FACTORY, true, loader);
+        }
+    }
+
+    private List<File> copySources() throws IOException {
+        final List<File> sources = new ArrayList<>();
+        for (final File source : TestDataCompiler.sources()) {
+            final Path copy = this.sources.resolve(TestDataCompiler.SOURCES.relativize(source.toPath()));
+            Files.createDirectories(copy.getParent());
+            Files.copy(source.toPath(), copy);
+            sources.add(copy.toFile());
+        }
+        return sources;
+    }
+
+    private void editPartyEvent() throws IOException {
+        final Path party = this.sources.resolve("test/event/lifecycle/empty/then/PartyEvent.java");
+        Files.writeString(party, Files.readString(party).replace("    int guests();\n", "    int guests();\n\n    String theme();\n"));
+    }
+
+    private List<Path> markImplSources() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.output)) {
+            final List<Path> impls = files.filter(file -> file.toString().endsWith("_Impl.java")).toList();
+            for (final Path impl : impls) {
+                Files.setLastModifiedTime(impl, GeneratedOutputTest.PREVIOUS_BUILD);
+            }
+            return impls;
+        }
+    }
+
+    private boolean kept(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file).equals(GeneratedOutputTest.PREVIOUS_BUILD);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles the test data with both {@link ImplOutput}s, and checks the
+ * generated implementations can't be told apart.
+ */
+class ImplOutputEquivalenceTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testClassOutputSkipsSources() throws Exception {
+        final Path classOutput = this.output.resolve("class");
+        TestDataCompiler.compileAndLoad(classOutput, "-A" + EventGenOptions.IMPL_OUTPUT + "=class").close();
+
+        assertTrue(Files.exists(classOutput.resolve("test/event/PartyEvent_Impl.class")));
+        assertFalse(Files.exists(classOutput.resolve("test/event/PartyEvent_Impl.java")));
+        // Events with a base class are still generated as sources
+        assertTrue(Files.exists(classOutput.resolve("test/event/CompositeEvent_Impl.java")));
+    }
+
+    @Test
+    void testClassOutputMatchesSourceOutput() throws Exception {
+        try (
+            final URLClassLoader source = TestDataCompiler.compileAndLoad(this.output.resolve("source"), "-A" + EventGenOptions.IMPL_OUTPUT + "=source");
+            final URLClassLoader classes = TestDataCompiler.compileAndLoad(this.output.resolve("class"), "-A" + EventGenOptions.IMPL_OUTPUT + "=class")
+        ) {
+            final Map<String, Method> sourceFactory = ImplOutputEquivalenceTest.factoryMethods(source);
+            final Map<String, Method> classFactory = ImplOutputEquivalenceTest.factoryMethods(classes);
+            assertEquals(sourceFactory.keySet(), classFactory.keySet());
+
+            for (final Map.Entry<String, Method> method : sourceFactory.entrySet()) {
+                assertEquals(
+                    ImplOutputEquivalenceTest.describe(method.getValue()),
+                    ImplOutputEquivalenceTest.describe(classFactory.get(method.getKey())),
+                    method.getKey()
+                );
+            }
+        }
+    }
+
+    private static Map<String, Method> factoryMethods(final ClassLoader loader) throws ClassNotFoundException {
+        final Map<String, Method> methods = new TreeMap<>();
+        for (final Method method : loader.loadClass(TestDataCompiler.FACTORY).getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())) {
+                methods.put(method.toGenericString(), method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Describe everything observable about events created by a factory method.
+     */
+    private static String describe(final Method factory) throws IllegalAccessException {
+        final Object[] arguments = Arrays.stream(factory.getParameterTypes())
+            .map(ImplOutputEquivalenceTest::sample)
+            .toArray();
+
+        final Object event;
+        try {
+            event = factory.invoke(null, arguments);
+        } catch (final InvocationTargetException ex) {
+            return "threw " + ex.getCause().getClass().getName();
+        }
+
+        final Class<?> impl = event.getClass();
+        final StringBuilder description = new StringBuilder(impl.toGenericString()).append('\n');
+        ImplOutputEquivalenceTest.describeMembers(impl.getDeclaredFields(), description);
+        ImplOutputEquivalenceTest.describeMembers(impl.getDeclaredConstructors(), description);
+        ImplOutputEquivalenceTest.describeMembers(impl.getDeclaredMethods(), description);
+        ImplOutputEquivalenceTest.describeState(event, description);
+
+        for (final Method mutator : ImplOutputEquivalenceTest.publicMethods(impl)) {
+            if (mutator.getParameterCount() != 1 || mutator.getReturnType() != void.class) {
+                continue;
+            }
+            final Object value = ImplOutputEquivalenceTest.sample(mutator.getParameterTypes()[0]);
+            description.append(mutator.toGenericString()).append(" <- ").append(ImplOutputEquivalenceTest.valueOf(value)).append(": ");
+            try {
+                mutator.setAccessible(true);
+                mutator.invoke(event, value);
+                description.append("ok\n");
+            } catch (final InvocationTargetException ex) {
+                description.append("threw ").append(ex.getCause().getClass().getName()).append('\n');
+            }
+            ImplOutputEquivalenceTest.describeState(event, description);
+        }
+        return description.toString();
+    }
+
+    private static <T extends AccessibleObject & Member> void describeMembers(final T[] members, final StringBuilder description) {
+        Arrays.stream(members)
+            .map(member -> member instanceof Method method ? method.toGenericString() : member.toString())
+            .sorted()
+            .forEach(member -> description.append(member).append('\n'));
+    }
+
+    private static void describeState(final Object event, final StringBuilder description) throws IllegalAccessException {
+        description.append(event).append('\n');
+        for (final Method accessor : ImplOutputEquivalenceTest.publicMethods(event.getClass())) {
+            if (accessor.getParameterCount() != 0 || accessor.getReturnType() == void.class) {
+                continue;
+            }
+            description.append(accessor.toGenericString()).append(" = ");
+            try {
+                accessor.setAccessible(true);
+                description.append(ImplOutputEquivalenceTest.valueOf(accessor.invoke(event)));
+            } catch (final InvocationTargetException ex) {
+                description.append("threw ").append(ex.getCause().getClass().getName());
+            }
+            description.append('\n');
+        }
+    }
+
+    private static List<Method> publicMethods(final Class<?> type) {
+        return Arrays.stream(type.getMethods())
+            .filter(method -> method.getDeclaringClass() != Object.class && !Modifier.isStatic(method.getModifiers()))
+            .sorted(Comparator.comparing(Method::toGenericString))
+            .collect(Collectors.toList());
+    }
+
+    private static String valueOf(final Object value) {
+        if (value != null && value.getClass().isArray()) {
+            return Arrays.deepToString(new Object[] {value});
+        }
+        return String.valueOf(value);
+    }
+
+    private static Object sample(final Class<?> type) {
+        if (type.isPrimitive()) {
+            return ImplOutputEquivalenceTest.PRIMITIVE_SAMPLES.get(type);
+        } else if (type.isAssignableFrom(String.class)) {
+            return "value";
+        } else if (type == List.class || type == Collection.class) {
+            return List.of();
+        } else if (type == Set.class) {
+            return Set.of();
+        } else if (type == Map.class) {
+            return Map.of();
+        } else if (type == Optional.class) {
+            return Optional.empty();
+        } else if (type == Path.class) {
+            return Path.of("value");
+        } else if (type.isArray()) {
+            return Array.newInstance(type.getComponentType(), 0);
+        } else if (type.isInterface()) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> switch (method.getName()) {
+                case "toString" -> "proxy:" + type.getName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> method.getReturnType().isPrimitive() && method.getReturnType() != void.class
+                    ? Array.get(Array.newInstance(method.getReturnType(), 1), 0)
+                    : null;
+            });
+        }
+        return null;
+    }
+
+    private static final Map<Class<?>, Object> PRIMITIVE_SAMPLES = Map.of(
+        boolean.class, true,
+        byte.class, (byte) 1,
+        short.class, (short) 2,
+        int.class, 3,
+        long.class, 4L,
+        float.class, 5F,
+        double.class, 6D,
+        char.class, 'c'
+    );
+
+}
@@ -0,0 +1,213 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.eventimplgen.factory.FactoryInterfaceGenerator;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles the test data as an upstream module, and merges its factory
+ * into the factory of a downstream module.
+ */
+class MergeFactoriesTest {
+
+    private static final String DOWNSTREAM_FACTORY = "test.downstream.DownstreamEventFactory";
+    private static final String EVENT = """
+        package test.downstream;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface BossEvent {
+
+            String name();
+
+        }
+        """;
+    private static final String UPSTREAM_EVENT = """
+        package test.%s;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface BossEvent {
+
+            String name();
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDownstreamFactoryForwardsToUpstream() throws Exception {
+        final Path upstream = this.dir.resolve("upstream");
+        TestDataCompiler.compile(upstream, TestDataCompiler.sources());
+
+        final String index = Files.readString(upstream.resolve(EventImplWriter.INDEX));
+        assertTrue(index.contains("factory " + TestDataCompiler.FACTORY + "\n"));
+        assertTrue(index.contains("event test.event.lifecycle.empty.then.PartyEvent test.event.PartyEvent_Impl createPartyEvent "));
+
+        final Path source = this.dir.resolve("src/test/downstream/BossEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, MergeFactoriesTest.EVENT);
+        final Path downstream = this.dir.resolve("downstream");
+        TestDataCompiler.compile(
+            downstream,
+            MergeFactoriesTest.DOWNSTREAM_FACTORY,
+            List.of(upstream),
+            List.of(source.toFile()),
+            "-A" + EventGenOptions.MERGE_FACTORIES + "=" + TestDataCompiler.FACTORY
+        );
+
+        try (final URLClassLoader loader = new URLClassLoader(
+            new URL[] {upstream.toUri().toURL(), downstream.toUri().toURL()},
+            MergeFactoriesTest.class.getClassLoader()
+        )) {
+            final Class<?> factory = loader.loadClass(MergeFactoriesTest.DOWNSTREAM_FACTORY);
+            assertNotNull(factory.getMethod("createBossEvent", String.class).invoke(null, "wither"));
+
+            final Method party = Arrays.stream(factory.getMethods())
+                .filter(method -> method.getName().equals("createPartyEvent"))
+                .findFirst()
+                .orElseThrow();
+            assertNotNull(party.invoke(null, true, false, 100));
+
+            // only the downstream module's own events are registered, after the ids of the upstream module
+            assertEquals(1, factory.getMethod("eventCount").invoke(null));
+            final Class<?> upstreamFactory = loader.loadClass(TestDataCompiler.FACTORY);
+            final int first = factory.getField(FactoryInterfaceGenerator.FIRST_EVENT_ID).getInt(null);
+            assertEquals(upstreamFactory.getField(FactoryInterfaceGenerator.EVENT_ID_LIMIT).getInt(null), first);
+            assertEquals(first, factory.getMethod("eventId", Class.class).invoke(null, loader.loadClass("test.downstream.BossEvent")));
+
+            // ids of upstream events are resolved through the upstream registry
+            final Class<?> partyEvent = loader.loadClass("test.event.lifecycle.empty.then.PartyEvent");
+            final int partyId = (int) upstreamFactory.getMethod("eventId", Class.class).invoke(null, partyEvent);
+            assertEquals(partyId, factory.getMethod("eventId", Class.class).invoke(null, partyEvent));
+            assertEquals(partyEvent, factory.getMethod("eventType", int.class).invoke(null, partyId));
+        }
+    }
+
+    @Test
+    void testClashWithOwnFactoryMethodIsReported() throws Exception {
+        final Path upstream = this.upstream("raid");
+
+        final Path source = this.dir.resolve("src/test/downstream/BossEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, MergeFactoriesTest.EVENT);
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir.resolve("downstream"),
+            MergeFactoriesTest.DOWNSTREAM_FACTORY,
+            List.of(upstream),
+            List.of(source.toFile()),
+            new EventImplGenProcessor(),
+            "-A" + EventGenOptions.MERGE_FACTORIES + "=test.raid.RaidEventFactory"
+        );
+
+        assertFalse(result.success());
+        assertEquals(
+            List.of("[event-impl-gen]: Unable to merge createBossEvent(java.lang.String) from test.raid.RaidEventFactory, as "
+                + MergeFactoriesTest.DOWNSTREAM_FACTORY + " already declares the same factory method"),
+            result.errors()
+        );
+    }
+
+    @Test
+    void testClashBetweenMergedFactoriesIsReported() throws Exception {
+        final Path raid = this.upstream("raid");
+        final Path siege = this.upstream("siege", "-A" + EventGenOptions.FIRST_EVENT_ID + "=1");
+
+        final Path source = this.dir.resolve("src/test/downstream/MinionEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, MergeFactoriesTest.EVENT.replace("BossEvent", "MinionEvent"));
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir.resolve("downstream"),
+            MergeFactoriesTest.DOWNSTREAM_FACTORY,
+            List.of(raid, siege),
+            List.of(source.toFile()),
+            new EventImplGenProcessor(),
+            "-A" + EventGenOptions.MERGE_FACTORIES + "=test.raid.RaidEventFactory,test.siege.SiegeEventFactory"
+        );
+
+        assertFalse(result.success());
+        assertEquals(
+            List.of("[event-impl-gen]: Unable to merge createBossEvent(java.lang.String) from test.siege.SiegeEventFactory, "
+                + "as test.raid.RaidEventFactory already declares the same factory method"),
+            result.errors()
+        );
+    }
+
+    @Test
+    void testOverlappingIdsAreReported() throws Exception {
+        final Path raid = this.upstream("raid");
+        final Path siege = this.upstream("siege");
+
+        final Path source = this.dir.resolve("src/test/downstream/MinionEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, MergeFactoriesTest.EVENT.replace("BossEvent", "MinionEvent"));
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir.resolve("downstream"),
+            MergeFactoriesTest.DOWNSTREAM_FACTORY,
+            List.of(raid, siege),
+            List.of(source.toFile()),
+            new EventImplGenProcessor(),
+            "-A" + EventGenOptions.MERGE_FACTORIES + "=test.raid.RaidEventFactory,test.siege.SiegeEventFactory"
+        );
+
+        assertFalse(result.success());
+        assertTrue(result.errors().contains("[event-impl-gen]: The event ids of test.raid.RaidEventFactory (0 to 0) overlap those of "
+            + "test.siege.SiegeEventFactory (0 to 0), set " + EventGenOptions.FIRST_EVENT_ID + " to reserve separate ids"), () -> String.join("\n", result.errors()));
+    }
+
+    /**
+     * Compile a module with a single event, into a factory named after the
+     * module.
+     */
+    private Path upstream(final String module, final String... extraOptions) throws Exception {
+        final Path source = this.dir.resolve("src/test/" + module + "/BossEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, MergeFactoriesTest.UPSTREAM_EVENT.formatted(module));
+        final Path output = this.dir.resolve(module);
+        final String factory = "test." + module + "." + Character.toUpperCase(module.charAt(0)) + module.substring(1) + "EventFactory";
+        TestDataCompiler.compile(output, factory, List.of(), List.of(source.toFile()), extraOptions);
+        return output;
+    }
+
+}
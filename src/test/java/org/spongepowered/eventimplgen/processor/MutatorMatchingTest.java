@@ -0,0 +1,161 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which methods are implemented as mutators of a property.
+ */
+class MutatorMatchingTest {
+
+    private static final String FACTORY = "test.mutator.MutatorEventFactory";
+    private static final String RENAME_EVENT = """
+        package test.mutator;
+
+        import java.util.Optional;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface RenameEvent {
+
+            CharSequence name();
+
+            void setName(String name);
+
+            Optional<CharSequence> nickname();
+
+            void setNickname(String nickname);
+
+        }
+        """;
+    private static final String DOOR_EVENT = """
+        package test.mutator;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+        import org.spongepowered.eventgen.annotations.ImplementedBy;
+
+        @GenerateFactoryMethod
+        @ImplementedBy(AbstractDoorEvent.class)
+        public interface DoorEvent {
+
+            boolean open();
+
+            void setOpen(boolean open);
+
+            String label();
+
+            void setLabel(String label);
+
+        }
+        """;
+    private static final String DOOR_BASE = """
+        package test.mutator;
+
+        public abstract class AbstractDoorEvent implements DoorEvent {
+
+            private int changes;
+
+            @Override
+            public void setOpen(final boolean open) {
+                this.changes++;
+            }
+
+            public void recordLabel(final String label) {
+                this.changes++;
+            }
+
+            public int changes() {
+                return this.changes;
+            }
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSubtypeParameterAccepted() throws Exception {
+        try (final URLClassLoader loader = this.compile(TestDataCompiler.write(this.dir, "test.mutator.RenameEvent", MutatorMatchingTest.RENAME_EVENT))) {
+            final Class<?> type = loader.loadClass("test.mutator.RenameEvent");
+            final Object event = MutatorMatchingTest.factoryMethod(loader, "createRenameEvent").invoke(null, "alpha", Optional.empty());
+
+            type.getMethod("setName", String.class).invoke(event, "beta");
+            type.getMethod("setNickname", String.class).invoke(event, "b");
+            assertEquals("beta", type.getMethod("name").invoke(event));
+            assertEquals(Optional.of("b"), type.getMethod("nickname").invoke(event));
+        }
+    }
+
+    @Test
+    void testBaseClassMutatorMatchedByName() throws Exception {
+        try (final URLClassLoader loader = this.compile(
+            TestDataCompiler.write(this.dir, "test.mutator.DoorEvent", MutatorMatchingTest.DOOR_EVENT),
+            TestDataCompiler.write(this.dir, "test.mutator.AbstractDoorEvent", MutatorMatchingTest.DOOR_BASE)
+        )) {
+            final Class<?> type = loader.loadClass("test.mutator.DoorEvent");
+            final Class<?> base = loader.loadClass("test.mutator.AbstractDoorEvent");
+            final Object event = MutatorMatchingTest.factoryMethod(loader, "createDoorEvent").invoke(null, "front", false);
+
+            // the base class declares setOpen, so it isn't generated
+            type.getMethod("setOpen", boolean.class).invoke(event, true);
+            assertEquals(false, type.getMethod("open").invoke(event));
+            assertEquals(1, base.getMethod("changes").invoke(event));
+
+            // recordLabel takes the property type, but is not a mutator of it
+            type.getMethod("setLabel", String.class).invoke(event, "back");
+            assertEquals("back", type.getMethod("label").invoke(event));
+            assertEquals(1, base.getMethod("changes").invoke(event));
+        }
+    }
+
+    private URLClassLoader compile(final File... sources) throws Exception {
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(output, MutatorMatchingTest.FACTORY, List.of(), List.of(sources));
+        return new URLClassLoader(new URL[] {output.toUri().toURL()}, MutatorMatchingTest.class.getClassLoader());
+    }
+
+    private static Method factoryMethod(final ClassLoader loader, final String name) throws ClassNotFoundException {
+        return Arrays.stream(loader.loadClass(MutatorMatchingTest.FACTORY).getMethods())
+            .filter(method -> method.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+}
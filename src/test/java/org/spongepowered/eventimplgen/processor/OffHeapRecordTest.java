@@ -0,0 +1,159 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles an off-heap record, and uses it over a heap segment.
+ *
+ * <p>The FFM API is only a preview in Java 21, so it is used reflectively,
+ * and the test JVM runs with {@code --enable-preview}.</p>
+ */
+class OffHeapRecordTest {
+
+    private static final String EVENT = """
+        package test.event.telemetry;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+        import org.spongepowered.eventgen.annotations.OffHeapRecord;
+
+        @GenerateFactoryMethod
+        @OffHeapRecord
+        public interface TickEvent {
+
+            long tick();
+
+            int entityCount();
+
+            boolean lagging();
+
+            void setLagging(boolean lagging);
+
+        }
+        """;
+    private static final String RECORD = "test.event.TickEvent_Record";
+    private static final String EVENT_TYPE = "test.event.telemetry.TickEvent";
+    // tick, entityCount, lagging and three bytes of padding
+    private static final int SIZE = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecordCompiles() throws IOException {
+        final Path output = this.compile();
+
+        assertTrue(Files.exists(output.resolve("test/event/TickEvent_Record.java")));
+        assertTrue(Files.exists(output.resolve("test/event/TickEvent_Record.class")));
+    }
+
+    @Test
+    void testLayoutIsAlignedAndPadded() throws Exception {
+        try (final URLClassLoader loader = this.compileAndLoad()) {
+            final Object layout = loader.loadClass(OffHeapRecordTest.RECORD).getField("LAYOUT").get(null);
+            final Class<?> memoryLayout = Class.forName("java.lang.foreign.MemoryLayout");
+
+            assertEquals((long) OffHeapRecordTest.SIZE, memoryLayout.getMethod("byteSize").invoke(layout));
+            assertEquals(8L, memoryLayout.getMethod("byteAlignment").invoke(layout));
+        }
+    }
+
+    @Test
+    void testWriteAndRead() throws Exception {
+        try (final URLClassLoader loader = this.compileAndLoad()) {
+            final Class<?> record = loader.loadClass(OffHeapRecordTest.RECORD);
+            final Class<?> event = loader.loadClass(OffHeapRecordTest.EVENT_TYPE);
+            final Class<?> memorySegment = Class.forName("java.lang.foreign.MemorySegment");
+
+            // a long[] backed segment is 8-byte aligned, like the layout
+            final long[] storage = new long[2 * OffHeapRecordTest.SIZE / Long.BYTES];
+            final Object buffer = memorySegment.getMethod("ofArray", long[].class).invoke(null, (Object) storage);
+            final Object second = memorySegment.getMethod("asSlice", long.class).invoke(buffer, (long) OffHeapRecordTest.SIZE);
+            record.getMethod("write", memorySegment, int.class, boolean.class, long.class).invoke(null, second, 42, true, 1234L);
+
+            final Object view = record.getMethod("at", memorySegment, long.class).invoke(null, buffer, 1L);
+            assertEquals(1234L, event.getMethod("tick").invoke(view));
+            assertEquals(42, event.getMethod("entityCount").invoke(view));
+            assertEquals(true, event.getMethod("lagging").invoke(view));
+
+            // members are stored largest first, followed by padding
+            final ByteBuffer bytes = OffHeapRecordTest.bytes(storage);
+            assertEquals(0L, bytes.getLong(0));
+            assertEquals(1234L, bytes.getLong(OffHeapRecordTest.SIZE));
+            assertEquals(42, bytes.getInt(OffHeapRecordTest.SIZE + 8));
+            assertEquals(1, bytes.get(OffHeapRecordTest.SIZE + 12));
+            for (int i = 13; i < OffHeapRecordTest.SIZE; i++) {
+                assertEquals(0, bytes.get(OffHeapRecordTest.SIZE + i));
+            }
+
+            event.getMethod("setLagging", boolean.class).invoke(view, false);
+            assertEquals(false, event.getMethod("lagging").invoke(view));
+            assertEquals(0, OffHeapRecordTest.bytes(storage).get(OffHeapRecordTest.SIZE + 12));
+        }
+    }
+
+    private Path compile() throws IOException {
+        final Path source = this.dir.resolve("src/test/event/telemetry/TickEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, OffHeapRecordTest.EVENT);
+
+        // The FFM API is only a preview in Java 21
+        final int release = Runtime.version().feature();
+        final List<String> options = new ArrayList<>(List.of("--release", Integer.toString(release)));
+        if (release < 22) {
+            options.add("--enable-preview");
+        }
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(output, List.of(source.toFile()), options.toArray(new String[0]));
+        return output;
+    }
+
+    private URLClassLoader compileAndLoad() throws IOException {
+        return new URLClassLoader(new URL[] {this.compile().toUri().toURL()}, OffHeapRecordTest.class.getClassLoader());
+    }
+
+    private static ByteBuffer bytes(final long[] storage) {
+        // segment accesses use the native byte order
+        final ByteBuffer bytes = ByteBuffer.allocate(storage.length * Long.BYTES).order(ByteOrder.nativeOrder());
+        bytes.asLongBuffer().put(storage);
+        return bytes;
+    }
+
+}
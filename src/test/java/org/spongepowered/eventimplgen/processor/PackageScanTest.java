@@ -0,0 +1,107 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scans packages included and excluded by folder, with and without the
+ * subtree syntax.
+ */
+class PackageScanTest {
+
+    private static final String FACTORY = "test.scan.ScanEventFactory";
+    private static final String EVENT = """
+        package %s;
+
+        public interface %s {
+
+            int value();
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testExactEntriesOnlyMatchThePackage() throws Exception {
+        final List<File> sources = new ArrayList<>();
+        sources.add(this.event("test.scan.plain", "PlainEvent"));
+        sources.add(this.event("test.scan.plain.nested", "PlainNestedEvent"));
+        sources.add(this.event("test.scan.tree", "TreeEvent"));
+        sources.add(this.event("test.scan.tree.nested", "TreeNestedEvent"));
+        sources.add(this.event("test.scan.tree.skipped", "SkippedEvent"));
+        sources.add(this.event("test.scan.tree.skipped.deeper", "DeeperEvent"));
+        // the processor only runs when one of its annotations is present
+        sources.add(TestDataCompiler.write(this.dir, "test.scan.marked.MarkedEvent", """
+            package test.scan.marked;
+
+            import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+            @GenerateFactoryMethod
+            public interface MarkedEvent {
+
+                int value();
+
+            }
+            """));
+
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(
+            output,
+            PackageScanTest.FACTORY,
+            List.of(),
+            sources,
+            "-A" + EventGenOptions.INCLUSIVE_FOLDERS + "=test/scan/plain,test/scan/tree/**",
+            "-A" + EventGenOptions.EXCLUSIVE_FOLDERS + "=test/scan/tree/skipped"
+        );
+
+        final List<String> generated = new ArrayList<>();
+        for (final String event : List.of("PlainEvent", "PlainNestedEvent", "TreeEvent", "TreeNestedEvent", "SkippedEvent", "DeeperEvent", "MarkedEvent")) {
+            if (Files.exists(output.resolve("test/scan/" + event + "_Impl.java"))) {
+                generated.add(event);
+            }
+        }
+        // the exclusion of skipped doesn't extend to its subpackages, which are still part of the included tree
+        assertEquals(List.of("PlainEvent", "TreeEvent", "TreeNestedEvent", "DeeperEvent", "MarkedEvent"), generated);
+        assertTrue(Files.exists(output.resolve("test/scan/ScanEventFactory.java")));
+    }
+
+    private File event(final String packageName, final String name) throws Exception {
+        return TestDataCompiler.write(this.dir, packageName + '.' + name, PackageScanTest.EVENT.formatted(packageName, name));
+    }
+
+}
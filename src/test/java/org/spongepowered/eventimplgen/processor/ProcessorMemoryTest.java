@@ -0,0 +1,136 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs many compilations in one JVM, the way a compiler daemon does, and
+ * checks that nothing from earlier compilations stays reachable.
+ */
+class ProcessorMemoryTest {
+
+    private static final String FACTORY = "test.daemon.DaemonEventFactory";
+    private static final String EVENT = """
+        package test.daemon;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface CompileEvent {
+
+            String name();
+
+            int round();
+
+        }
+        """;
+    private static final int WARMUP = 10;
+    private static final int COMPILATIONS = 100;
+    // generous, a leaked compilation retains several megabytes of symbols
+    private static final long BUDGET = 32L * 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testHeapStaysBoundedAcrossCompilations() throws Exception {
+        final Path source = this.dir.resolve("src/test/daemon/CompileEvent.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, ProcessorMemoryTest.EVENT);
+        final List<File> sources = List.of(source.toFile());
+
+        for (int i = 0; i < ProcessorMemoryTest.WARMUP; i++) {
+            this.compile(sources, i);
+        }
+        final long baseline = ProcessorMemoryTest.usedHeapAfterGc();
+
+        WeakReference<ProcessingEnvironment> previous = null;
+        for (int i = 0; i < ProcessorMemoryTest.COMPILATIONS; i++) {
+            previous = this.compile(sources, ProcessorMemoryTest.WARMUP + i);
+        }
+        final long after = ProcessorMemoryTest.usedHeapAfterGc();
+
+        // only the processor itself may hold on to its environment
+        assertNull(previous.get(), "The environment of the last compilation is still reachable");
+
+        assertTrue(after - baseline <= ProcessorMemoryTest.BUDGET, () -> String.format(
+            "Heap grew by %d KiB over %d compilations (baseline %d KiB, after %d KiB)",
+            (after - baseline) / 1024, ProcessorMemoryTest.COMPILATIONS, baseline / 1024, after / 1024
+        ));
+    }
+
+    /**
+     * Compile the sources with a fresh processor, returning a reference to
+     * the processing environment it ran in.
+     */
+    private WeakReference<ProcessingEnvironment> compile(final List<File> sources, final int run) throws Exception {
+        final Path output = this.dir.resolve("out-" + run);
+        final TrackingProcessor processor = new TrackingProcessor();
+        TestDataCompiler.compile(output, ProcessorMemoryTest.FACTORY, List.of(), sources, processor);
+        assertTrue(processor.released(), () -> "Compilation " + run + " was not released");
+        assertTrue(Files.exists(output.resolve("test/daemon/DaemonEventFactory.class")), () -> "Compilation " + run + " generated no factory");
+        return processor.environment;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // a single request is only a hint, settle on the lowest reading
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    static final class TrackingProcessor extends EventImplGenProcessor {
+
+        WeakReference<ProcessingEnvironment> environment;
+
+        @Override
+        public synchronized void init(final ProcessingEnvironment processingEnv) {
+            super.init(processingEnv);
+            this.environment = new WeakReference<>(processingEnv);
+        }
+
+    }
+
+}
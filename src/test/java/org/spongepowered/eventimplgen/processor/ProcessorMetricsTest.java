@@ -0,0 +1,143 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessorMetricsTest {
+
+    private static final Path RESOURCE = Path.of(GeneratedOutput.MANIFEST_DIRECTORY + TestDataCompiler.FACTORY + ProcessorMetrics.RESOURCE_EXTENSION);
+    private static final String METRICS = "-A" + EventGenOptions.METRICS + "=true";
+    private static final String SKIP_UNCHANGED = "-A" + EventGenOptions.SKIP_UNCHANGED + "=true";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testMetricsResourceWritten() throws Exception {
+        final String note = this.compile(ProcessorMetricsTest.METRICS);
+
+        final String json = Files.readString(this.dir.resolve(ProcessorMetricsTest.RESOURCE));
+        final long scanned = ProcessorMetricsTest.number(json, "scanned");
+        assertTrue(scanned > 0, "no events scanned");
+        final long generated = ProcessorMetricsTest.number(json, "generated");
+        assertTrue(generated > 0, "no events generated");
+        assertTrue(generated + ProcessorMetricsTest.number(json, "skippedUnchanged") <= scanned);
+        assertTrue(ProcessorMetricsTest.number(json, "propertiesResolved") > 0, "no properties resolved");
+        assertTrue(ProcessorMetricsTest.number(json, "rounds") > 0, "no rounds counted");
+        assertTrue(json.contains("\"factory\": "));
+        // the final round assembles the factory, so it is part of the factory phase's time
+        final long finalRound = ProcessorMetricsTest.number(json, "finalRoundMillis");
+        assertTrue(finalRound >= ProcessorMetricsTest.number(json, "factory"), () -> "final round took " + finalRound + " ms");
+
+        // every event's annotations are looked up more than once
+        final double annotations = ProcessorMetricsTest.hitRate(json, "annotationIndex");
+        assertTrue(annotations > 0 && annotations <= 1, () -> "annotation index hit rate " + annotations);
+        final double baseClasses = ProcessorMetricsTest.hitRate(json, "baseClasses");
+        assertTrue(baseClasses >= 0 && baseClasses <= 1, () -> "base class hit rate " + baseClasses);
+
+        assertTrue(note.contains(String.format(Locale.ROOT, "Scanned %d events", scanned)), note);
+        assertTrue(note.contains(String.format(Locale.ROOT, "generated %d, skipped 0 unchanged", generated)), note);
+        assertTrue(note.contains(String.format(Locale.ROOT, "final round %d ms", finalRound)), note);
+        assertTrue(note.contains(String.format(Locale.ROOT, "cache hit rates: annotations %.1f%%, base classes %.1f%%", annotations * 100, baseClasses * 100)), note);
+    }
+
+    @Test
+    void testSkippedUnchangedCounted() throws Exception {
+        this.compile(ProcessorMetricsTest.METRICS, ProcessorMetricsTest.SKIP_UNCHANGED);
+        final String note = this.compile(ProcessorMetricsTest.METRICS, ProcessorMetricsTest.SKIP_UNCHANGED);
+
+        final String json = Files.readString(this.dir.resolve(ProcessorMetricsTest.RESOURCE));
+        final long skipped = ProcessorMetricsTest.number(json, "skippedUnchanged");
+        assertTrue(skipped > 0, "no events skipped");
+        assertTrue(note.contains(String.format(Locale.ROOT, "skipped %d unchanged", skipped)), note);
+    }
+
+    @Test
+    void testNoResourceWhenIsolating() throws Exception {
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir, TestDataCompiler.FACTORY, List.of(), TestDataCompiler.sources(), new EventImplGenProcessor(),
+            ProcessorMetricsTest.METRICS, "-A" + EventGenOptions.FACTORY_MODE + "=isolating"
+        );
+        assertTrue(result.success(), () -> String.join("\n", result.errors()));
+
+        assertEquals(1, result.find(Diagnostic.Kind.NOTE, "[event-impl-gen]: Scanned ").size());
+        assertEquals(1, result.find(Diagnostic.Kind.NOTE, "Metrics are not written to " + GeneratedOutput.MANIFEST_DIRECTORY).size(),
+            () -> String.join("\n", result.messages(Diagnostic.Kind.NOTE)));
+        assertFalse(Files.exists(this.dir.resolve(ProcessorMetricsTest.RESOURCE)));
+    }
+
+    @Test
+    void testNoMetricsByDefault() throws Exception {
+        TestDataCompiler.compile(this.dir, TestDataCompiler.sources());
+
+        assertFalse(Files.exists(this.dir.resolve(ProcessorMetricsTest.RESOURCE)));
+    }
+
+    /**
+     * Compile the test data, returning the metrics note.
+     */
+    private String compile(final String... options) throws Exception {
+        final TestDataCompiler.Result result = TestDataCompiler.attempt(
+            this.dir, TestDataCompiler.FACTORY, List.of(), TestDataCompiler.sources(), new EventImplGenProcessor(), options
+        );
+        assertTrue(result.success(), () -> String.join("\n", result.errors()));
+        final List<Diagnostic<? extends JavaFileObject>> notes = result.find(Diagnostic.Kind.NOTE, "[event-impl-gen]: Scanned ");
+        assertEquals(1, notes.size(), () -> String.join("\n", result.messages(Diagnostic.Kind.NOTE)));
+        return notes.get(0).getMessage(Locale.ROOT);
+    }
+
+    private static long number(final String json, final String key) {
+        final Matcher matcher = Pattern.compile("\"" + key + "\": (\\d+)").matcher(json);
+        assertTrue(matcher.find(), () -> "missing " + key + " in " + json);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static double hitRate(final String json, final String cache) {
+        final Matcher matcher = Pattern.compile("\"" + cache + "\": \\{\"hits\": (\\d+), \"misses\": (\\d+), \"hitRate\": ([0-9.]+)}").matcher(json);
+        assertTrue(matcher.find(), () -> "missing " + cache + " in " + json);
+        final long hits = Long.parseLong(matcher.group(1));
+        final long misses = Long.parseLong(matcher.group(2));
+        final double rate = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        assertEquals(rate, Double.parseDouble(matcher.group(3)), 0.0001);
+        return rate;
+    }
+
+}
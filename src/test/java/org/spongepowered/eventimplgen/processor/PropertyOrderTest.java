@@ -0,0 +1,152 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the order of factory method parameters for overlapping sort
+ * priority and grouping prefixes.
+ *
+ * <p>Parameter names are kept in the compiled factory with
+ * {@code -parameters}.</p>
+ */
+class PropertyOrderTest {
+
+    private static final String FACTORY = "test.order.OrderEventFactory";
+    private static final String RENAME_EVENT = """
+        package test.order;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface RenameEvent {
+
+            String name();
+
+            String old$Name();
+
+        }
+        """;
+    private static final String TRAVEL_EVENT = """
+        package test.order;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface TravelEvent {
+
+            String fromWorldSpawn();
+
+            String targetSpawn();
+
+            String toWorldSpawn();
+
+        }
+        """;
+    private static final String RETURN_EVENT = """
+        package test.order;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface ReturnEvent {
+
+            String atHome();
+
+            String fromHome();
+
+            String toHome();
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSortPriorityPrefixIsLiteral() throws Exception {
+        // as a regular expression, the prefix would only match at the end of a name
+        final List<String> parameters = this.parameters("RenameEvent", PropertyOrderTest.RENAME_EVENT, "-A" + EventGenOptions.SORT_PRIORITY_PREFIX + "=old$");
+
+        assertEquals(List.of("old$Name", "name"), parameters);
+    }
+
+    @Test
+    void testLongestGroupingPrefixWins() throws Exception {
+        final List<String> parameters = this.parameters(
+            "TravelEvent",
+            PropertyOrderTest.TRAVEL_EVENT,
+            "-A" + EventGenOptions.GROUPING_PREFIXES + "=from:to,fromWorld:target"
+        );
+
+        // fromWorld pairs fromWorldSpawn with targetSpawn, before from could pair it with toWorldSpawn
+        assertEquals(List.of("fromWorldSpawn", "targetSpawn", "toWorldSpawn"), parameters);
+    }
+
+    @Test
+    void testConsumedPartnerIsSkipped() throws Exception {
+        final List<String> parameters = this.parameters(
+            "ReturnEvent",
+            PropertyOrderTest.RETURN_EVENT,
+            "-A" + EventGenOptions.GROUPING_PREFIXES + "=from:to,to:at"
+        );
+
+        // toHome is already paired with fromHome, so it can't be paired with atHome as well
+        assertEquals(List.of("fromHome", "toHome", "atHome"), parameters);
+    }
+
+    private List<String> parameters(final String event, final String source, final String option) throws Exception {
+        final Path file = this.dir.resolve("src/test/order/" + event + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(output, PropertyOrderTest.FACTORY, List.of(), List.of(file.toFile()), "-parameters", option);
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, PropertyOrderTest.class.getClassLoader())) {
+            final Method factoryMethod = Arrays.stream(loader.loadClass(PropertyOrderTest.FACTORY).getMethods())
+                .filter(method -> method.getName().equals("create" + event))
+                .findFirst()
+                .orElseThrow();
+            return Arrays.stream(factoryMethod.getParameters())
+                .map(Parameter::getName)
+                .collect(Collectors.toList());
+        }
+    }
+
+}
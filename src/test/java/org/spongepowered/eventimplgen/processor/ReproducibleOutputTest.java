@@ -0,0 +1,102 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compiles the test data twice, with the sources given to javac in a
+ * different order, checking the generated output is byte for byte
+ * identical.
+ */
+class ReproducibleOutputTest {
+
+    @TempDir
+    Path first;
+
+    @TempDir
+    Path second;
+
+    @Test
+    void testGeneratedSourcesAreReproducible() throws Exception {
+        this.compileShuffled();
+        // compiled classes are javac's output, only compare what the processor wrote
+        this.assertSameOutput(file -> !file.toString().endsWith(".class"));
+    }
+
+    @Test
+    void testGeneratedClassesAreReproducible() throws Exception {
+        this.compileShuffled("-A" + EventGenOptions.IMPL_OUTPUT + "=class");
+        this.assertSameOutput(file -> file.getFileName().toString().endsWith("_Impl.class") || !file.toString().endsWith(".class"));
+    }
+
+    private void compileShuffled(final String... extraOptions) throws IOException {
+        final List<File> sources = TestDataCompiler.sources();
+        TestDataCompiler.compile(this.first, sources, extraOptions);
+
+        final List<File> shuffled = new ArrayList<>(sources);
+        Collections.shuffle(shuffled, new Random(42));
+        TestDataCompiler.compile(this.second, shuffled, extraOptions);
+    }
+
+    private void assertSameOutput(final Predicate<Path> filter) throws IOException {
+        final Map<String, byte[]> expected = ReproducibleOutputTest.read(this.first, filter);
+        final Map<String, byte[]> actual = ReproducibleOutputTest.read(this.second, filter);
+        assertFalse(expected.isEmpty(), "nothing was generated");
+        assertEquals(expected.keySet(), actual.keySet());
+        for (final Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), () -> entry.getKey() + " differs between builds");
+        }
+    }
+
+    private static Map<String, byte[]> read(final Path root, final Predicate<Path> filter) throws IOException {
+        final Map<String, byte[]> contents = new TreeMap<>();
+        try (final Stream<Path> files = Files.walk(root)) {
+            for (final Path file : (Iterable<Path>) files.filter(Files::isRegularFile).filter(filter)::iterator) {
+                contents.put(root.relativize(file).toString(), Files.readAllBytes(file));
+            }
+        }
+        return contents;
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.eventimplgen.eventgencore.NamingConvention;
+import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the processor with service providers on its path, as plugins and
+ * naming conventions are discovered from.
+ *
+ * <p>Providers are only looked up in the processor's own class loader, so
+ * the processor is loaded in isolation together with the providers.</p>
+ */
+class ServiceProviderTest {
+
+    private static final String PLUGIN = """
+        package test.plugin;
+
+        import javax.lang.model.element.TypeElement;
+
+        import org.spongepowered.eventimplgen.AnnotationIndex;
+        import org.spongepowered.eventimplgen.eventgencore.Property;
+        import org.spongepowered.eventimplgen.factory.ClassContext;
+        import org.spongepowered.eventimplgen.factory.plugin.EventFactoryPlugin;
+
+        public class MarkerPlugin implements EventFactoryPlugin {
+
+            @Override
+            public String id() {
+                return "marker";
+            }
+
+            @Override
+            public String version() {
+                return "1.2";
+            }
+
+            @Override
+            public boolean mayContributeToClass(final TypeElement eventClass) {
+                return eventClass.getSimpleName().contentEquals("PartyEvent");
+            }
+
+            @Override
+            public Result beforeClass(final TypeElement eventClass, final ClassContext classWriter) {
+                return this.mayContributeToClass(eventClass) ? Result.SUCCESSS : Result.IGNORE;
+            }
+
+            @Override
+            public boolean mayContribute(final TypeElement eventClass, final Property property, final AnnotationIndex annotations) {
+                return false;
+            }
+
+            @Override
+            public Result contributeProperty(final TypeElement eventClass, final ClassContext classWriter, final Property property) {
+                return Result.IGNORE;
+            }
+
+        }
+        """;
+    private static final String CONVENTION = """
+        package test.plugin;
+
+        import org.spongepowered.eventimplgen.eventgencore.NamingConvention;
+
+        public class WithConvention implements NamingConvention {
+
+            @Override
+            public Kind kind() {
+                return Kind.MUTATOR;
+            }
+
+            @Override
+            public String prefix() {
+                return "with";
+            }
+
+        }
+        """;
+    private static final String CONVENTION_EVENT = """
+        package test.convention;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+
+        @GenerateFactoryMethod
+        public interface HatEvent {
+
+            String hat();
+
+            void withHat(String hat);
+
+        }
+        """;
+    private static final String CONVENTION_FACTORY = "test.convention.ConventionEventFactory";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPluginRecordedInGeneratedEvent() throws Exception {
+        final Path providers = this.dir.resolve("providers");
+        ServiceProviderTest.compileProvider(this.dir.resolve("src/test/plugin/MarkerPlugin.java"), ServiceProviderTest.PLUGIN, providers);
+        ServiceProviderTest.register(providers, EventFactoryPlugin.class, "test.plugin.MarkerPlugin");
+
+        final Path output = this.dir.resolve("out");
+        try (final URLClassLoader loader = ServiceProviderTest.processorLoader(providers)) {
+            TestDataCompiler.compile(output, TestDataCompiler.FACTORY, List.of(), TestDataCompiler.sources(), ServiceProviderTest.processor(loader));
+        }
+
+        // only the events a plugin contributed to record it
+        assertTrue(Files.readString(output.resolve("test/event/PartyEvent_Impl.java")).contains("plugins = \"marker:1.2\""));
+        assertFalse(Files.readString(output.resolve("test/event/ConnectionEvent_Impl.java")).contains("marker"));
+    }
+
+    @Test
+    void testNamingConventionRecognized() throws Exception {
+        final Path providers = this.dir.resolve("providers");
+        ServiceProviderTest.compileProvider(this.dir.resolve("src/test/plugin/WithConvention.java"), ServiceProviderTest.CONVENTION, providers);
+        ServiceProviderTest.register(providers, NamingConvention.class, "test.plugin.WithConvention");
+
+        final Path event = this.dir.resolve("src/test/convention/HatEvent.java");
+        Files.createDirectories(event.getParent());
+        Files.writeString(event, ServiceProviderTest.CONVENTION_EVENT);
+        final Path output = this.dir.resolve("out");
+        try (final URLClassLoader loader = ServiceProviderTest.processorLoader(providers)) {
+            TestDataCompiler.compile(output, ServiceProviderTest.CONVENTION_FACTORY, List.of(), List.of(event.toFile()), ServiceProviderTest.processor(loader));
+        }
+
+        // withHat is only implemented as a mutator if the convention was found
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, ServiceProviderTest.class.getClassLoader())) {
+            final Class<?> type = loader.loadClass("test.convention.HatEvent");
+            final Object hatEvent = loader.loadClass(ServiceProviderTest.CONVENTION_FACTORY).getMethod("createHatEvent", String.class).invoke(null, "fedora");
+            type.getMethod("withHat", String.class).invoke(hatEvent, "bowler");
+            assertEquals("bowler", type.getMethod("hat").invoke(hatEvent));
+        }
+    }
+
+    @Test
+    void testBrokenProvidersReported() throws Exception {
+        final Path providers = this.dir.resolve("providers");
+        ServiceProviderTest.register(providers, EventFactoryPlugin.class, "test.plugin.AbsentPlugin");
+        ServiceProviderTest.register(providers, NamingConvention.class, "test.plugin.AbsentConvention");
+
+        final TestDataCompiler.Result result;
+        try (final URLClassLoader loader = ServiceProviderTest.processorLoader(providers)) {
+            result = TestDataCompiler.attempt(
+                this.dir.resolve("out"),
+                TestDataCompiler.FACTORY,
+                List.of(),
+                TestDataCompiler.sources(),
+                ServiceProviderTest.processor(loader)
+            );
+        }
+
+        assertFalse(result.success());
+        assertEquals(1, result.find(Diagnostic.Kind.ERROR, "Unable to load an event factory plugin").size(), () -> String.join("\n", result.errors()));
+        assertEquals(1, result.find(Diagnostic.Kind.ERROR, "test.plugin.AbsentPlugin").size());
+        assertEquals(1, result.find(Diagnostic.Kind.ERROR, "Unable to load a naming convention").size());
+        assertEquals(1, result.find(Diagnostic.Kind.ERROR, "test.plugin.AbsentConvention").size());
+    }
+
+    private static void compileProvider(final Path source, final String content, final Path output) throws IOException {
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, content);
+        Files.createDirectories(output);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final int status = compiler.run(null, null, null,
+            "-proc:none",
+            "-classpath", System.getProperty("java.class.path"),
+            "-d", output.toString(),
+            source.toString()
+        );
+        assertEquals(0, status, "Failed to compile the test provider");
+    }
+
+    private static void register(final Path providers, final Class<?> service, final String provider) throws IOException {
+        final Path services = providers.resolve("META-INF/services/" + service.getName());
+        Files.createDirectories(services.getParent());
+        Files.writeString(services, provider + "\n");
+    }
+
+    /**
+     * Create a class loader for the processor and its dependencies, that
+     * also sees the providers.
+     */
+    private static URLClassLoader processorLoader(final Path providers) throws IOException {
+        final List<URL> path = new ArrayList<>();
+        path.add(providers.toUri().toURL());
+        for (final String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            path.add(Path.of(entry).toUri().toURL());
+        }
+        return new URLClassLoader(path.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+    }
+
+    private static Processor processor(final ClassLoader loader) throws ReflectiveOperationException {
+        return (Processor) loader.loadClass(EventImplGenProcessor.class.getName()).getConstructor().newInstance();
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles the {@code test-data} event corpus in-process, with the processor
+ * configured the same way as that project's build.
+ */
+final class TestDataCompiler {
+
+    static final Path SOURCES = Path.of("test-data", "src", "main", "java");
+    static final String FACTORY = "test.event.TestEventFactory";
+
+    private TestDataCompiler() {
+    }
+
+    static List<File> sources() throws IOException {
+        try (final Stream<Path> files = Files.walk(TestDataCompiler.SOURCES)) {
+            return files.filter(file -> file.toString().endsWith(".java"))
+                .map(Path::toFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Write the source of a top level type into the {@code src} directory of
+     * a test.
+     *
+     * @param dir the directory of the test
+     * @param name the qualified name of the type
+     * @param source the source of the type
+     * @return the source file
+     */
+    static File write(final Path dir, final String name, final String source) throws IOException {
+        final Path file = dir.resolve("src").resolve(name.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+        return file.toFile();
+    }
+
+    /**
+     * Compile the corpus into the output directory.
+     *
+     * @param output the class output directory
+     * @param sources the source files to compile, in the order they are given to javac
+     * @param extraOptions additional compiler options
+     */
+    static void compile(final Path output, final List<File> sources, final String... extraOptions) throws IOException {
+        TestDataCompiler.compile(output, TestDataCompiler.FACTORY, List.of(), sources, extraOptions);
+    }
+
+    /**
+     * Compile sources into the output directory, as another module.
+     *
+     * @param output the class output directory
+     * @param factory the name of the factory to generate
+     * @param classpath additional classpath entries, such as the output of other modules
+     * @param sources the source files to compile, in the order they are given to javac
+     * @param extraOptions additional compiler options
+     */
+    static void compile(
+        final Path output,
+        final String factory,
+        final List<Path> classpath,
+        final List<File> sources,
+        final String... extraOptions
+    ) throws IOException {
+        TestDataCompiler.compile(output, factory, classpath, sources, new EventImplGenProcessor(), extraOptions);
+    }
+
+    /**
+     * Compile sources into the output directory with an existing processor,
+     * as a compiler daemon reusing it would.
+     *
+     * @param output the class output directory
+     * @param factory the name of the factory to generate
+     * @param classpath additional classpath entries, such as the output of other modules
+     * @param sources the source files to compile, in the order they are given to javac
+     * @param processor the processor to run
+     * @param extraOptions additional compiler options
+     */
+    static void compile(
+        final Path output,
+        final String factory,
+        final List<Path> classpath,
+        final List<File> sources,
+        final Processor processor,
+        final String... extraOptions
+    ) throws IOException {
+        final Result result = TestDataCompiler.attempt(output, factory, classpath, sources, processor, extraOptions);
+        assertTrue(result.success(), () -> result.errors().stream()
+            .collect(Collectors.joining("\n", "Failed to compile test data:\n", "")));
+    }
+
+    /**
+     * Compile sources into the output directory, without requiring the
+     * compilation to succeed.
+     *
+     * @param output the class output directory
+     * @param factory the name of the factory to generate
+     * @param classpath additional classpath entries, such as the output of other modules
+     * @param sources the source files to compile, in the order they are given to javac
+     * @param processor the processor to run
+     * @param extraOptions additional compiler options
+     * @return the outcome of the compilation
+     */
+    static Result attempt(
+        final Path output,
+        final String factory,
+        final List<Path> classpath,
+        final List<File> sources,
+        final Processor processor,
+        final String... extraOptions
+    ) throws IOException {
+        return TestDataCompiler.attempt(output, factory, classpath, sources, List.of(processor), extraOptions);
+    }
+
+    /**
+     * Compile sources into the output directory with several processors,
+     * without requiring the compilation to succeed.
+     *
+     * @param output the class output directory
+     * @param factory the name of the factory to generate
+     * @param classpath additional classpath entries, such as the output of other modules
+     * @param sources the source files to compile, in the order they are given to javac
+     * @param processors the processors to run, in order
+     * @param extraOptions additional compiler options
+     * @return the outcome of the compilation
+     */
+    static Result attempt(
+        final Path output,
+        final String factory,
+        final List<Path> classpath,
+        final List<File> sources,
+        final List<? extends Processor> processors,
+        final String... extraOptions
+    ) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Files.createDirectories(output);
+
+        final StringBuilder fullClasspath = new StringBuilder(System.getProperty("java.class.path"));
+        for (final Path entry : classpath) {
+            fullClasspath.append(File.pathSeparatorChar).append(entry);
+        }
+
+        final List<String> options = new ArrayList<>(List.of(
+            "-d", output.toString(),
+            "-classpath", fullClasspath.toString(),
+            "-A" + EventGenOptions.GENERATED_EVENT_FACTORY + "=" + factory,
+            "-A" + EventGenOptions.EXCLUSIVE_FOLDERS + "=test/event/cause/filter"
+        ));
+        options.addAll(List.of(extraOptions));
+
+        try (final StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null, files.getJavaFileObjectsFromFiles(sources));
+            task.setProcessors(processors);
+            final boolean success = task.call();
+            return new Result(success, List.copyOf(diagnostics.getDiagnostics()));
+        }
+    }
+
+    static URLClassLoader compileAndLoad(final Path output, final String... extraOptions) throws IOException {
+        TestDataCompiler.compile(output, TestDataCompiler.sources(), extraOptions);
+        return new URLClassLoader(new URL[] {output.toUri().toURL()}, TestDataCompiler.class.getClassLoader());
+    }
+
+    /**
+     * The outcome of a compilation.
+     *
+     * @param success whether compilation succeeded
+     * @param diagnostics everything reported by javac and the processor
+     */
+    record Result(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+
+        List<String> errors() {
+            return this.messages(Diagnostic.Kind.ERROR);
+        }
+
+        List<String> messages(final Diagnostic.Kind kind) {
+            return this.diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+        }
+
+        /**
+         * Get the diagnostics of a kind whose message contains the text.
+         */
+        List<Diagnostic<? extends JavaFileObject>> find(final Diagnostic.Kind kind, final String text) {
+            return this.diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind && diagnostic.getMessage(Locale.ROOT).contains(text))
+                .collect(Collectors.toList());
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how a {@code @TransformResult} accessor calls its
+ * {@code @TransformWith} method.
+ */
+class TransformResultTest {
+
+    private static final String FACTORY = "test.transform.TransformEventFactory";
+    private static final String STACK = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public final class Stack {
+
+            public final int copies;
+
+            public Stack(final int copies) {
+                this.copies = copies;
+            }
+
+            @TransformWith
+            public Stack copy() {
+                return new Stack(this.copies + 1);
+            }
+
+        }
+        """;
+    private static final String BOX = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public final class Box {
+
+            public final int copies;
+
+            public Box(final int copies) {
+                this.copies = copies;
+            }
+
+            // for compatibility with generics
+            @TransformWith
+            public Object copy() {
+                return new Box(this.copies + 1);
+            }
+
+        }
+        """;
+    private static final String EVENT = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+        import org.spongepowered.eventgen.annotations.TransformResult;
+
+        @GenerateFactoryMethod
+        public interface StoreEvent {
+
+            @TransformResult
+            Stack stack();
+
+            @TransformResult
+            Box box();
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testTransformerIsCalledOnThePropertyValue() throws Exception {
+        final List<File> sources = List.of(
+            TestDataCompiler.write(this.dir, "test.transform.Stack", TransformResultTest.STACK),
+            TestDataCompiler.write(this.dir, "test.transform.Box", TransformResultTest.BOX),
+            TestDataCompiler.write(this.dir, "test.transform.StoreEvent", TransformResultTest.EVENT)
+        );
+        final Path output = this.dir.resolve("out");
+        TestDataCompiler.compile(output, TransformResultTest.FACTORY, List.of(), sources);
+
+        // @TransformWith methods are declared on the property type and take no
+        // arguments, so the accessor calls them on the value. The event itself
+        // declares no such method, so it can't be called as this.copy(this.stack).
+        final String impl = Files.readString(output.resolve("test/transform/StoreEvent_Impl.java"));
+        assertTrue(impl.contains("this.stack.copy()"), impl);
+        assertTrue(impl.contains("(Box) this.box.copy()"), impl);
+        assertFalse(impl.contains("this.copy("), impl);
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, TransformResultTest.class.getClassLoader())) {
+            final Class<?> stackType = loader.loadClass("test.transform.Stack");
+            final Class<?> boxType = loader.loadClass("test.transform.Box");
+            final Method create = Arrays.stream(loader.loadClass(TransformResultTest.FACTORY).getMethods())
+                .filter(method -> method.getName().equals("createStoreEvent"))
+                .findFirst()
+                .orElseThrow();
+            final Object[] args = new Object[create.getParameterCount()];
+            for (int i = 0; i < args.length; i++) {
+                final Class<?> type = create.getParameterTypes()[i];
+                args[i] = (type == stackType ? stackType : boxType).getConstructor(int.class).newInstance(0);
+            }
+            final Object event = create.invoke(null, args);
+            final Class<?> eventType = loader.loadClass("test.transform.StoreEvent");
+
+            // every read transforms the stored value again
+            for (int read = 0; read < 2; read++) {
+                final Object stack = eventType.getMethod("stack").invoke(event);
+                assertEquals(1, stackType.getField("copies").getInt(stack));
+                final Object box = eventType.getMethod("box").invoke(event);
+                assertEquals(1, boxType.getField("copies").getInt(box));
+            }
+        }
+    }
+
+}
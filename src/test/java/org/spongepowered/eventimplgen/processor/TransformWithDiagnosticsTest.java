@@ -0,0 +1,219 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.eventimplgen.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how conflicting {@code @TransformWith} methods are reported by the
+ * accessor modifier plugin.
+ *
+ * <p>Two events use each transformed type, so a conflict must only be
+ * reported once for the type declaring it.</p>
+ */
+class TransformWithDiagnosticsTest {
+
+    private static final String FACTORY = "test.transform.TransformEventFactory";
+    private static final String COPYABLE = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public interface Copyable {
+
+            @TransformWith("copy")
+            Object copy();
+
+        }
+        """;
+    private static final String DUPLICABLE = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public interface Duplicable {
+
+            @TransformWith("copy")
+            Object duplicate();
+
+        }
+        """;
+    private static final String DECLARED_CONFLICT = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public final class Value {
+
+            @TransformWith("copy")
+            public Value copy() {
+                return new Value();
+            }
+
+            @TransformWith("copy")
+            public Value duplicate() {
+                return new Value();
+            }
+
+        }
+        """;
+    private static final String INHERITED_CONFLICT = """
+        package test.transform;
+
+        public final class Value implements Copyable, Duplicable {
+
+            @Override
+            public Value copy() {
+                return new Value();
+            }
+
+            @Override
+            public Value duplicate() {
+                return new Value();
+            }
+
+        }
+        """;
+    private static final String RESOLVED_CONFLICT = """
+        package test.transform;
+
+        import org.spongepowered.eventgen.annotations.TransformWith;
+
+        public final class Value implements Copyable, Duplicable {
+
+            @Override
+            @TransformWith("copy")
+            public Value copy() {
+                return new Value();
+            }
+
+            @Override
+            public Value duplicate() {
+                throw new UnsupportedOperationException();
+            }
+
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDeclaredConflictReportedOnMethod() throws Exception {
+        final TestDataCompiler.Result result = this.attempt(TransformWithDiagnosticsTest.DECLARED_CONFLICT);
+
+        assertFalse(result.success());
+        final List<Diagnostic<? extends JavaFileObject>> errors = result.find(
+            Diagnostic.Kind.ERROR,
+            "Multiple @TransformWith annotations were found with the name copy. One of them needs to be changed!"
+        );
+        assertEquals(1, errors.size(), () -> String.join("\n", result.errors()));
+        // the second method with the name is the one reported
+        this.assertReportedAt(errors.get(0), TransformWithDiagnosticsTest.DECLARED_CONFLICT, "public Value duplicate()");
+    }
+
+    @Test
+    void testInheritedConflictReportedOnType() throws Exception {
+        final TestDataCompiler.Result result = this.attempt(TransformWithDiagnosticsTest.INHERITED_CONFLICT);
+
+        assertFalse(result.success());
+        final List<Diagnostic<? extends JavaFileObject>> errors = result.find(
+            Diagnostic.Kind.ERROR,
+            "Multiple @TransformWith annotations were inherited with the name copy. Declare it on this type to resolve the conflict."
+        );
+        assertEquals(1, errors.size(), () -> String.join("\n", result.errors()));
+        this.assertReportedAt(errors.get(0), TransformWithDiagnosticsTest.INHERITED_CONFLICT, "public final class Value");
+    }
+
+    @Test
+    void testDeclaredMethodResolvesInheritedConflict() throws Exception {
+        final TestDataCompiler.Result result = this.attempt(TransformWithDiagnosticsTest.RESOLVED_CONFLICT);
+        assertTrue(result.success(), () -> String.join("\n", result.errors()));
+
+        try (final URLClassLoader loader = new URLClassLoader(
+            new URL[] {this.dir.resolve("out").toUri().toURL()},
+            TransformWithDiagnosticsTest.class.getClassLoader()
+        )) {
+            final Class<?> value = loader.loadClass("test.transform.Value");
+            final Object original = value.getConstructor().newInstance();
+            final Object event = loader.loadClass(TransformWithDiagnosticsTest.FACTORY).getMethod("createDropEvent", value).invoke(null, original);
+
+            // duplicate() would throw, so the declared copy() is used
+            final Object item = loader.loadClass("test.transform.DropEvent").getMethod("item").invoke(event);
+            assertNotSame(original, item);
+        }
+    }
+
+    private TestDataCompiler.Result attempt(final String value) throws Exception {
+        final List<File> sources = new ArrayList<>();
+        sources.add(TestDataCompiler.write(this.dir, "test.transform.Copyable", TransformWithDiagnosticsTest.COPYABLE));
+        sources.add(TestDataCompiler.write(this.dir, "test.transform.Duplicable", TransformWithDiagnosticsTest.DUPLICABLE));
+        sources.add(TestDataCompiler.write(this.dir, "test.transform.Value", value));
+        sources.add(TestDataCompiler.write(this.dir, "test.transform.DropEvent", TransformWithDiagnosticsTest.event("DropEvent")));
+        sources.add(TestDataCompiler.write(this.dir, "test.transform.ThrowEvent", TransformWithDiagnosticsTest.event("ThrowEvent")));
+        return TestDataCompiler.attempt(this.dir.resolve("out"), TransformWithDiagnosticsTest.FACTORY, List.of(), sources, new EventImplGenProcessor());
+    }
+
+    private static String event(final String name) {
+        return """
+            package test.transform;
+
+            import org.spongepowered.eventgen.annotations.GenerateFactoryMethod;
+            import org.spongepowered.eventgen.annotations.TransformResult;
+
+            @GenerateFactoryMethod
+            public interface %s {
+
+                @TransformResult("copy")
+                Value item();
+
+            }
+            """.formatted(name);
+    }
+
+    private void assertReportedAt(final Diagnostic<? extends JavaFileObject> diagnostic, final String source, final String line) {
+        final List<String> lines = source.lines().toList();
+        final String expected = lines.stream().filter(candidate -> candidate.contains(line)).findFirst().orElseThrow();
+        assertEquals("Value.java", Path.of(diagnostic.getSource().getName()).getFileName().toString());
+        assertEquals(lines.indexOf(expected) + 1, diagnostic.getLineNumber());
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package test.event.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.Snapshot;
+import test.event.Event;
+import test.event.TestEventFactory;
+import test.event.entity.EntityInteractEvent;
+import test.event.item.PickupItemEvent;
+import test.event.lifecycle.ConnectionEvent;
+import test.event.lifecycle.empty.then.PartyEvent;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes properties of generated events, for each kind of
+ * property the generator handles differently.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PropertyBenchmark {
+
+    private final Path destination = Path.of("spawn");
+    private final Snapshot item = new Snapshot("apple");
+    private PartyEvent party;
+    private ConnectionEvent connection;
+    private PickupItemEvent pickup;
+    private EntityInteractEvent.Secondary.Post post;
+    private boolean balloons;
+
+    @Setup
+    public void setup() {
+        this.party = TestEventFactory.createPartyEvent(true, false, 100);
+        this.connection = TestEventFactory.createConnectionEvent(Optional.empty(), "server", false);
+        this.pickup = TestEventFactory.createPickupItemEvent(this.item, false);
+        final EntityInteractEvent.Secondary secondary = TestEventFactory.createEntityInteractEventSecondary(true, false);
+        final List<Event> children = List.of(TestEventFactory.createAnotherEventPost(false));
+        this.post = TestEventFactory.createEntityInteractEventSecondaryPost(secondary, children, false, false);
+    }
+
+    @Benchmark
+    public int getPlain() {
+        return this.party.guests();
+    }
+
+    @Benchmark
+    public void setPlain() {
+        this.balloons = !this.balloons;
+        this.party.setBalloons(this.balloons);
+    }
+
+    @Benchmark
+    public Optional<Path> getOptional() {
+        return this.connection.destination();
+    }
+
+    @Benchmark
+    public void setOptional() {
+        this.connection.setDestination(this.destination);
+    }
+
+    @Benchmark
+    public EntityInteractEvent.Secondary getCovariant() {
+        return this.post.baseEvent();
+    }
+
+    @Benchmark
+    public Snapshot getTransformResultMemoized() {
+        return this.pickup.item();
+    }
+
+    @Benchmark
+    public Snapshot setThenGetTransformResult() {
+        // invalidates the memoized copy, so the transformer runs again
+        this.pickup.setItem(this.item);
+        return this.pickup.item();
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Event Implementation Generator, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package test.event.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.Snapshot;
+import test.event.CompositeEvent;
+import test.event.Event;
+import test.event.TestEventFactory;
+import test.event.entity.EntityInteractEvent;
+import test.event.item.PickupItemEvent;
+import test.event.lifecycle.empty.then.PartyEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats generated events, as done when logging them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ToStringBenchmark {
+
+    private PartyEvent party;
+    private PickupItemEvent pickup;
+    private CompositeEvent<?> composite;
+
+    @Setup
+    public void setup() {
+        this.party = TestEventFactory.createPartyEvent(true, false, 100);
+        this.pickup = TestEventFactory.createPickupItemEvent(new Snapshot("apple"), false);
+        final EntityInteractEvent.Secondary secondary = TestEventFactory.createEntityInteractEventSecondary(true, false);
+        final List<Event> children = List.of(TestEventFactory.createAnotherEventPost(false), TestEventFactory.createAnotherEventPost(true));
+        this.composite = TestEventFactory.createCompositeEvent(secondary, children, false);
+    }
+
+    @Benchmark
+    public String plain() {
+        return this.party.toString();
+    }
+
+    @Benchmark
+    public String transformResult() {
+        return this.pickup.toString();
+    }
+
+    @Benchmark
+    public String composite() {
+        return this.composite.toString();
+    }
+
+}
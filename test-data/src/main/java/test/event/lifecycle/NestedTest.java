@@ -24,6 +24,7 @@
  */
 package test.event.lifecycle;
 
+import org.spongepowered.eventgen.annotations.BatchFactoryMethod;
 import test.event.Event;
 
 public interface NestedTest extends Event {
@@ -36,6 +37,7 @@ interface Pre extends NestedTest {
 
     }
 
+    @BatchFactoryMethod
     interface Post extends NestedTest {
 
     }
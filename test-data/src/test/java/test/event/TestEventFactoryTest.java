@@ -26,8 +26,13 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import test.Snapshot;
+import test.event.item.PickupItemEvent;
 import test.event.lifecycle.NestedTest;
+import test.event.lifecycle.empty.then.PartyEvent;
+import test.event.world.ChunkSaveEvent;
 
+import java.util.ArrayList;
 import java.util.List;
 
 class TestEventFactoryTest {
@@ -39,6 +44,81 @@ void testTestEventFactory() {
         Assertions.assertEquals(conn.toString(), "Post{cancelled=false, count=5}");
     }
 
+    @Test
+    void testBatchFactory() {
+        final NestedTest.Post[] posts = TestEventFactory.createNestedTestPostBatch(2, new boolean[] {false, true}, new int[] {1, 2, 3});
+        Assertions.assertEquals(2, posts.length);
+        Assertions.assertEquals("Post{cancelled=true, count=2}", posts[1].toString());
+
+        final NestedTest.Post first = posts[0];
+        TestEventFactory.fillNestedTestPostBatch(posts, 1, new boolean[] {true}, new int[] {4});
+        Assertions.assertSame(first, posts[0]);
+        Assertions.assertEquals("Post{cancelled=true, count=4}", posts[0].toString());
+        Assertions.assertEquals("Post{cancelled=true, count=2}", posts[1].toString());
+    }
+
+    @Test
+    void testFlyweightView() {
+        final ChunkSaveEvent_Columns columns = new ChunkSaveEvent_Columns(1);
+        columns.add(List.of("creeper"), "overworld", 1, 2);
+        columns.add(List.of(), "nether", 3, 4);
+        Assertions.assertEquals(2, columns.size());
+
+        final ChunkSaveEvent second = columns.get(1);
+        Assertions.assertEquals("nether", second.world());
+        Assertions.assertEquals(3, second.x());
+        Assertions.assertEquals(4, second.z());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> columns.get(2));
+
+        final List<String> worlds = new ArrayList<>();
+        columns.forEach(event -> worlds.add(event.world() + event.entities()));
+        Assertions.assertEquals(List.of("overworld[creeper]", "nether[]"), worlds);
+
+        columns.clear();
+        Assertions.assertEquals(0, columns.size());
+    }
+
+    @Test
+    void testMemoizedTransformResult() {
+        final Snapshot original = new Snapshot("apple");
+        final PickupItemEvent event = TestEventFactory.createPickupItemEvent(original, false);
+        final Snapshot item = event.item();
+        Assertions.assertNotSame(original, item);
+        Assertions.assertSame(item, event.item());
+
+        event.setItem(new Snapshot("pear"));
+        Assertions.assertNotSame(item, event.item());
+        Assertions.assertEquals("pear", event.item().name());
+    }
+
+    @Test
+    void testFillResetsMemoizedTransformResult() {
+        final PickupItemEvent[] events = TestEventFactory.createPickupItemEventBatch(1, new Snapshot[] {new Snapshot("apple")}, new boolean[] {false});
+        final PickupItemEvent event = events[0];
+        Assertions.assertEquals("apple", event.item().name());
+
+        TestEventFactory.fillPickupItemEventBatch(events, 1, new Snapshot[] {new Snapshot("pear")}, new boolean[] {false});
+        Assertions.assertSame(event, events[0]);
+        Assertions.assertEquals("pear", event.item().name());
+
+        TestEventFactory.fillPickupItemEventBatch(events, 1, new Snapshot[] {new Snapshot("plum")}, new boolean[] {true});
+        Assertions.assertEquals("plum", event.item().name());
+        Assertions.assertTrue(event.cancelled());
+    }
+
+    @Test
+    void testEventIdsAreDense() {
+        for (int id = 0; id < TestEventFactory.eventCount(); id++) {
+            Assertions.assertEquals(id, TestEventFactory.eventId(TestEventFactory.eventType(id)));
+        }
+
+        final PartyEvent party = TestEventFactory.createPartyEvent(true, false, 100);
+        final int id = TestEventFactory.eventId(party.getClass());
+        Assertions.assertEquals(PartyEvent.class, TestEventFactory.eventType(id));
+        Assertions.assertEquals(List.of(Event.class), TestEventFactory.eventSupertypes(id));
+        Assertions.assertEquals(-1, TestEventFactory.eventId(Event.class));
+    }
+
     @Test
     void testIndirectlyAnnotatedPackageGenerated() {
         Assertions.assertNotNull(TestEventFactory.createPartyEvent(true, false, 100));